@@ -28,28 +28,32 @@ disjunction_test : '<<' constant+ '>>' ;
 relational_test : relation? single_test ;
 relation : '<>' | '<' | '>' | '<=' | '>=' | '==' | '<=>' | '=';
 single_test : variable | constant ;
-variable : '<' sym_constant '>' ;
+// A single Variable token keeps '<' of a variable apart from the '<' relation with one token of lookahead
+variable : Variable ;
 constant : sym_constant | Int_constant | Float_constant | Print_string ;
 
 // Grammar for Action Side
 action_side : (action  | func_call | print)* ;
 action : ( '(' variable attr_value_make+ ')' );
-print : ( '(' 'write ' ( Print_string | variable | '(crlf)')+ ')' )+ ;
+print : ( '(' WRITE ( Print_string | variable | '(crlf)')+ ')' )+ ;
 Print_string : '|' ~[|]* '|' ;
 func_call : '(' func_name value* ')' ;
-func_name : sym_constant | '+' | '-' | '*' | '/' ;
+// write is left to print so (write ...) is never ambiguous
+func_name : Sym_constant | STATE | '+' | '-' | '*' | '/' ;
 value : constant | func_call | variable ;
 attr_value_make : '^' variable_or_sym_constant ( '.' variable_or_sym_constant )* value_make ;
 variable_or_sym_constant : variable | sym_constant ;
 value_make : (Negative_pref)? value pref_specifier* ;
-pref_specifier : ( unary_pref ','? ) | ( unary_or_binary_pref ','? ) | unary_or_binary_pref value ','? ;
+pref_specifier : ( unary_pref ','? ) | ( unary_or_binary_pref value? ','? ) ;
 unary_pref : '+' | '-' | '!' | '~' | '@' ;
 unary_or_binary_pref : '>' | '=' | '<' | '&' ;
 
-sym_constant: Sym_constant | STATE ;
+sym_constant: Sym_constant | STATE | WRITE ;
 
 // Types of constants
 STATE: 'state' ;
+WRITE: 'write' ;
+Variable : '<' [a-zA-Z] [a-zA-Z0-9-_*]* '>' ;
 Sym_constant : [a-zA-Z] [a-zA-Z0-9-_*]* ;
 Int_constant : [0-9]+ ;
 Negative_pref : '-';
@@ -1,4 +1,4 @@
-// Generated from D:/SoarToPrismTranslator/src/main/antlr4/edu/fit/assist/soar/Soar.g4 by ANTLR 4.13.1
+// Generated from src/main/antlr4/edu/fit/assist/soar/Soar.g4 by ANTLR 4.13.2
 
     package edu.fit.assist.translator.gen;
 
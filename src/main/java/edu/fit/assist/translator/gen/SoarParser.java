@@ -1,18 +1,19 @@
-// Generated from D:/SoarToPrismTranslator/src/main/antlr4/edu/fit/assist/soar/Soar.g4 by ANTLR 4.13.1
+// Generated from src/main/antlr4/edu/fit/assist/soar/Soar.g4 by ANTLR 4.13.2
 
     package edu.fit.assist.translator.gen;
 
 import org.antlr.v4.runtime.atn.*;
 import org.antlr.v4.runtime.dfa.DFA;
 import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.*;
 import org.antlr.v4.runtime.tree.*;
 import java.util.List;
 import java.util.Iterator;
 import java.util.ArrayList;
 
-@SuppressWarnings({"all", "warnings", "unchecked", "unused", "cast", "CheckReturnValue"})
+@SuppressWarnings({"all", "warnings", "unchecked", "unused", "cast", "CheckReturnValue", "this-escape"})
 public class SoarParser extends Parser {
-	static { RuntimeMetaData.checkVersion("4.13.1", RuntimeMetaData.VERSION); }
+	static { RuntimeMetaData.checkVersion("4.13.2", RuntimeMetaData.VERSION); }
 
 	protected static final DFA[] _decisionToDFA;
 	protected static final PredictionContextCache _sharedContextCache =
@@ -22,9 +23,9 @@ public class SoarParser extends Parser {
 		T__9=10, T__10=11, T__11=12, T__12=13, T__13=14, T__14=15, T__15=16, T__16=17, 
 		T__17=18, T__18=19, T__19=20, T__20=21, T__21=22, T__22=23, T__23=24, 
 		T__24=25, T__25=26, T__26=27, T__27=28, T__28=29, T__29=30, T__30=31, 
-		T__31=32, T__32=33, T__33=34, T__34=35, T__35=36, T__36=37, T__37=38, 
-		Documentation=39, Print_string=40, STATE=41, Sym_constant=42, Int_constant=43, 
-		Negative_pref=44, Float_constant=45, WS=46, COMMENT=47;
+		T__31=32, T__32=33, T__33=34, T__34=35, T__35=36, T__36=37, Documentation=38, 
+		Print_string=39, STATE=40, WRITE=41, Variable=42, Sym_constant=43, Int_constant=44, 
+		Negative_pref=45, Float_constant=46, WS=47, COMMENT=48;
 	public static final int
 		RULE_soar = 0, RULE_soar_production = 1, RULE_flags = 2, RULE_condition_side = 3, 
 		RULE_state_imp_cond = 4, RULE_cond = 5, RULE_positive_cond = 6, RULE_conds_for_one_id = 7, 
@@ -55,8 +56,8 @@ public class SoarParser extends Parser {
 			null, "'sp'", "'gp'", "'{'", "'-->'", "'}'", "':'", "'o-support'", "'i-support'", 
 			"'chunk'", "'default'", "'template'", "'('", "'impasse'", "')'", "'^'", 
 			"'.'", "'+'", "'['", "']'", "'<<'", "'>>'", "'<>'", "'<'", "'>'", "'<='", 
-			"'>='", "'=='", "'<=>'", "'='", "'write '", "'(crlf)'", "'*'", "'/'", 
-			"','", "'!'", "'~'", "'@'", "'&'", null, null, "'state'", null, null, 
+			"'>='", "'=='", "'<=>'", "'='", "'(crlf)'", "'*'", "'/'", "','", "'!'", 
+			"'~'", "'@'", "'&'", null, null, "'state'", "'write'", null, null, null, 
 			"'-'"
 		};
 	}
@@ -66,8 +67,9 @@ public class SoarParser extends Parser {
 			null, null, null, null, null, null, null, null, null, null, null, null, 
 			null, null, null, null, null, null, null, null, null, null, null, null, 
 			null, null, null, null, null, null, null, null, null, null, null, null, 
-			null, null, null, "Documentation", "Print_string", "STATE", "Sym_constant", 
-			"Int_constant", "Negative_pref", "Float_constant", "WS", "COMMENT"
+			null, null, "Documentation", "Print_string", "STATE", "WRITE", "Variable", 
+			"Sym_constant", "Int_constant", "Negative_pref", "Float_constant", "WS", 
+			"COMMENT"
 		};
 	}
 	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
@@ -373,7 +375,7 @@ public class SoarParser extends Parser {
 			setState(96);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
-			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & 17592186048520L) != 0)) {
+			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & 35184372092936L) != 0)) {
 				{
 				{
 				setState(93);
@@ -450,7 +452,7 @@ public class SoarParser extends Parser {
 			setState(102);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
-			if ((((_la) & ~0x3f) == 0 && ((1L << _la) & 51678117363720L) != 0)) {
+			if ((((_la) & ~0x3f) == 0 && ((1L << _la) & 105004431310856L) != 0)) {
 				{
 				setState(101);
 				id_test();
@@ -618,7 +620,7 @@ public class SoarParser extends Parser {
 					setState(121); 
 					_errHandler.sync(this);
 					_la = _input.LA(1);
-				} while ( (((_la) & ~0x3f) == 0 && ((1L << _la) & 17592186048520L) != 0) );
+				} while ( (((_la) & ~0x3f) == 0 && ((1L << _la) & 35184372092936L) != 0) );
 				setState(123);
 				match(T__4);
 				}
@@ -847,7 +849,7 @@ public class SoarParser extends Parser {
 			setState(156);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
-			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & 51678117367816L) != 0)) {
+			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & 105004431314952L) != 0)) {
 				{
 				{
 				setState(153);
@@ -964,6 +966,8 @@ public class SoarParser extends Parser {
 			case T__28:
 			case Print_string:
 			case STATE:
+			case WRITE:
+			case Variable:
 			case Sym_constant:
 			case Int_constant:
 			case Float_constant:
@@ -1074,6 +1078,8 @@ public class SoarParser extends Parser {
 			case T__28:
 			case Print_string:
 			case STATE:
+			case WRITE:
+			case Variable:
 			case Sym_constant:
 			case Int_constant:
 			case Float_constant:
@@ -1154,7 +1160,7 @@ public class SoarParser extends Parser {
 				setState(180); 
 				_errHandler.sync(this);
 				_la = _input.LA(1);
-			} while ( (((_la) & ~0x3f) == 0 && ((1L << _la) & 51678117101568L) != 0) );
+			} while ( (((_la) & ~0x3f) == 0 && ((1L << _la) & 105004431048704L) != 0) );
 			setState(182);
 			match(T__4);
 			}
@@ -1221,6 +1227,8 @@ public class SoarParser extends Parser {
 			case T__28:
 			case Print_string:
 			case STATE:
+			case WRITE:
+			case Variable:
 			case Sym_constant:
 			case Int_constant:
 			case Float_constant:
@@ -1357,7 +1365,7 @@ public class SoarParser extends Parser {
 				setState(200); 
 				_errHandler.sync(this);
 				_la = _input.LA(1);
-			} while ( (((_la) & ~0x3f) == 0 && ((1L << _la) & 51677046505472L) != 0) );
+			} while ( (((_la) & ~0x3f) == 0 && ((1L << _la) & 100605313941504L) != 0) );
 			setState(202);
 			match(T__20);
 			}
@@ -1403,19 +1411,20 @@ public class SoarParser extends Parser {
 	public final Relational_testContext relational_test() throws RecognitionException {
 		Relational_testContext _localctx = new Relational_testContext(_ctx, getState());
 		enterRule(_localctx, 34, RULE_relational_test);
+		int _la;
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
 			setState(205);
 			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,22,_ctx) ) {
-			case 1:
+			_la = _input.LA(1);
+			if ((((_la) & ~0x3f) == 0 && ((1L << _la) & 1069547520L) != 0)) {
 				{
 				setState(204);
 				relation();
 				}
-				break;
 			}
+
 			setState(207);
 			single_test();
 			}
@@ -1516,7 +1525,7 @@ public class SoarParser extends Parser {
 			setState(213);
 			_errHandler.sync(this);
 			switch (_input.LA(1)) {
-			case T__22:
+			case Variable:
 				enterOuterAlt(_localctx, 1);
 				{
 				setState(211);
@@ -1525,6 +1534,7 @@ public class SoarParser extends Parser {
 				break;
 			case Print_string:
 			case STATE:
+			case WRITE:
 			case Sym_constant:
 			case Int_constant:
 			case Float_constant:
@@ -1551,9 +1561,7 @@ public class SoarParser extends Parser {
 
 	@SuppressWarnings("CheckReturnValue")
 	public static class VariableContext extends ParserRuleContext {
-		public Sym_constantContext sym_constant() {
-			return getRuleContext(Sym_constantContext.class,0);
-		}
+		public TerminalNode Variable() { return getToken(SoarParser.Variable, 0); }
 		public VariableContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
 		}
@@ -1580,11 +1588,7 @@ public class SoarParser extends Parser {
 			enterOuterAlt(_localctx, 1);
 			{
 			setState(215);
-			match(T__22);
-			setState(216);
-			sym_constant();
-			setState(217);
-			match(T__23);
+			match(Variable);
 			}
 		}
 		catch (RecognitionException re) {
@@ -1629,35 +1633,36 @@ public class SoarParser extends Parser {
 		ConstantContext _localctx = new ConstantContext(_ctx, getState());
 		enterRule(_localctx, 42, RULE_constant);
 		try {
-			setState(223);
+			setState(221);
 			_errHandler.sync(this);
 			switch (_input.LA(1)) {
 			case STATE:
+			case WRITE:
 			case Sym_constant:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(219);
+				setState(217);
 				sym_constant();
 				}
 				break;
 			case Int_constant:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(220);
+				setState(218);
 				match(Int_constant);
 				}
 				break;
 			case Float_constant:
 				enterOuterAlt(_localctx, 3);
 				{
-				setState(221);
+				setState(219);
 				match(Float_constant);
 				}
 				break;
 			case Print_string:
 				enterOuterAlt(_localctx, 4);
 				{
-				setState(222);
+				setState(220);
 				match(Print_string);
 				}
 				break;
@@ -1722,35 +1727,35 @@ public class SoarParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(230);
+			setState(228);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
 			while (_la==T__11) {
 				{
-				setState(228);
+				setState(226);
 				_errHandler.sync(this);
 				switch ( getInterpreter().adaptivePredict(_input,25,_ctx) ) {
 				case 1:
 					{
-					setState(225);
+					setState(223);
 					action();
 					}
 					break;
 				case 2:
 					{
-					setState(226);
+					setState(224);
 					func_call();
 					}
 					break;
 				case 3:
 					{
-					setState(227);
+					setState(225);
 					print();
 					}
 					break;
 				}
 				}
-				setState(232);
+				setState(230);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 			}
@@ -1805,25 +1810,25 @@ public class SoarParser extends Parser {
 			enterOuterAlt(_localctx, 1);
 			{
 			{
-			setState(233);
+			setState(231);
 			match(T__11);
-			setState(234);
+			setState(232);
 			variable();
-			setState(236); 
+			setState(234); 
 			_errHandler.sync(this);
 			_la = _input.LA(1);
 			do {
 				{
 				{
-				setState(235);
+				setState(233);
 				attr_value_make();
 				}
 				}
-				setState(238); 
+				setState(236); 
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 			} while ( _la==T__14 );
-			setState(240);
+			setState(238);
 			match(T__13);
 			}
 			}
@@ -1841,6 +1846,10 @@ public class SoarParser extends Parser {
 
 	@SuppressWarnings("CheckReturnValue")
 	public static class PrintContext extends ParserRuleContext {
+		public List<TerminalNode> WRITE() { return getTokens(SoarParser.WRITE); }
+		public TerminalNode WRITE(int i) {
+			return getToken(SoarParser.WRITE, i);
+		}
 		public List<TerminalNode> Print_string() { return getTokens(SoarParser.Print_string); }
 		public TerminalNode Print_string(int i) {
 			return getToken(SoarParser.Print_string, i);
@@ -1878,7 +1887,7 @@ public class SoarParser extends Parser {
 			int _alt;
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(252); 
+			setState(250); 
 			_errHandler.sync(this);
 			_alt = 1;
 			do {
@@ -1886,45 +1895,45 @@ public class SoarParser extends Parser {
 				case 1:
 					{
 					{
-					setState(242);
+					setState(240);
 					match(T__11);
-					setState(243);
-					match(T__29);
-					setState(247); 
+					setState(241);
+					match(WRITE);
+					setState(245); 
 					_errHandler.sync(this);
 					_la = _input.LA(1);
 					do {
 						{
-						setState(247);
+						setState(245);
 						_errHandler.sync(this);
 						switch (_input.LA(1)) {
 						case Print_string:
 							{
-							setState(244);
+							setState(242);
 							match(Print_string);
 							}
 							break;
-						case T__22:
+						case Variable:
 							{
-							setState(245);
+							setState(243);
 							variable();
 							}
 							break;
-						case T__30:
+						case T__29:
 							{
-							setState(246);
-							match(T__30);
+							setState(244);
+							match(T__29);
 							}
 							break;
 						default:
 							throw new NoViableAltException(this);
 						}
 						}
-						setState(249); 
+						setState(247); 
 						_errHandler.sync(this);
 						_la = _input.LA(1);
-					} while ( (((_la) & ~0x3f) == 0 && ((1L << _la) & 1101667500032L) != 0) );
-					setState(251);
+					} while ( (((_la) & ~0x3f) == 0 && ((1L << _la) & 4948876066816L) != 0) );
+					setState(249);
 					match(T__13);
 					}
 					}
@@ -1932,7 +1941,7 @@ public class SoarParser extends Parser {
 				default:
 					throw new NoViableAltException(this);
 				}
-				setState(254); 
+				setState(252); 
 				_errHandler.sync(this);
 				_alt = getInterpreter().adaptivePredict(_input,30,_ctx);
 			} while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER );
@@ -1986,25 +1995,25 @@ public class SoarParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(256);
+			setState(254);
 			match(T__11);
-			setState(257);
+			setState(255);
 			func_name();
-			setState(261);
+			setState(259);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
-			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & 51677054898176L) != 0)) {
+			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & 105003360456704L) != 0)) {
 				{
 				{
-				setState(258);
+				setState(256);
 				value();
 				}
 				}
-				setState(263);
+				setState(261);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 			}
-			setState(264);
+			setState(262);
 			match(T__13);
 			}
 		}
@@ -2021,9 +2030,8 @@ public class SoarParser extends Parser {
 
 	@SuppressWarnings("CheckReturnValue")
 	public static class Func_nameContext extends ParserRuleContext {
-		public Sym_constantContext sym_constant() {
-			return getRuleContext(Sym_constantContext.class,0);
-		}
+		public TerminalNode Sym_constant() { return getToken(SoarParser.Sym_constant, 0); }
+		public TerminalNode STATE() { return getToken(SoarParser.STATE, 0); }
 		public TerminalNode Negative_pref() { return getToken(SoarParser.Negative_pref, 0); }
 		public Func_nameContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
@@ -2047,48 +2055,20 @@ public class SoarParser extends Parser {
 	public final Func_nameContext func_name() throws RecognitionException {
 		Func_nameContext _localctx = new Func_nameContext(_ctx, getState());
 		enterRule(_localctx, 52, RULE_func_name);
+		int _la;
 		try {
-			setState(271);
-			_errHandler.sync(this);
-			switch (_input.LA(1)) {
-			case STATE:
-			case Sym_constant:
-				enterOuterAlt(_localctx, 1);
-				{
-				setState(266);
-				sym_constant();
-				}
-				break;
-			case T__16:
-				enterOuterAlt(_localctx, 2);
-				{
-				setState(267);
-				match(T__16);
-				}
-				break;
-			case Negative_pref:
-				enterOuterAlt(_localctx, 3);
-				{
-				setState(268);
-				match(Negative_pref);
-				}
-				break;
-			case T__31:
-				enterOuterAlt(_localctx, 4);
-				{
-				setState(269);
-				match(T__31);
-				}
-				break;
-			case T__32:
-				enterOuterAlt(_localctx, 5);
-				{
-				setState(270);
-				match(T__32);
-				}
-				break;
-			default:
-				throw new NoViableAltException(this);
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(264);
+			_la = _input.LA(1);
+			if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 45086419320832L) != 0)) ) {
+			_errHandler.recoverInline(this);
+			}
+			else {
+				if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+				_errHandler.reportMatch(this);
+				consume();
+			}
 			}
 		}
 		catch (RecognitionException re) {
@@ -2136,31 +2116,32 @@ public class SoarParser extends Parser {
 		ValueContext _localctx = new ValueContext(_ctx, getState());
 		enterRule(_localctx, 54, RULE_value);
 		try {
-			setState(276);
+			setState(269);
 			_errHandler.sync(this);
 			switch (_input.LA(1)) {
 			case Print_string:
 			case STATE:
+			case WRITE:
 			case Sym_constant:
 			case Int_constant:
 			case Float_constant:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(273);
+				setState(266);
 				constant();
 				}
 				break;
 			case T__11:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(274);
+				setState(267);
 				func_call();
 				}
 				break;
-			case T__22:
+			case Variable:
 				enterOuterAlt(_localctx, 3);
 				{
-				setState(275);
+				setState(268);
 				variable();
 				}
 				break;
@@ -2216,27 +2197,27 @@ public class SoarParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(278);
+			setState(271);
 			match(T__14);
-			setState(279);
+			setState(272);
 			variable_or_sym_constant();
-			setState(284);
+			setState(277);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
 			while (_la==T__15) {
 				{
 				{
-				setState(280);
+				setState(273);
 				match(T__15);
-				setState(281);
+				setState(274);
 				variable_or_sym_constant();
 				}
 				}
-				setState(286);
+				setState(279);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 			}
-			setState(287);
+			setState(280);
 			value_make();
 			}
 		}
@@ -2282,21 +2263,22 @@ public class SoarParser extends Parser {
 		Variable_or_sym_constantContext _localctx = new Variable_or_sym_constantContext(_ctx, getState());
 		enterRule(_localctx, 58, RULE_variable_or_sym_constant);
 		try {
-			setState(291);
+			setState(284);
 			_errHandler.sync(this);
 			switch (_input.LA(1)) {
-			case T__22:
+			case Variable:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(289);
+				setState(282);
 				variable();
 				}
 				break;
 			case STATE:
+			case WRITE:
 			case Sym_constant:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(290);
+				setState(283);
 				sym_constant();
 				}
 				break;
@@ -2317,14 +2299,8 @@ public class SoarParser extends Parser {
 
 	@SuppressWarnings("CheckReturnValue")
 	public static class Value_makeContext extends ParserRuleContext {
-//		public ValueContext value() {
-//			return getRuleContext(ValueContext.class,0);
-//		}
-		public List<ValueContext> value() {
-			return getRuleContexts(ValueContext.class);
-		}
-		public ValueContext value(int i) {
-			return getRuleContext(ValueContext.class,i);
+		public ValueContext value() {
+			return getRuleContext(ValueContext.class,0);
 		}
 		public TerminalNode Negative_pref() { return getToken(SoarParser.Negative_pref, 0); }
 		public List<Pref_specifierContext> pref_specifier() {
@@ -2359,29 +2335,29 @@ public class SoarParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(294);
+			setState(287);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
 			if (_la==Negative_pref) {
 				{
-				setState(293);
+				setState(286);
 				match(Negative_pref);
 				}
 			}
 
-			setState(296);
+			setState(289);
 			value();
-			setState(300);
+			setState(293);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
-			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & 18108144287744L) != 0)) {
+			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & 35442632294400L) != 0)) {
 				{
 				{
-				setState(297);
+				setState(290);
 				pref_specifier();
 				}
 				}
-				setState(302);
+				setState(295);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 			}
@@ -2433,66 +2409,66 @@ public class SoarParser extends Parser {
 		enterRule(_localctx, 62, RULE_pref_specifier);
 		int _la;
 		try {
-			setState(316);
+			setState(307);
 			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,41,_ctx) ) {
-			case 1:
+			switch (_input.LA(1)) {
+			case T__16:
+			case T__33:
+			case T__34:
+			case T__35:
+			case Negative_pref:
 				enterOuterAlt(_localctx, 1);
 				{
 				{
-				setState(303);
+				setState(296);
 				unary_pref();
-				setState(305);
+				setState(298);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
-				if (_la==T__33) {
+				if (_la==T__32) {
 					{
-					setState(304);
-					match(T__33);
+					setState(297);
+					match(T__32);
 					}
 				}
 
 				}
 				}
 				break;
-			case 2:
+			case T__22:
+			case T__23:
+			case T__28:
+			case T__36:
 				enterOuterAlt(_localctx, 2);
 				{
 				{
-				setState(307);
+				setState(300);
 				unary_or_binary_pref();
-				setState(309);
+				setState(302);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
-				if (_la==T__33) {
+				if ((((_la) & ~0x3f) == 0 && ((1L << _la) & 105003360456704L) != 0)) {
 					{
-					setState(308);
-					match(T__33);
+					setState(301);
+					value();
 					}
 				}
 
-				}
-				}
-				break;
-			case 3:
-				enterOuterAlt(_localctx, 3);
-				{
-				setState(311);
-				unary_or_binary_pref();
-				setState(312);
-				value();
-				setState(314);
+				setState(305);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
-				if (_la==T__33) {
+				if (_la==T__32) {
 					{
-					setState(313);
-					match(T__33);
+					setState(304);
+					match(T__32);
 					}
 				}
 
+				}
 				}
 				break;
+			default:
+				throw new NoViableAltException(this);
 			}
 		}
 		catch (RecognitionException re) {
@@ -2535,9 +2511,9 @@ public class SoarParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(318);
+			setState(309);
 			_la = _input.LA(1);
-			if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 17832704344064L) != 0)) ) {
+			if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 35304631304192L) != 0)) ) {
 			_errHandler.recoverInline(this);
 			}
 			else {
@@ -2586,9 +2562,9 @@ public class SoarParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(320);
+			setState(311);
 			_la = _input.LA(1);
-			if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 275439943680L) != 0)) ) {
+			if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 138000990208L) != 0)) ) {
 			_errHandler.recoverInline(this);
 			}
 			else {
@@ -2613,6 +2589,7 @@ public class SoarParser extends Parser {
 	public static class Sym_constantContext extends ParserRuleContext {
 		public TerminalNode Sym_constant() { return getToken(SoarParser.Sym_constant, 0); }
 		public TerminalNode STATE() { return getToken(SoarParser.STATE, 0); }
+		public TerminalNode WRITE() { return getToken(SoarParser.WRITE, 0); }
 		public Sym_constantContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
 		}
@@ -2639,9 +2616,9 @@ public class SoarParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(322);
+			setState(313);
 			_la = _input.LA(1);
-			if ( !(_la==STATE || _la==Sym_constant) ) {
+			if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 12094627905536L) != 0)) ) {
 			_errHandler.recoverInline(this);
 			}
 			else {
@@ -2663,7 +2640,7 @@ public class SoarParser extends Parser {
 	}
 
 	public static final String _serializedATN =
-		"\u0004\u0001/\u0145\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001\u0002"+
+		"\u0004\u00010\u013c\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001\u0002"+
 		"\u0002\u0007\u0002\u0002\u0003\u0007\u0003\u0002\u0004\u0007\u0004\u0002"+
 		"\u0005\u0007\u0005\u0002\u0006\u0007\u0006\u0002\u0007\u0007\u0007\u0002"+
 		"\b\u0007\b\u0002\t\u0007\t\u0002\n\u0007\n\u0002\u000b\u0007\u000b\u0002"+
@@ -2696,48 +2673,47 @@ public class SoarParser extends Parser {
 		"\u0010\u0004\u0010\u00c7\b\u0010\u000b\u0010\f\u0010\u00c8\u0001\u0010"+
 		"\u0001\u0010\u0001\u0011\u0003\u0011\u00ce\b\u0011\u0001\u0011\u0001\u0011"+
 		"\u0001\u0012\u0001\u0012\u0001\u0013\u0001\u0013\u0003\u0013\u00d6\b\u0013"+
-		"\u0001\u0014\u0001\u0014\u0001\u0014\u0001\u0014\u0001\u0015\u0001\u0015"+
-		"\u0001\u0015\u0001\u0015\u0003\u0015\u00e0\b\u0015\u0001\u0016\u0001\u0016"+
-		"\u0001\u0016\u0005\u0016\u00e5\b\u0016\n\u0016\f\u0016\u00e8\t\u0016\u0001"+
-		"\u0017\u0001\u0017\u0001\u0017\u0004\u0017\u00ed\b\u0017\u000b\u0017\f"+
-		"\u0017\u00ee\u0001\u0017\u0001\u0017\u0001\u0018\u0001\u0018\u0001\u0018"+
-		"\u0001\u0018\u0001\u0018\u0004\u0018\u00f8\b\u0018\u000b\u0018\f\u0018"+
-		"\u00f9\u0001\u0018\u0004\u0018\u00fd\b\u0018\u000b\u0018\f\u0018\u00fe"+
-		"\u0001\u0019\u0001\u0019\u0001\u0019\u0005\u0019\u0104\b\u0019\n\u0019"+
-		"\f\u0019\u0107\t\u0019\u0001\u0019\u0001\u0019\u0001\u001a\u0001\u001a"+
-		"\u0001\u001a\u0001\u001a\u0001\u001a\u0003\u001a\u0110\b\u001a\u0001\u001b"+
-		"\u0001\u001b\u0001\u001b\u0003\u001b\u0115\b\u001b\u0001\u001c\u0001\u001c"+
-		"\u0001\u001c\u0001\u001c\u0005\u001c\u011b\b\u001c\n\u001c\f\u001c\u011e"+
-		"\t\u001c\u0001\u001c\u0001\u001c\u0001\u001d\u0001\u001d\u0003\u001d\u0124"+
-		"\b\u001d\u0001\u001e\u0003\u001e\u0127\b\u001e\u0001\u001e\u0001\u001e"+
-		"\u0005\u001e\u012b\b\u001e\n\u001e\f\u001e\u012e\t\u001e\u0001\u001f\u0001"+
-		"\u001f\u0003\u001f\u0132\b\u001f\u0001\u001f\u0001\u001f\u0003\u001f\u0136"+
-		"\b\u001f\u0001\u001f\u0001\u001f\u0001\u001f\u0003\u001f\u013b\b\u001f"+
-		"\u0003\u001f\u013d\b\u001f\u0001 \u0001 \u0001!\u0001!\u0001\"\u0001\""+
-		"\u0001\"\u0000\u0000#\u0000\u0002\u0004\u0006\b\n\f\u000e\u0010\u0012"+
-		"\u0014\u0016\u0018\u001a\u001c\u001e \"$&(*,.02468:<>@BD\u0000\u0007\u0001"+
-		"\u0000\u0001\u0002\u0001\u0000\u0007\u000b\u0002\u0000\r\r))\u0001\u0000"+
-		"\u0016\u001d\u0003\u0000\u0011\u0011#%,,\u0003\u0000\u0017\u0018\u001d"+
-		"\u001d&&\u0001\u0000)*\u0155\u0000G\u0001\u0000\u0000\u0000\u0002K\u0001"+
-		"\u0000\u0000\u0000\u0004Y\u0001\u0000\u0000\u0000\u0006\\\u0001\u0000"+
-		"\u0000\u0000\bc\u0001\u0000\u0000\u0000\nr\u0001\u0000\u0000\u0000\f}"+
-		"\u0001\u0000\u0000\u0000\u000e\u007f\u0001\u0000\u0000\u0000\u0010\u008b"+
-		"\u0001\u0000\u0000\u0000\u0012\u008e\u0001\u0000\u0000\u0000\u0014\u009f"+
-		"\u0001\u0000\u0000\u0000\u0016\u00a9\u0001\u0000\u0000\u0000\u0018\u00ae"+
-		"\u0001\u0000\u0000\u0000\u001a\u00b0\u0001\u0000\u0000\u0000\u001c\u00ba"+
-		"\u0001\u0000\u0000\u0000\u001e\u00bc\u0001\u0000\u0000\u0000 \u00c4\u0001"+
-		"\u0000\u0000\u0000\"\u00cd\u0001\u0000\u0000\u0000$\u00d1\u0001\u0000"+
-		"\u0000\u0000&\u00d5\u0001\u0000\u0000\u0000(\u00d7\u0001\u0000\u0000\u0000"+
-		"*\u00df\u0001\u0000\u0000\u0000,\u00e6\u0001\u0000\u0000\u0000.\u00e9"+
-		"\u0001\u0000\u0000\u00000\u00fc\u0001\u0000\u0000\u00002\u0100\u0001\u0000"+
-		"\u0000\u00004\u010f\u0001\u0000\u0000\u00006\u0114\u0001\u0000\u0000\u0000"+
-		"8\u0116\u0001\u0000\u0000\u0000:\u0123\u0001\u0000\u0000\u0000<\u0126"+
-		"\u0001\u0000\u0000\u0000>\u013c\u0001\u0000\u0000\u0000@\u013e\u0001\u0000"+
-		"\u0000\u0000B\u0140\u0001\u0000\u0000\u0000D\u0142\u0001\u0000\u0000\u0000"+
-		"FH\u0003\u0002\u0001\u0000GF\u0001\u0000\u0000\u0000HI\u0001\u0000\u0000"+
+		"\u0001\u0014\u0001\u0014\u0001\u0015\u0001\u0015\u0001\u0015\u0001\u0015"+
+		"\u0003\u0015\u00de\b\u0015\u0001\u0016\u0001\u0016\u0001\u0016\u0005\u0016"+
+		"\u00e3\b\u0016\n\u0016\f\u0016\u00e6\t\u0016\u0001\u0017\u0001\u0017\u0001"+
+		"\u0017\u0004\u0017\u00eb\b\u0017\u000b\u0017\f\u0017\u00ec\u0001\u0017"+
+		"\u0001\u0017\u0001\u0018\u0001\u0018\u0001\u0018\u0001\u0018\u0001\u0018"+
+		"\u0004\u0018\u00f6\b\u0018\u000b\u0018\f\u0018\u00f7\u0001\u0018\u0004"+
+		"\u0018\u00fb\b\u0018\u000b\u0018\f\u0018\u00fc\u0001\u0019\u0001\u0019"+
+		"\u0001\u0019\u0005\u0019\u0102\b\u0019\n\u0019\f\u0019\u0105\t\u0019\u0001"+
+		"\u0019\u0001\u0019\u0001\u001a\u0001\u001a\u0001\u001b\u0001\u001b\u0001"+
+		"\u001b\u0003\u001b\u010e\b\u001b\u0001\u001c\u0001\u001c\u0001\u001c\u0001"+
+		"\u001c\u0005\u001c\u0114\b\u001c\n\u001c\f\u001c\u0117\t\u001c\u0001\u001c"+
+		"\u0001\u001c\u0001\u001d\u0001\u001d\u0003\u001d\u011d\b\u001d\u0001\u001e"+
+		"\u0003\u001e\u0120\b\u001e\u0001\u001e\u0001\u001e\u0005\u001e\u0124\b"+
+		"\u001e\n\u001e\f\u001e\u0127\t\u001e\u0001\u001f\u0001\u001f\u0003\u001f"+
+		"\u012b\b\u001f\u0001\u001f\u0001\u001f\u0003\u001f\u012f\b\u001f\u0001"+
+		"\u001f\u0003\u001f\u0132\b\u001f\u0003\u001f\u0134\b\u001f\u0001 \u0001"+
+		" \u0001!\u0001!\u0001\"\u0001\"\u0001\"\u0000\u0000#\u0000\u0002\u0004"+
+		"\u0006\b\n\f\u000e\u0010\u0012\u0014\u0016\u0018\u001a\u001c\u001e \""+
+		"$&(*,.02468:<>@BD\u0000\b\u0001\u0000\u0001\u0002\u0001\u0000\u0007\u000b"+
+		"\u0002\u0000\r\r((\u0001\u0000\u0016\u001d\u0005\u0000\u0011\u0011\u001f"+
+		" ((++--\u0003\u0000\u0011\u0011\"$--\u0003\u0000\u0017\u0018\u001d\u001d"+
+		"%%\u0002\u0000()++\u0147\u0000G\u0001\u0000\u0000\u0000\u0002K\u0001\u0000"+
+		"\u0000\u0000\u0004Y\u0001\u0000\u0000\u0000\u0006\\\u0001\u0000\u0000"+
+		"\u0000\bc\u0001\u0000\u0000\u0000\nr\u0001\u0000\u0000\u0000\f}\u0001"+
+		"\u0000\u0000\u0000\u000e\u007f\u0001\u0000\u0000\u0000\u0010\u008b\u0001"+
+		"\u0000\u0000\u0000\u0012\u008e\u0001\u0000\u0000\u0000\u0014\u009f\u0001"+
+		"\u0000\u0000\u0000\u0016\u00a9\u0001\u0000\u0000\u0000\u0018\u00ae\u0001"+
+		"\u0000\u0000\u0000\u001a\u00b0\u0001\u0000\u0000\u0000\u001c\u00ba\u0001"+
+		"\u0000\u0000\u0000\u001e\u00bc\u0001\u0000\u0000\u0000 \u00c4\u0001\u0000"+
+		"\u0000\u0000\"\u00cd\u0001\u0000\u0000\u0000$\u00d1\u0001\u0000\u0000"+
+		"\u0000&\u00d5\u0001\u0000\u0000\u0000(\u00d7\u0001\u0000\u0000\u0000*"+
+		"\u00dd\u0001\u0000\u0000\u0000,\u00e4\u0001\u0000\u0000\u0000.\u00e7\u0001"+
+		"\u0000\u0000\u00000\u00fa\u0001\u0000\u0000\u00002\u00fe\u0001\u0000\u0000"+
+		"\u00004\u0108\u0001\u0000\u0000\u00006\u010d\u0001\u0000\u0000\u00008"+
+		"\u010f\u0001\u0000\u0000\u0000:\u011c\u0001\u0000\u0000\u0000<\u011f\u0001"+
+		"\u0000\u0000\u0000>\u0133\u0001\u0000\u0000\u0000@\u0135\u0001\u0000\u0000"+
+		"\u0000B\u0137\u0001\u0000\u0000\u0000D\u0139\u0001\u0000\u0000\u0000F"+
+		"H\u0003\u0002\u0001\u0000GF\u0001\u0000\u0000\u0000HI\u0001\u0000\u0000"+
 		"\u0000IG\u0001\u0000\u0000\u0000IJ\u0001\u0000\u0000\u0000J\u0001\u0001"+
 		"\u0000\u0000\u0000KL\u0007\u0000\u0000\u0000LM\u0005\u0003\u0000\u0000"+
-		"MO\u0003D\"\u0000NP\u0005\'\u0000\u0000ON\u0001\u0000\u0000\u0000OP\u0001"+
+		"MO\u0003D\"\u0000NP\u0005&\u0000\u0000ON\u0001\u0000\u0000\u0000OP\u0001"+
 		"\u0000\u0000\u0000PR\u0001\u0000\u0000\u0000QS\u0003\u0004\u0002\u0000"+
 		"RQ\u0001\u0000\u0000\u0000RS\u0001\u0000\u0000\u0000ST\u0001\u0000\u0000"+
 		"\u0000TU\u0003\u0006\u0003\u0000UV\u0005\u0004\u0000\u0000VW\u0003,\u0016"+
@@ -2751,7 +2727,7 @@ public class SoarParser extends Parser {
 		"\u0000hj\u0003\u0012\t\u0000ih\u0001\u0000\u0000\u0000jk\u0001\u0000\u0000"+
 		"\u0000ki\u0001\u0000\u0000\u0000kl\u0001\u0000\u0000\u0000lm\u0001\u0000"+
 		"\u0000\u0000mn\u0005\u000e\u0000\u0000n\t\u0001\u0000\u0000\u0000os\u0003"+
-		"\f\u0006\u0000pq\u0005,\u0000\u0000qs\u0003\f\u0006\u0000ro\u0001\u0000"+
+		"\f\u0006\u0000pq\u0005-\u0000\u0000qs\u0003\f\u0006\u0000ro\u0001\u0000"+
 		"\u0000\u0000rp\u0001\u0000\u0000\u0000s\u000b\u0001\u0000\u0000\u0000"+
 		"t~\u0003\u000e\u0007\u0000uw\u0005\u0003\u0000\u0000vx\u0003\n\u0005\u0000"+
 		"wv\u0001\u0000\u0000\u0000xy\u0001\u0000\u0000\u0000yw\u0001\u0000\u0000"+
@@ -2765,7 +2741,7 @@ public class SoarParser extends Parser {
 		"\u0087\u0085\u0001\u0000\u0000\u0000\u0087\u0088\u0001\u0000\u0000\u0000"+
 		"\u0088\u0089\u0001\u0000\u0000\u0000\u0089\u008a\u0005\u000e\u0000\u0000"+
 		"\u008a\u000f\u0001\u0000\u0000\u0000\u008b\u008c\u0003\u0018\f\u0000\u008c"+
-		"\u0011\u0001\u0000\u0000\u0000\u008d\u008f\u0005,\u0000\u0000\u008e\u008d"+
+		"\u0011\u0001\u0000\u0000\u0000\u008d\u008f\u0005-\u0000\u0000\u008e\u008d"+
 		"\u0001\u0000\u0000\u0000\u008e\u008f\u0001\u0000\u0000\u0000\u008f\u0090"+
 		"\u0001\u0000\u0000\u0000\u0090\u0091\u0005\u000f\u0000\u0000\u0091\u0096"+
 		"\u0003\u0014\n\u0000\u0092\u0093\u0005\u0010\u0000\u0000\u0093\u0095\u0003"+
@@ -2794,7 +2770,7 @@ public class SoarParser extends Parser {
 		"\u00b8\u00bb\u0003 \u0010\u0000\u00b9\u00bb\u0003\"\u0011\u0000\u00ba"+
 		"\u00b8\u0001\u0000\u0000\u0000\u00ba\u00b9\u0001\u0000\u0000\u0000\u00bb"+
 		"\u001d\u0001\u0000\u0000\u0000\u00bc\u00be\u0005\u0012\u0000\u0000\u00bd"+
-		"\u00bf\u0005+\u0000\u0000\u00be\u00bd\u0001\u0000\u0000\u0000\u00bf\u00c0"+
+		"\u00bf\u0005,\u0000\u0000\u00be\u00bd\u0001\u0000\u0000\u0000\u00bf\u00c0"+
 		"\u0001\u0000\u0000\u0000\u00c0\u00be\u0001\u0000\u0000\u0000\u00c0\u00c1"+
 		"\u0001\u0000\u0000\u0000\u00c1\u00c2\u0001\u0000\u0000\u0000\u00c2\u00c3"+
 		"\u0005\u0013\u0000\u0000\u00c3\u001f\u0001\u0000\u0000\u0000\u00c4\u00c6"+
@@ -2808,73 +2784,67 @@ public class SoarParser extends Parser {
 		"\u00d2\u0007\u0003\u0000\u0000\u00d2%\u0001\u0000\u0000\u0000\u00d3\u00d6"+
 		"\u0003(\u0014\u0000\u00d4\u00d6\u0003*\u0015\u0000\u00d5\u00d3\u0001\u0000"+
 		"\u0000\u0000\u00d5\u00d4\u0001\u0000\u0000\u0000\u00d6\'\u0001\u0000\u0000"+
-		"\u0000\u00d7\u00d8\u0005\u0017\u0000\u0000\u00d8\u00d9\u0003D\"\u0000"+
-		"\u00d9\u00da\u0005\u0018\u0000\u0000\u00da)\u0001\u0000\u0000\u0000\u00db"+
-		"\u00e0\u0003D\"\u0000\u00dc\u00e0\u0005+\u0000\u0000\u00dd\u00e0\u0005"+
-		"-\u0000\u0000\u00de\u00e0\u0005(\u0000\u0000\u00df\u00db\u0001\u0000\u0000"+
-		"\u0000\u00df\u00dc\u0001\u0000\u0000\u0000\u00df\u00dd\u0001\u0000\u0000"+
-		"\u0000\u00df\u00de\u0001\u0000\u0000\u0000\u00e0+\u0001\u0000\u0000\u0000"+
-		"\u00e1\u00e5\u0003.\u0017\u0000\u00e2\u00e5\u00032\u0019\u0000\u00e3\u00e5"+
-		"\u00030\u0018\u0000\u00e4\u00e1\u0001\u0000\u0000\u0000\u00e4\u00e2\u0001"+
-		"\u0000\u0000\u0000\u00e4\u00e3\u0001\u0000\u0000\u0000\u00e5\u00e8\u0001"+
-		"\u0000\u0000\u0000\u00e6\u00e4\u0001\u0000\u0000\u0000\u00e6\u00e7\u0001"+
-		"\u0000\u0000\u0000\u00e7-\u0001\u0000\u0000\u0000\u00e8\u00e6\u0001\u0000"+
-		"\u0000\u0000\u00e9\u00ea\u0005\f\u0000\u0000\u00ea\u00ec\u0003(\u0014"+
-		"\u0000\u00eb\u00ed\u00038\u001c\u0000\u00ec\u00eb\u0001\u0000\u0000\u0000"+
-		"\u00ed\u00ee\u0001\u0000\u0000\u0000\u00ee\u00ec\u0001\u0000\u0000\u0000"+
-		"\u00ee\u00ef\u0001\u0000\u0000\u0000\u00ef\u00f0\u0001\u0000\u0000\u0000"+
-		"\u00f0\u00f1\u0005\u000e\u0000\u0000\u00f1/\u0001\u0000\u0000\u0000\u00f2"+
-		"\u00f3\u0005\f\u0000\u0000\u00f3\u00f7\u0005\u001e\u0000\u0000\u00f4\u00f8"+
-		"\u0005(\u0000\u0000\u00f5\u00f8\u0003(\u0014\u0000\u00f6\u00f8\u0005\u001f"+
-		"\u0000\u0000\u00f7\u00f4\u0001\u0000\u0000\u0000\u00f7\u00f5\u0001\u0000"+
-		"\u0000\u0000\u00f7\u00f6\u0001\u0000\u0000\u0000\u00f8\u00f9\u0001\u0000"+
-		"\u0000\u0000\u00f9\u00f7\u0001\u0000\u0000\u0000\u00f9\u00fa\u0001\u0000"+
-		"\u0000\u0000\u00fa\u00fb\u0001\u0000\u0000\u0000\u00fb\u00fd\u0005\u000e"+
-		"\u0000\u0000\u00fc\u00f2\u0001\u0000\u0000\u0000\u00fd\u00fe\u0001\u0000"+
-		"\u0000\u0000\u00fe\u00fc\u0001\u0000\u0000\u0000\u00fe\u00ff\u0001\u0000"+
-		"\u0000\u0000\u00ff1\u0001\u0000\u0000\u0000\u0100\u0101\u0005\f\u0000"+
-		"\u0000\u0101\u0105\u00034\u001a\u0000\u0102\u0104\u00036\u001b\u0000\u0103"+
-		"\u0102\u0001\u0000\u0000\u0000\u0104\u0107\u0001\u0000\u0000\u0000\u0105"+
-		"\u0103\u0001\u0000\u0000\u0000\u0105\u0106\u0001\u0000\u0000\u0000\u0106"+
-		"\u0108\u0001\u0000\u0000\u0000\u0107\u0105\u0001\u0000\u0000\u0000\u0108"+
-		"\u0109\u0005\u000e\u0000\u0000\u01093\u0001\u0000\u0000\u0000\u010a\u0110"+
-		"\u0003D\"\u0000\u010b\u0110\u0005\u0011\u0000\u0000\u010c\u0110\u0005"+
-		",\u0000\u0000\u010d\u0110\u0005 \u0000\u0000\u010e\u0110\u0005!\u0000"+
-		"\u0000\u010f\u010a\u0001\u0000\u0000\u0000\u010f\u010b\u0001\u0000\u0000"+
-		"\u0000\u010f\u010c\u0001\u0000\u0000\u0000\u010f\u010d\u0001\u0000\u0000"+
-		"\u0000\u010f\u010e\u0001\u0000\u0000\u0000\u01105\u0001\u0000\u0000\u0000"+
-		"\u0111\u0115\u0003*\u0015\u0000\u0112\u0115\u00032\u0019\u0000\u0113\u0115"+
-		"\u0003(\u0014\u0000\u0114\u0111\u0001\u0000\u0000\u0000\u0114\u0112\u0001"+
-		"\u0000\u0000\u0000\u0114\u0113\u0001\u0000\u0000\u0000\u01157\u0001\u0000"+
-		"\u0000\u0000\u0116\u0117\u0005\u000f\u0000\u0000\u0117\u011c\u0003:\u001d"+
-		"\u0000\u0118\u0119\u0005\u0010\u0000\u0000\u0119\u011b\u0003:\u001d\u0000"+
-		"\u011a\u0118\u0001\u0000\u0000\u0000\u011b\u011e\u0001\u0000\u0000\u0000"+
-		"\u011c\u011a\u0001\u0000\u0000\u0000\u011c\u011d\u0001\u0000\u0000\u0000"+
-		"\u011d\u011f\u0001\u0000\u0000\u0000\u011e\u011c\u0001\u0000\u0000\u0000"+
-		"\u011f\u0120\u0003<\u001e\u0000\u01209\u0001\u0000\u0000\u0000\u0121\u0124"+
-		"\u0003(\u0014\u0000\u0122\u0124\u0003D\"\u0000\u0123\u0121\u0001\u0000"+
-		"\u0000\u0000\u0123\u0122\u0001\u0000\u0000\u0000\u0124;\u0001\u0000\u0000"+
-		"\u0000\u0125\u0127\u0005,\u0000\u0000\u0126\u0125\u0001\u0000\u0000\u0000"+
-		"\u0126\u0127\u0001\u0000\u0000\u0000\u0127\u0128\u0001\u0000\u0000\u0000"+
-		"\u0128\u012c\u00036\u001b\u0000\u0129\u012b\u0003>\u001f\u0000\u012a\u0129"+
-		"\u0001\u0000\u0000\u0000\u012b\u012e\u0001\u0000\u0000\u0000\u012c\u012a"+
-		"\u0001\u0000\u0000\u0000\u012c\u012d\u0001\u0000\u0000\u0000\u012d=\u0001"+
-		"\u0000\u0000\u0000\u012e\u012c\u0001\u0000\u0000\u0000\u012f\u0131\u0003"+
-		"@ \u0000\u0130\u0132\u0005\"\u0000\u0000\u0131\u0130\u0001\u0000\u0000"+
-		"\u0000\u0131\u0132\u0001\u0000\u0000\u0000\u0132\u013d\u0001\u0000\u0000"+
-		"\u0000\u0133\u0135\u0003B!\u0000\u0134\u0136\u0005\"\u0000\u0000\u0135"+
-		"\u0134\u0001\u0000\u0000\u0000\u0135\u0136\u0001\u0000\u0000\u0000\u0136"+
-		"\u013d\u0001\u0000\u0000\u0000\u0137\u0138\u0003B!\u0000\u0138\u013a\u0003"+
-		"6\u001b\u0000\u0139\u013b\u0005\"\u0000\u0000\u013a\u0139\u0001\u0000"+
-		"\u0000\u0000\u013a\u013b\u0001\u0000\u0000\u0000\u013b\u013d\u0001\u0000"+
-		"\u0000\u0000\u013c\u012f\u0001\u0000\u0000\u0000\u013c\u0133\u0001\u0000"+
-		"\u0000\u0000\u013c\u0137\u0001\u0000\u0000\u0000\u013d?\u0001\u0000\u0000"+
-		"\u0000\u013e\u013f\u0007\u0004\u0000\u0000\u013fA\u0001\u0000\u0000\u0000"+
-		"\u0140\u0141\u0007\u0005\u0000\u0000\u0141C\u0001\u0000\u0000\u0000\u0142"+
-		"\u0143\u0007\u0006\u0000\u0000\u0143E\u0001\u0000\u0000\u0000*IOR`fkr"+
-		"y}\u0081\u0087\u008e\u0096\u009c\u00a3\u00a7\u00a9\u00ae\u00b4\u00ba\u00c0"+
-		"\u00c8\u00cd\u00d5\u00df\u00e4\u00e6\u00ee\u00f7\u00f9\u00fe\u0105\u010f"+
-		"\u0114\u011c\u0123\u0126\u012c\u0131\u0135\u013a\u013c";
+		"\u0000\u00d7\u00d8\u0005*\u0000\u0000\u00d8)\u0001\u0000\u0000\u0000\u00d9"+
+		"\u00de\u0003D\"\u0000\u00da\u00de\u0005,\u0000\u0000\u00db\u00de\u0005"+
+		".\u0000\u0000\u00dc\u00de\u0005\'\u0000\u0000\u00dd\u00d9\u0001\u0000"+
+		"\u0000\u0000\u00dd\u00da\u0001\u0000\u0000\u0000\u00dd\u00db\u0001\u0000"+
+		"\u0000\u0000\u00dd\u00dc\u0001\u0000\u0000\u0000\u00de+\u0001\u0000\u0000"+
+		"\u0000\u00df\u00e3\u0003.\u0017\u0000\u00e0\u00e3\u00032\u0019\u0000\u00e1"+
+		"\u00e3\u00030\u0018\u0000\u00e2\u00df\u0001\u0000\u0000\u0000\u00e2\u00e0"+
+		"\u0001\u0000\u0000\u0000\u00e2\u00e1\u0001\u0000\u0000\u0000\u00e3\u00e6"+
+		"\u0001\u0000\u0000\u0000\u00e4\u00e2\u0001\u0000\u0000\u0000\u00e4\u00e5"+
+		"\u0001\u0000\u0000\u0000\u00e5-\u0001\u0000\u0000\u0000\u00e6\u00e4\u0001"+
+		"\u0000\u0000\u0000\u00e7\u00e8\u0005\f\u0000\u0000\u00e8\u00ea\u0003("+
+		"\u0014\u0000\u00e9\u00eb\u00038\u001c\u0000\u00ea\u00e9\u0001\u0000\u0000"+
+		"\u0000\u00eb\u00ec\u0001\u0000\u0000\u0000\u00ec\u00ea\u0001\u0000\u0000"+
+		"\u0000\u00ec\u00ed\u0001\u0000\u0000\u0000\u00ed\u00ee\u0001\u0000\u0000"+
+		"\u0000\u00ee\u00ef\u0005\u000e\u0000\u0000\u00ef/\u0001\u0000\u0000\u0000"+
+		"\u00f0\u00f1\u0005\f\u0000\u0000\u00f1\u00f5\u0005)\u0000\u0000\u00f2"+
+		"\u00f6\u0005\'\u0000\u0000\u00f3\u00f6\u0003(\u0014\u0000\u00f4\u00f6"+
+		"\u0005\u001e\u0000\u0000\u00f5\u00f2\u0001\u0000\u0000\u0000\u00f5\u00f3"+
+		"\u0001\u0000\u0000\u0000\u00f5\u00f4\u0001\u0000\u0000\u0000\u00f6\u00f7"+
+		"\u0001\u0000\u0000\u0000\u00f7\u00f5\u0001\u0000\u0000\u0000\u00f7\u00f8"+
+		"\u0001\u0000\u0000\u0000\u00f8\u00f9\u0001\u0000\u0000\u0000\u00f9\u00fb"+
+		"\u0005\u000e\u0000\u0000\u00fa\u00f0\u0001\u0000\u0000\u0000\u00fb\u00fc"+
+		"\u0001\u0000\u0000\u0000\u00fc\u00fa\u0001\u0000\u0000\u0000\u00fc\u00fd"+
+		"\u0001\u0000\u0000\u0000\u00fd1\u0001\u0000\u0000\u0000\u00fe\u00ff\u0005"+
+		"\f\u0000\u0000\u00ff\u0103\u00034\u001a\u0000\u0100\u0102\u00036\u001b"+
+		"\u0000\u0101\u0100\u0001\u0000\u0000\u0000\u0102\u0105\u0001\u0000\u0000"+
+		"\u0000\u0103\u0101\u0001\u0000\u0000\u0000\u0103\u0104\u0001\u0000\u0000"+
+		"\u0000\u0104\u0106\u0001\u0000\u0000\u0000\u0105\u0103\u0001\u0000\u0000"+
+		"\u0000\u0106\u0107\u0005\u000e\u0000\u0000\u01073\u0001\u0000\u0000\u0000"+
+		"\u0108\u0109\u0007\u0004\u0000\u0000\u01095\u0001\u0000\u0000\u0000\u010a"+
+		"\u010e\u0003*\u0015\u0000\u010b\u010e\u00032\u0019\u0000\u010c\u010e\u0003"+
+		"(\u0014\u0000\u010d\u010a\u0001\u0000\u0000\u0000\u010d\u010b\u0001\u0000"+
+		"\u0000\u0000\u010d\u010c\u0001\u0000\u0000\u0000\u010e7\u0001\u0000\u0000"+
+		"\u0000\u010f\u0110\u0005\u000f\u0000\u0000\u0110\u0115\u0003:\u001d\u0000"+
+		"\u0111\u0112\u0005\u0010\u0000\u0000\u0112\u0114\u0003:\u001d\u0000\u0113"+
+		"\u0111\u0001\u0000\u0000\u0000\u0114\u0117\u0001\u0000\u0000\u0000\u0115"+
+		"\u0113\u0001\u0000\u0000\u0000\u0115\u0116\u0001\u0000\u0000\u0000\u0116"+
+		"\u0118\u0001\u0000\u0000\u0000\u0117\u0115\u0001\u0000\u0000\u0000\u0118"+
+		"\u0119\u0003<\u001e\u0000\u01199\u0001\u0000\u0000\u0000\u011a\u011d\u0003"+
+		"(\u0014\u0000\u011b\u011d\u0003D\"\u0000\u011c\u011a\u0001\u0000\u0000"+
+		"\u0000\u011c\u011b\u0001\u0000\u0000\u0000\u011d;\u0001\u0000\u0000\u0000"+
+		"\u011e\u0120\u0005-\u0000\u0000\u011f\u011e\u0001\u0000\u0000\u0000\u011f"+
+		"\u0120\u0001\u0000\u0000\u0000\u0120\u0121\u0001\u0000\u0000\u0000\u0121"+
+		"\u0125\u00036\u001b\u0000\u0122\u0124\u0003>\u001f\u0000\u0123\u0122\u0001"+
+		"\u0000\u0000\u0000\u0124\u0127\u0001\u0000\u0000\u0000\u0125\u0123\u0001"+
+		"\u0000\u0000\u0000\u0125\u0126\u0001\u0000\u0000\u0000\u0126=\u0001\u0000"+
+		"\u0000\u0000\u0127\u0125\u0001\u0000\u0000\u0000\u0128\u012a\u0003@ \u0000"+
+		"\u0129\u012b\u0005!\u0000\u0000\u012a\u0129\u0001\u0000\u0000\u0000\u012a"+
+		"\u012b\u0001\u0000\u0000\u0000\u012b\u0134\u0001\u0000\u0000\u0000\u012c"+
+		"\u012e\u0003B!\u0000\u012d\u012f\u00036\u001b\u0000\u012e\u012d\u0001"+
+		"\u0000\u0000\u0000\u012e\u012f\u0001\u0000\u0000\u0000\u012f\u0131\u0001"+
+		"\u0000\u0000\u0000\u0130\u0132\u0005!\u0000\u0000\u0131\u0130\u0001\u0000"+
+		"\u0000\u0000\u0131\u0132\u0001\u0000\u0000\u0000\u0132\u0134\u0001\u0000"+
+		"\u0000\u0000\u0133\u0128\u0001\u0000\u0000\u0000\u0133\u012c\u0001\u0000"+
+		"\u0000\u0000\u0134?\u0001\u0000\u0000\u0000\u0135\u0136\u0007\u0005\u0000"+
+		"\u0000\u0136A\u0001\u0000\u0000\u0000\u0137\u0138\u0007\u0006\u0000\u0000"+
+		"\u0138C\u0001\u0000\u0000\u0000\u0139\u013a\u0007\u0007\u0000\u0000\u013a"+
+		"E\u0001\u0000\u0000\u0000)IOR`fkry}\u0081\u0087\u008e\u0096\u009c\u00a3"+
+		"\u00a7\u00a9\u00ae\u00b4\u00ba\u00c0\u00c8\u00cd\u00d5\u00dd\u00e2\u00e4"+
+		"\u00ec\u00f5\u00f7\u00fc\u0103\u010d\u0115\u011c\u011f\u0125\u012a\u012e"+
+		"\u0131\u0133";
 	public static final ATN _ATN =
 		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
 	static {
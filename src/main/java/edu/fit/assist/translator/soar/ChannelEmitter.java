@@ -0,0 +1,148 @@
+package edu.fit.assist.translator.soar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the PRISM model as UTF-8 through a fixed buffer into a file channel, so emitting takes the
+ * same memory however big the model is. The model goes to a temporary file next to the target, which
+ * {@link #commit} moves over the target in one step: a translation that fails half way leaves the
+ * previous model in place.
+ */
+public final class ChannelEmitter implements PrismEmitter, Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    // First half of a surrogate pair, until the second half arrives
+    private char highSurrogate;
+    private boolean committed;
+
+    private ChannelEmitter(Path target, Path temp, FileChannel channel) {
+        this.target = target;
+        this.temp = temp;
+        this.channel = channel;
+    }
+
+    /**
+     * An emitter that replaces target when committed
+     */
+    public static ChannelEmitter create(Path target) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        // Created like any other file rather than with createTempFile, which would make the model private
+        Path temp = directory.resolve(target.getFileName() + "." + ProcessHandle.current().pid() + "." + System.nanoTime() + ".tmp");
+        FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        return new ChannelEmitter(target, temp, channel);
+    }
+
+    @Override
+    public PrismEmitter text(char c) {
+        if (buffer.remaining() < 4) {
+            drain();
+        }
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                return this;
+            }
+            buffer.put((byte) '?');
+            return text(c);
+        }
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | (c >> 6)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buffer.put((byte) '?');
+        } else {
+            buffer.put((byte) (0xE0 | (c >> 12)));
+            buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        }
+        return this;
+    }
+
+    @Override
+    public PrismEmitter text(CharSequence text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            // ASCII, almost all of a model, goes straight into the buffer
+            if (c < 0x80 && highSurrogate == 0 && buffer.hasRemaining()) {
+                buffer.put((byte) c);
+            } else {
+                text(c);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Write out what is buffered and move the model over the target
+     */
+    public void commit() throws IOException {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            buffer.put((byte) '?');
+        }
+        drain();
+        channel.close();
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+    }
+
+    /**
+     * Copy the committed model to out, Example: to echo it on stdout
+     */
+    public void copyTo(WritableByteChannel out) throws IOException {
+        try (FileChannel model = FileChannel.open(target, StandardOpenOption.READ)) {
+            long size = model.size();
+            for (long position = 0; position < size; ) {
+                position += model.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    /**
+     * Drop the temporary file unless the model was committed
+     */
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void drain() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
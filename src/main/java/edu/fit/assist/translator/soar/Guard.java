@@ -0,0 +1,165 @@
+package edu.fit.assist.translator.soar;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One condition of a rule: a variable, a relation and the constant, variable or set of constants it
+ * is compared with. Guards are built once by the {@link Visitor}, so the translators read their parts
+ * instead of splitting the text. toString gives the text form (Example: "state_count &gt; 2").
+ */
+public final class Guard implements Serializable {
+    private static final long serialVersionUID = 1L;
+    public static final String NIL = "nil";
+
+    public enum Relation {
+        EQUAL("="),
+        NOT_EQUAL("!="),
+        SOAR_NOT_EQUAL("<>"), // <> as written in Soar, kept apart from the != the visitor writes for negations
+        LESS("<"),
+        LESS_EQUAL("<="),
+        GREATER(">"),
+        GREATER_EQUAL(">="),
+        DOUBLE_EQUAL("=="),
+        SAME_TYPE("<=>"),
+        IN("<<"); // disjunction << a b >>
+
+        final String symbol;
+
+        Relation(String symbol) {
+            this.symbol = symbol;
+        }
+
+        /**
+         * The relation written as symbol, or null
+         */
+        static Relation ofSymbol(String symbol) {
+            for (Relation relation : values()) {
+                if (relation.symbol.equals(symbol)) {
+                    return relation;
+                }
+            }
+            return null;
+        }
+    }
+
+    final String variable;
+    final Relation relation;
+    // The compared value, or the constants of a disjunction
+    final List<String> values;
+    // The value as an integer, null if it is not one or this is a disjunction
+    final Integer intValue;
+
+    private Guard(String variable, Relation relation, List<String> values) {
+        this.variable = variable;
+        this.relation = relation;
+        this.values = values;
+        this.intValue = (relation == Relation.IN) ? null : ValueUpdate.parseInt(values.get(0));
+    }
+
+    public static Guard of(String variable, Relation relation, String value) {
+        return new Guard(variable, relation, List.of(value));
+    }
+
+    /**
+     * The guard for a value test that starts with its relation (Example: "&lt;= 5", "&lt;&lt; a b &gt;&gt;").
+     * A test without a known relation is an equality test of the whole text.
+     */
+    public static Guard ofTest(String variable, String test) {
+        if (test.startsWith("<< ") && test.endsWith(" >>") && test.length() > 6) {
+            String constants = test.substring(3, test.length() - 3);
+            return new Guard(variable, Relation.IN, List.of(constants.split(" ")));
+        }
+        int space = test.indexOf(' ');
+        Relation relation = (space > 0) ? Relation.ofSymbol(test.substring(0, space)) : null;
+        if (relation == null || relation == Relation.IN) {
+            return of(variable, Relation.EQUAL, test);
+        }
+        return of(variable, relation, test.substring(space + 1));
+    }
+
+    /**
+     * The compared value, null for a disjunction
+     */
+    public String value() {
+        return (relation == Relation.IN) ? null : values.get(0);
+    }
+
+    /**
+     * True for the != and &lt;&gt; tests
+     */
+    public boolean isNegated() {
+        return relation == Relation.NOT_EQUAL || relation == Relation.SOAR_NOT_EQUAL;
+    }
+
+    /**
+     * True for "variable = nil" and "variable != nil", which test whether the attribute exists
+     */
+    public boolean isExistenceCheck() {
+        return (relation == Relation.EQUAL || relation == Relation.NOT_EQUAL) && NIL.equals(values.get(0));
+    }
+
+    /**
+     * True if the variable or one of the values contains text
+     */
+    public boolean mentions(String text) {
+        if (variable.contains(text)) {
+            return true;
+        }
+        for (String value : values) {
+            if (value.contains(text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Guard withVariable(String variable) {
+        return new Guard(variable, relation, values);
+    }
+
+    public Guard withValue(String value) {
+        return of(variable, relation, value);
+    }
+
+    /**
+     * This guard with its variable and values from symbols
+     */
+    Guard share(Symbols symbols) {
+        String sharedVariable = symbols.intern(variable);
+        boolean same = sharedVariable == variable;
+        String[] parts = values.toArray(new String[0]);
+        for (int i = 0; i < parts.length; i++) {
+            String shared = symbols.intern(parts[i]);
+            same &= shared == parts[i];
+            parts[i] = shared;
+        }
+        return same ? this : new Guard(sharedVariable, relation, List.of(parts));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Guard)) {
+            return false;
+        }
+        Guard other = (Guard) o;
+        return variable.equals(other.variable) && relation == other.relation && values.equals(other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(variable, relation, values);
+    }
+
+    @Override
+    public String toString() {
+        if (relation == Relation.IN) {
+            return variable + " << " + String.join(" ", values) + " >>";
+        }
+        return variable + " " + relation.symbol + " " + values.get(0);
+    }
+}
@@ -0,0 +1,249 @@
+package edu.fit.assist.translator.soar;
+import edu.fit.assist.translator.gen.SoarLexer;
+import edu.fit.assist.translator.gen.SoarParser;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parses only the productions whose text changed since an earlier run.
+ *
+ * Every production is looked up in a cache of {@link SoarRulesFragment}s keyed by a SHA-256 hash of
+ * its normalized text (comments removed, whitespace runs shortened to one character) and of the
+ * parser and visitor classes, so changing the translator itself invalidates every entry. Cached
+ * fragments hold the rule the visitor built and its recorded variable and typeGraph changes, and
+ * are merged in source order exactly like {@link ParallelRuleParser} merges freshly parsed ones.
+ * The entries are serialized files under the fragments directory of the {@link ProductionCache}.
+ */
+public class IncrementalRuleParser {
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalRuleParser.class);
+
+    // Bump when the cached fragments change for the same production text
+    static final int FORMAT = 3;
+    private static final String FRAGMENT_DIR = "fragments";
+    private static final String SUFFIX = ".ser";
+
+    private static byte[] translatorDigest;
+
+    public static SoarRules parseRules(CharStream input, ProductionCache cache) {
+        String sourceName = input.getSourceName();
+        String text = input.size() > 0 ? input.getText(Interval.of(0, input.size() - 1)) : "";
+        List<Integer> starts = ParallelRuleParser.productionStarts(text);
+        if (starts == null || starts.isEmpty() || !text.substring(0, starts.get(0)).trim().isEmpty()) {
+            logger.warn("Could not split {} into productions, parsing without the fragment cache", sourceName);
+            return RuleParser.parseRules(CharStreams.fromString(text, sourceName));
+        }
+        Path directory = cache.getDirectory().resolve(FRAGMENT_DIR);
+
+        int count = starts.size();
+        String[] productions = new String[count];
+        String[] keys = new String[count];
+        SoarRulesFragment[] fragments = new SoarRulesFragment[count];
+        List<Integer> changed = new ArrayList<>();
+        long savedNanos = 0;
+        long restoreStart = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            productions[i] = text.substring(starts.get(i), (i + 1 < count) ? starts.get(i + 1) : text.length());
+            keys[i] = key(productions[i]);
+            SoarRulesFragment.Entry entry = read(directory, keys[i]);
+            if (entry != null) {
+                fragments[i] = entry.restore();
+                savedNanos += entry.nanos;
+            } else {
+                changed.add(i);
+            }
+        }
+        long restoreNanos = System.nanoTime() - restoreStart;
+
+        if (!changed.isEmpty()) {
+            // Parse all changed productions together
+            StringBuilder changedText = new StringBuilder();
+            for (int i : changed) {
+                changedText.append(productions[i]);
+            }
+            long parseStart = System.nanoTime();
+            SoarParser.SoarContext tree = RuleParser.parse(CharStreams.fromString(changedText.toString(), sourceName));
+            long parseNanos = System.nanoTime() - parseStart;
+            List<SoarParser.Soar_productionContext> parsed = tree.soar_production();
+            if (parsed.size() != changed.size()) {
+                // Error recovery joined or split productions, so they no longer line up
+                logger.warn("Syntax errors in changed productions, parsing without the fragment cache");
+                return RuleParser.parseRules(CharStreams.fromString(text, sourceName));
+            }
+            Visitor<?> visitor = new Visitor<>();
+            boolean writeFailed = false;
+            for (int k = 0; k < changed.size(); k++) {
+                int i = changed.get(k);
+                long visitStart = System.nanoTime();
+                fragments[i] = SoarRulesFragment.visit(visitor, parsed.get(k));
+                long nanos = System.nanoTime() - visitStart + parseNanos * productions[i].length() / changedText.length();
+                if (!writeFailed && !hasErrors(parsed.get(k))) {
+                    writeFailed = !write(directory, keys[i], new SoarRulesFragment.Entry(fragments[i], nanos));
+                }
+            }
+        }
+
+        SoarRules rules = new SoarRules();
+        Visitor<?> visitor = new Visitor<>();
+        visitor.rules = rules;
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            if (!fragments[i].mergeInto(rules, names, visitor)) {
+                // A restored production that reuses an earlier name has to be visited against the merged rules
+                SoarParser.SoarContext tree = RuleParser.parse(CharStreams.fromString(productions[i], sourceName), new RuleParser.ParseStats());
+                visitor.visit(tree.soar_production(0));
+            }
+        }
+
+        int hits = count - changed.size();
+        logger.info("Fragment cache restored {} of {} productions ({}%), saved about {} ms, restoring took {} ms",
+                hits, count, String.format("%.1f", 100.0 * hits / count), savedNanos / 1_000_000, restoreNanos / 1_000_000);
+        return rules;
+    }
+
+    /**
+     * Hash of the production with comments removed and every whitespace run cut to its first
+     * character, which the lexer can't tell apart ('write ' is the only token with whitespace in it).
+     */
+    static String key(String production) {
+        StringBuilder normalized = new StringBuilder(production.length());
+        int n = production.length();
+        for (int i = 0; i < n; i++) {
+            char c = production.charAt(i);
+            if (c == '|' || c == '"') {
+                int end = production.indexOf(c, i + 1);
+                end = (end < 0) ? n - 1 : end;
+                normalized.append(production, i, end + 1);
+                i = end;
+            } else if (c == '#') {
+                while (i + 1 < n && production.charAt(i + 1) != '\n') {
+                    i++;
+                }
+            } else if (Character.isWhitespace(c)) {
+                if (normalized.length() == 0 || !Character.isWhitespace(normalized.charAt(normalized.length() - 1))) {
+                    normalized.append(c);
+                }
+            } else {
+                normalized.append(c);
+            }
+        }
+        MessageDigest sha = sha256();
+        sha.update(translatorDigest());
+        sha.update(normalized.toString().getBytes(StandardCharsets.UTF_8));
+        StringBuilder key = new StringBuilder();
+        for (byte b : sha.digest()) {
+            key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return key.toString();
+    }
+
+    // Digest of the classes that decide what a production turns into
+    private static synchronized byte[] translatorDigest() {
+        if (translatorDigest == null) {
+            MessageDigest sha = sha256();
+            sha.update(("format " + FORMAT).getBytes(StandardCharsets.UTF_8));
+            for (Class<?> c : new Class<?>[]{SoarLexer.class, SoarParser.class, Visitor.class, Rule.class, Guard.class,
+                    ValueUpdate.class, Variable.class, Symbols.class, SoarRules.class, SoarRulesFragment.class}) {
+                try (InputStream in = c.getResourceAsStream(c.getSimpleName() + ".class")) {
+                    if (in != null) {
+                        byte[] buffer = new byte[8192];
+                        for (int read; (read = in.read(buffer)) > 0; ) {
+                            sha.update(buffer, 0, read);
+                        }
+                    }
+                } catch (IOException e) {
+                    // the class name alone still separates formats
+                }
+                sha.update(c.getName().getBytes(StandardCharsets.UTF_8));
+            }
+            translatorDigest = sha.digest();
+        }
+        return translatorDigest;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean hasErrors(ParseTree tree) {
+        if (tree instanceof ErrorNode) {
+            return true;
+        }
+        if (tree instanceof ParserRuleContext && ((ParserRuleContext) tree).exception != null) {
+            return true;
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            if (hasErrors(tree.getChild(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Path entryPath(Path directory, String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + SUFFIX);
+    }
+
+    private static SoarRulesFragment.Entry read(Path directory, String key) {
+        Path entry = entryPath(directory, key);
+        if (!Files.isRegularFile(entry)) {
+            return null;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            return (SoarRulesFragment.Entry) in.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            // Written by another version of the translator, parse again
+            return null;
+        }
+    }
+
+    private static boolean write(Path directory, String key, SoarRulesFragment.Entry fragment) {
+        Path entry = entryPath(directory, key);
+        Path temp = null;
+        try {
+            Files.createDirectories(entry.getParent());
+            temp = Files.createTempFile(entry.getParent(), key, ".tmp");
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeObject(fragment);
+            }
+            Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            logger.warn("Could not write fragment cache entry {}: {}", entry, e.getMessage());
+            try {
+                if (temp != null) {
+                    Files.deleteIfExists(temp);
+                }
+            } catch (IOException ignored) {
+                // nothing left to do
+            }
+            return false;
+        }
+    }
+}
@@ -1,21 +1,64 @@
 package edu.fit.assist.translator.soar;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CodePointBuffer;
+import org.antlr.v4.runtime.CodePointCharStream;
 import org.jsoar.kernel.Agent;
 import org.jsoar.kernel.Production;
 import org.jsoar.kernel.SoarException;
 import org.jsoar.kernel.tracing.Printer;
 import org.jsoar.util.commands.SoarCommands;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.ArrayList;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.nio.CharBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 
 public class Input {
+    private static final Logger logger = LoggerFactory.getLogger(Input.class);
 
-    // Function to load soar agent into JSoar and return all productions
-    public static String getSoarRules(String path) throws SoarException {
+    // Initial size of the code point buffer the productions are streamed into; it grows as needed
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+
+    // Function to load soar agent and return all productions as a stream the SoarLexer can read directly
+    public static CharStream getSoarRules(String path) throws SoarException {
+        return getSoarRules(path, ProductionCache.fromSystemProperties(), false);
+    }
+
+    // Same as getSoarRules(path), but the productions are taken from the cache when no sourced file changed.
+    // cache may be null to always load the files. With direct, load trees that only use source, pushd, popd
+    // and sp are read without booting JSoar, and their productions are kept as written instead of as JSoar
+    // prints them (dot notation and multi-attribute actions are not expanded)
+    public static CharStream getSoarRules(String path, ProductionCache cache, boolean direct) throws SoarException {
+        SoarSourceLoader loader = new SoarSourceLoader();
+        String key = null;
+        if (cache != null) {
+            Map<Path, byte[]> files = loader.scan(path);
+            if (files != null) {
+                key = cache.key(files, direct);
+                CharStream cached = cache.read(key, path);
+                if (cached != null) {
+                    logger.info("Loaded productions of {} files from cache {}", files.size(), cache.getDirectory());
+                    return cached;
+                }
+            }
+        }
+        CharStream productions = direct ? loader.loadProductions(path) : null;
+        if (productions == null) {
+            productions = getSoarRules(loadAgent(path), path);
+        }
+        if (key != null) {
+            cache.write(key, productions);
+        }
+        return productions;
+    }
+
+    // Function to load soar agent into JSoar
+    public static Agent loadAgent(String path) throws SoarException {
         // Magic to enable TCL
         System.setProperty("jsoar.agent.interpreter","tcl");
         // Create agent
@@ -23,48 +66,44 @@ public class Input {
         agent.getPrinter().pushWriter(new OutputStreamWriter(System.out));
         agent.initialize();
         SoarCommands.source(agent.getInterpreter(), path);
+        return agent;
+    }
 
+    // All productions of a loaded agent, in the order JSoar prints them
+    public static List<Production> getProductions(Agent agent) {
+        return agent.getProductions().getProductions(null);
+    }
+
+    // Print the productions of a loaded agent into a stream the SoarLexer can read directly
+    public static CharStream getSoarRules(Agent agent, String sourceName) {
+        // One writer is reused for every production, only its buffer is cleared between productions
         StringWriter sw = new StringWriter();
         Printer pw = new Printer(new PrintWriter(sw));
-        String productions = "";
+        CodePointBuffer.Builder productions = CodePointBuffer.builder(INITIAL_BUFFER_SIZE);
+        ProductionSanitizer sanitizer = new ProductionSanitizer();
+        char[] scratch = new char[1024];
 
-        for(Production p: agent.getProductions().getProductions(null)){
+        for(Production p: getProductions(agent)){
             p.print(pw, true);
             pw.flush();
-            productions += cleanProduction(sw.toString());
+            scratch = append(productions, sanitizer.clean(sw.getBuffer()), scratch);
             // clear printWriter's buffer
-            sw = new StringWriter();
-            pw = new Printer(new PrintWriter(sw));
+            sw.getBuffer().setLength(0);
         }
-        return productions;
+        return CodePointCharStream.fromBuffer(productions.build(), sourceName);
     }
 
-    private static String cleanProduction(String input){
-        Pattern attributePattern = Pattern.compile("<[a-zA-Z0-9]+[*][a-zA-Z0-9]+>");
-        ArrayList<String> attributes = new ArrayList<String>();
-        ArrayList<String> attributesToRemove = new ArrayList<String>();
-        Matcher attributeMatcher = attributePattern.matcher(input);
-        // Find all placeholder attributes
-        while(attributeMatcher.find()){
-            attributes.add(attributeMatcher.group());
+    // CodePointBuffer.Builder only accepts array backed buffers, so the text is copied into a reused array first
+    static char[] append(CodePointBuffer.Builder builder, CharSequence text, char[] scratch) {
+        int length = text.length();
+        if (scratch.length < length) {
+            scratch = new char[Math.max(length, scratch.length * 2)];
         }
-        // Find which attributes to remove based on number of occurrences
-        for(String s: attributes){
-            int occurrences = 0;
-            for(String s1: attributes){
-                if(s.equals(s1)){
-                    occurrences++;
-                }
-            }
-            if(occurrences == 1){
-                attributesToRemove.add(s);
-            }
-        }
-
-        for(String s: attributesToRemove){
-            input = input.replace(s,"");
+        for (int i = 0; i < length; i++) {
+            scratch[i] = text.charAt(i);
         }
-        return input;
+        builder.append(CharBuffer.wrap(scratch, 0, length));
+        return scratch;
     }
 
 }
@@ -0,0 +1,271 @@
+package edu.fit.assist.translator.soar;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link CharStream} over a memory-mapped UTF-8 file, so large production dumps are lexed without
+ * copying them onto the heap.
+ *
+ * Code points are decoded only when the lexer asks for them. One pass over the bytes when the file
+ * is opened counts the code points and records the byte offset of every {@value #CHECKPOINT_INTERVAL}th
+ * one, so seeking back only decodes forward from the nearest checkpoint. Pure ASCII files need no
+ * checkpoints at all since code point and byte offsets are the same.
+ *
+ * Each maximal subpart of an ill-formed UTF-8 sequence becomes one U+FFFD, as the Unicode standard
+ * recommends. Surrogates, overlong forms and values above U+10FFFF are ill-formed, and so is every
+ * stray continuation byte.
+ */
+public class MappedCharStream implements CharStream {
+
+    private static final int CHECKPOINT_SHIFT = 10;
+    static final int CHECKPOINT_INTERVAL = 1 << CHECKPOINT_SHIFT;
+    private static final int REPLACEMENT_CHARACTER = 0xFFFD;
+
+    private final MappedByteBuffer bytes;
+    private final String sourceName;
+    // Byte offset of the first code point, after a byte order mark
+    private final int start;
+    private final int limit;
+    private final int size;
+    private final boolean ascii;
+    // Byte offset of code point i * CHECKPOINT_INTERVAL, null for ASCII files
+    private final int[] checkpoints;
+
+    // Current code point index and its byte offset
+    private int index;
+    private int offset;
+
+    private MappedCharStream(MappedByteBuffer bytes, String sourceName) {
+        this.bytes = bytes;
+        this.sourceName = sourceName;
+        this.limit = bytes.limit();
+        this.start = hasByteOrderMark(bytes) ? 3 : 0;
+
+        int count = 0;
+        boolean onlyAscii = true;
+        for (int i = start; i < limit; i++) {
+            byte b = bytes.get(i);
+            if (b < 0) {
+                onlyAscii = false;
+                break;
+            }
+        }
+        int[] offsets = null;
+        if (onlyAscii) {
+            count = limit - start;
+        } else {
+            offsets = new int[(limit - start) / CHECKPOINT_INTERVAL + 1];
+            for (int i = start; i < limit; i = next(i)) {
+                if ((count & (CHECKPOINT_INTERVAL - 1)) == 0) {
+                    offsets[count >> CHECKPOINT_SHIFT] = i;
+                }
+                count++;
+            }
+        }
+        this.size = count;
+        this.ascii = onlyAscii;
+        this.checkpoints = offsets;
+        this.index = 0;
+        this.offset = start;
+    }
+
+    /**
+     * Map a UTF-8 file. The mapping stays valid after the channel is closed.
+     */
+    public static MappedCharStream open(Path path) throws IOException {
+        return open(path, path.toString());
+    }
+
+    /**
+     * Map a UTF-8 file, reporting sourceName as the name of the stream.
+     */
+    public static MappedCharStream open(Path path, String sourceName) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(path + " is too large to map (" + channel.size() + " bytes)");
+            }
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedCharStream(bytes, sourceName);
+        }
+    }
+
+    private static boolean hasByteOrderMark(MappedByteBuffer bytes) {
+        return bytes.limit() >= 3 && (bytes.get(0) & 0xFF) == 0xEF && (bytes.get(1) & 0xFF) == 0xBB && (bytes.get(2) & 0xFF) == 0xBF;
+    }
+
+    @Override
+    public void consume() {
+        if (index >= size) {
+            throw new IllegalStateException("cannot consume EOF");
+        }
+        offset = ascii ? offset + 1 : next(offset);
+        index++;
+    }
+
+    @Override
+    public int LA(int i) {
+        if (i == 0) {
+            return 0; // undefined
+        }
+        int target = (i > 0) ? index + i - 1 : index + i;
+        if (target < 0 || target >= size) {
+            return IntStream.EOF;
+        }
+        return decode(offsetOf(target));
+    }
+
+    @Override
+    public int mark() {
+        return -1; // the whole file stays mapped
+    }
+
+    @Override
+    public void release(int marker) {
+    }
+
+    @Override
+    public int index() {
+        return index;
+    }
+
+    @Override
+    public void seek(int index) {
+        int target = Math.min(Math.max(index, 0), size);
+        offset = offsetOf(target);
+        this.index = target;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String getSourceName() {
+        return (sourceName == null || sourceName.isEmpty()) ? UNKNOWN_SOURCE_NAME : sourceName;
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        int from = Math.max(interval.a, 0);
+        int to = Math.min(interval.b, size - 1);
+        if (from > to) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder(to - from + 1);
+        int o = offsetOf(from);
+        for (int i = from; i <= to; i++) {
+            text.appendCodePoint(decode(o));
+            o = ascii ? o + 1 : next(o);
+        }
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getText(Interval.of(0, size - 1));
+    }
+
+    // Byte offset of a code point, walking forward from the current position or the nearest checkpoint
+    private int offsetOf(int target) {
+        if (ascii) {
+            return start + target;
+        }
+        if (target == size) {
+            return limit;
+        }
+        int i;
+        int o;
+        if (target >= index && target - index < CHECKPOINT_INTERVAL) {
+            i = index;
+            o = offset;
+        } else {
+            i = target & ~(CHECKPOINT_INTERVAL - 1);
+            o = checkpoints[target >> CHECKPOINT_SHIFT];
+        }
+        for (; i < target; i++) {
+            o = next(o);
+        }
+        return o;
+    }
+
+    // Byte offset of the code point after the one at o
+    private int next(int o) {
+        return o + sequenceLength(o);
+    }
+
+    /*
+     * Length of the sequence at o: the whole sequence if it is well-formed, otherwise its maximal
+     * subpart, the longest prefix of a well-formed sequence, or 1 if there is none.
+     */
+    private int sequenceLength(int o) {
+        int b = bytes.get(o) & 0xFF;
+        int length = expectedLength(b);
+        if (length <= 1) {
+            return 1;
+        }
+        // The second byte is what rules out overlong forms, surrogates and values above U+10FFFF
+        int low = 0x80;
+        int high = 0xBF;
+        if (b == 0xE0) {
+            low = 0xA0;
+        } else if (b == 0xED) {
+            high = 0x9F;
+        } else if (b == 0xF0) {
+            low = 0x90;
+        } else if (b == 0xF4) {
+            high = 0x8F;
+        }
+        for (int k = 1; k < length; k++) {
+            if (o + k >= limit) {
+                return k;
+            }
+            int c = bytes.get(o + k) & 0xFF;
+            if (c < low || c > high) {
+                return k;
+            }
+            low = 0x80;
+            high = 0xBF;
+        }
+        return length;
+    }
+
+    // Length of a well-formed sequence starting with lead byte b, 0 if b can't start one
+    private static int expectedLength(int b) {
+        if (b < 0x80) {
+            return 1;
+        } else if (b < 0xC2) {
+            return 0;
+        } else if (b < 0xE0) {
+            return 2;
+        } else if (b < 0xF0) {
+            return 3;
+        } else if (b < 0xF5) {
+            return 4;
+        }
+        return 0;
+    }
+
+    private int decode(int o) {
+        int b = bytes.get(o) & 0xFF;
+        if (b < 0x80) {
+            return b;
+        }
+        int length = expectedLength(b);
+        if (length == 0 || sequenceLength(o) != length) {
+            return REPLACEMENT_CHARACTER;
+        }
+        int codePoint = b & (0x7F >> length);
+        for (int k = 1; k < length; k++) {
+            codePoint = (codePoint << 6) | (bytes.get(o + k) & 0x3F);
+        }
+        return codePoint;
+    }
+}
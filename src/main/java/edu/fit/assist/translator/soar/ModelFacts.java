@@ -0,0 +1,390 @@
+package edu.fit.assist.translator.soar;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * What {@link TimeBasedTranslator} reads from the rules, gathered by {@link #analyze} in one walk over
+ * them and not changed afterwards: the action transitions, the largest value each state variable is
+ * compared with or set to, the numbers the time variable is compared with or set to, the monitor
+ * names and the first numeric value of each attribute. The generators read these facts instead of
+ * scanning the rules again.
+ */
+final class ModelFacts {
+    private static final Logger logger = LoggerFactory.getLogger(ModelFacts.class);
+    private static final String STAGE = "transitions";
+    private static final StageCounters.Counter TRANSITION_RULES = StageCounters.counter(STAGE, "transition rules");
+    private static final StageCounters.Counter ACTIONS_FROM_GUARDS = StageCounters.counter(STAGE, "from actions found in guards");
+    private static final StageCounters.Counter FALLBACK_ACTIONS = StageCounters.counter(STAGE, "fallback from actions");
+    private static final StageCounters.Counter UNPARSABLE_ACTIONS = StageCounters.counter(STAGE, "unparsable action values");
+
+    static final String MISSION_MONITOR = "mission_monitor";
+    static final String SICKNESS_MONITOR = "sickness_monitor";
+
+    // One per apply*apply-X-transition rule, in source order
+    final List<TransitionInfo> transitions;
+    // Positive numbers the time variable is compared with or set to, ascending
+    final SortedSet<Integer> timeValues;
+    // The monitor constants the rules define, in the order the rules define them
+    final List<String> monitorConstants;
+    // Largest value each variable set by apply*initialize is compared with or set to
+    private final Map<String, Integer> observedMax;
+    // First numeric value each attribute is set to, in rule order
+    private final Map<String, Double> numericValues;
+    // Attributes set to a value that isn't a number before any numeric value
+    private final Set<String> unparsedValues;
+
+    private ModelFacts(List<TransitionInfo> transitions, SortedSet<Integer> timeValues, List<String> monitorConstants,
+                       Map<String, Integer> observedMax, Map<String, Double> numericValues, Set<String> unparsedValues) {
+        this.transitions = Collections.unmodifiableList(transitions);
+        this.timeValues = Collections.unmodifiableSortedSet(timeValues);
+        this.monitorConstants = Collections.unmodifiableList(monitorConstants);
+        this.observedMax = observedMax;
+        this.numericValues = numericValues;
+        this.unparsedValues = unparsedValues;
+    }
+
+    /**
+     * Collect the transitions from the apply rules, and walk all rules once for the constants, the
+     * bounds of the state variables and the time values
+     * @param timeVariableName the name of the time variable, matched with its dash/underscore variants,
+     *                         or null to leave timeValues empty when the time interval is already known
+     */
+    static ModelFacts analyze(SoarRules rules, String timeVariableName) {
+        // The state variables are the ones the first apply*initialize rule sets
+        Map<String, Integer> observedMax = new HashMap<>();
+        List<Rule> initializeRules = rules.getInitializeRules();
+        if (!initializeRules.isEmpty()) {
+            for (String varName : initializeRules.get(0).updates.keySet()) {
+                observedMax.put(varName, Integer.MIN_VALUE);
+            }
+        }
+
+        NameMatcher time = (timeVariableName != null) ? NameMatcher.forName(timeVariableName) : null;
+        SortedSet<Integer> timeValues = new TreeSet<>();
+        List<String> constants = new ArrayList<>();
+        Map<String, Double> numbers = new HashMap<>();
+        Set<String> unparsed = new HashSet<>();
+        // The state variables each guard variable or value mentions, worked out once for each of them
+        Map<String, List<String>> mentioned = new HashMap<>();
+        for (Rule rule : rules.rules) {
+            collectBounds(rule, observedMax, mentioned, time, timeValues);
+            collectConstants(rule, constants, numbers, unparsed);
+        }
+
+        List<TransitionInfo> transitions = new ArrayList<>();
+        for (Rule rule : rules.getApplyRules()) {
+            if (rule.ruleName.startsWith("apply*apply-") && rule.ruleName.contains("-transition")) {
+                transitions.add(extractTransition(rules, rule));
+            }
+        }
+        return new ModelFacts(transitions, timeValues, constants, observedMax, numbers, unparsed);
+    }
+
+    /**
+     * Raise each observedMax entry to the largest value its variable is compared with or set to in the
+     * rule, and add the numbers the time variable is compared with or set to to timeValues
+     */
+    private static void collectBounds(Rule rule, Map<String, Integer> observedMax, Map<String, List<String>> mentioned,
+                                      NameMatcher time, SortedSet<Integer> timeValues) {
+        for (Guard guard : rule.guards) {
+            if (guard.intValue != null && !observedMax.isEmpty()) {
+                // The state variables the guard mentions, in its variable or in its only value
+                raise(observedMax, mentioned.computeIfAbsent(guard.variable, text -> mentionedIn(text, observedMax)), guard.intValue);
+                raise(observedMax, mentioned.computeIfAbsent(guard.value(), text -> mentionedIn(text, observedMax)), guard.intValue);
+            }
+            if (time != null && time.contains(guard)) {
+                // The numbers the time is compared with
+                for (String part : guard.values) {
+                    Integer value = ValueUpdate.parseInt(part);
+                    if (value != null && value > 0) {
+                        timeValues.add(value);
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<String, ValueUpdate> entry : rule.updates.entrySet()) {
+            String varName = entry.getKey();
+            ValueUpdate value = entry.getValue();
+            Integer max = observedMax.get(varName);
+            if (max != null) {
+                try {
+                    observedMax.put(varName, Math.max(max, parseInitValue(value)));
+                } catch (NumberFormatException e) {
+                    // Not a number
+                }
+            }
+            // Time updates like (+ <pdf2> <tc>) or numeric values: all digits of the value as one number
+            if (time != null && time.contains(varName) && value.text.matches(".*\\d+.*")) {
+                Integer digits = ValueUpdate.parseInt(value.text.replaceAll("[^0-9]", ""));
+                if (digits != null && digits > 0) {
+                    timeValues.add(digits);
+                }
+            }
+        }
+    }
+
+    /**
+     * The state variables whose name is part of text
+     */
+    private static List<String> mentionedIn(String text, Map<String, Integer> observedMax) {
+        List<String> varNames = new ArrayList<>(1);
+        for (String varName : observedMax.keySet()) {
+            if (text.contains(varName)) {
+                varNames.add(varName);
+            }
+        }
+        return varNames;
+    }
+
+    private static void raise(Map<String, Integer> observedMax, List<String> varNames, int value) {
+        for (String varName : varNames) {
+            if (value > observedMax.get(varName)) {
+                observedMax.put(varName, value);
+            }
+        }
+    }
+
+    /**
+     * Add the monitor constants the rule defines, and the values it sets that are the first for their attribute
+     */
+    private static void collectConstants(Rule rule, List<String> constants, Map<String, Double> numbers, Set<String> unparsed) {
+        for (Map.Entry<String, ValueUpdate> entry : rule.updates.entrySet()) {
+            String varName = entry.getKey();
+            ValueUpdate value = entry.getValue();
+            if (value.doubleValue != null) {
+                numbers.putIfAbsent(varName, value.doubleValue);
+            } else if (!numbers.containsKey(varName)) {
+                unparsed.add(varName);
+            }
+        }
+
+        if (rule.ruleName.equals(SoarRules.INITIALIZE_RULE)) {
+            String nameValue = rule.valueMap.get("name");
+            if (nameValue != null && nameValue.contains("mission") && !constants.contains(MISSION_MONITOR)) {
+                constants.add(MISSION_MONITOR);
+            }
+        }
+        // Monitor switching rules define the sickness/condition monitor
+        if ((rule.ruleName.contains("switch-monitor") || rule.ruleName.contains("sickness"))
+                && !constants.contains(SICKNESS_MONITOR)) {
+            constants.add(SICKNESS_MONITOR);
+        }
+    }
+
+    /**
+     * Largest value varName is compared with or set to in any rule, or null if it is never compared
+     * with a number. Only known for the variables set by apply*initialize.
+     */
+    Integer maxObserved(String varName) {
+        Integer max = observedMax.get(varName);
+        return (max == null || max == Integer.MIN_VALUE) ? null : max;
+    }
+
+    /**
+     * The first numeric value a rule sets name to, or null
+     */
+    Double numericValue(String name) {
+        Double value = numericValues.get(name);
+        if (value == null && unparsedValues.contains(name)) {
+            logger.warn("Could not parse {}", name);
+        }
+        return value;
+    }
+
+    /**
+     * Parse initialization value from Soar (handles "yes", "no", numbers, etc.)
+     */
+    static int parseInitValue(ValueUpdate update) throws NumberFormatException {
+        if (update == null) throw new NumberFormatException("null value");
+        if (update.intValue != null) return update.intValue;
+        String value = update.text;
+
+        // Handle boolean-like values
+        if (value.equals("yes") || value.equals("true")) return 1;
+        if (value.equals("no") || value.equals("false")) return 0;
+
+        // Handle monitor names
+        if (value.equals("mission-monitor")) return 0;
+        if (value.equals("sickness-monitor") || value.equals("condition-monitor")) return 1;
+
+        throw new NumberFormatException("Not an integer: " + value);
+    }
+
+    /**
+     * True if the guard tests the action, ignoring case and the state_ prefix (state_action, action, etc.)
+     */
+    private static boolean isActionGuard(Guard guard) {
+        if (guard.variable.toLowerCase().replace("state_", "").contains("action")) {
+            return true;
+        }
+        for (String value : guard.values) {
+            if (value.toLowerCase().replace("state_", "").contains("action")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extract transition information from an apply*apply-X-transition rule and its propose rule
+     */
+    private static TransitionInfo extractTransition(SoarRules rules, Rule rule) {
+        // Extract transition name (e.g., "SS", "D", "DD")
+        String transName = rule.ruleName.replace("apply*apply-", "").replace("-transition", "");
+        TRANSITION_RULES.increment();
+        int fromAction = -1;
+        List<Integer> fromActions = null;
+        int toAction = -1;
+        String eventName = null;
+        String pdfName = null;
+
+        // Extract TO action value from valueMap
+        // Check for action in valueMap entries
+        for (Map.Entry<String, ValueUpdate> entry : rule.updates.entrySet()) {
+            if (entry.getKey().contains("action") && entry.getValue().intValue != null) {
+                toAction = entry.getValue().intValue;
+                break;
+            }
+        }
+
+        // Fallback: try direct "action" key
+        if (toAction < 0 && rule.updates.containsKey("action")) {
+            ValueUpdate action = rule.updates.get("action");
+            if (action.intValue != null) {
+                toAction = action.intValue;
+            } else {
+                UNPARSABLE_ACTIONS.increment();
+                logger.warn("Could not parse action value: {}", action);
+            }
+        }
+
+        // Fallback: infer from transition name based on common patterns
+        // NEW CYCLE: 0 → 1 → 2 → 3 → 1 → 2 → 3 → 1...
+        if (toAction < 0) {
+            if (transName.equals("SS")) {
+                toAction = 1; // SS -> (action 1)
+            } else if (transName.equals("D")) {
+                toAction = 2; // D -> (action 2)
+            } else if (transName.equals("DD")) {
+                toAction = 3; // DD -> (action 3)
+            }
+        }
+
+        // Find corresponding propose rule to get FROM action
+        String proposeRuleName = "propose*" + transName + "-transition";
+        for (Rule proposeRule : rules.getRulesByName(proposeRuleName)) {
+            logger.debug("Processing propose rule: {} with guards {}", proposeRuleName, proposeRule.guards);
+            // Extract FROM action from guards
+            // The guard might be in various formats:
+            // - Simple: "action = 0"
+            // - Set notation: "action { << 3 2 >> }" (may be stored as "action = { << 3 2 >> }" or similar)
+            for (Guard guard : proposeRule.guards) {
+                if (isActionGuard(guard)) {
+                    logger.debug("Found action guard in {}: {}", proposeRuleName, guard);
+
+                    if (guard.relation == Guard.Relation.IN) {
+                        // Multiple values like "action << 3 2 >>"
+                        fromActions = new ArrayList<>();
+                        for (String a : guard.values) {
+                            Integer action = ValueUpdate.parseInt(a);
+                            if (action != null) {
+                                fromActions.add(action);
+                            } else {
+                                UNPARSABLE_ACTIONS.increment();
+                                logger.debug("Could not parse action value from guard: {}", a);
+                            }
+                        }
+                        if (!fromActions.isEmpty()) {
+                            ACTIONS_FROM_GUARDS.increment();
+                            logger.debug("Extracted fromActions from guards: {}", fromActions);
+                            break; // Found the action guard, stop looking
+                        }
+                    } else if (guard.relation.symbol.contains("=")) {
+                        // Single value like "action = 0" (but not "action = state_action")
+                        String actionValue = guard.value();
+                        // Skip if it's a variable reference or contains < > (template variables)
+                        if (!actionValue.contains("state_") && !actionValue.contains("<") && !actionValue.isEmpty()) {
+                            if (guard.intValue != null) {
+                                fromAction = guard.intValue;
+                                ACTIONS_FROM_GUARDS.increment();
+                                logger.debug("Extracted fromAction from guards: {}", fromAction);
+                                break; // Found the action guard, stop looking
+                            }
+                            UNPARSABLE_ACTIONS.increment();
+                            logger.debug("Could not parse action value from guard: {}", actionValue);
+                        }
+                    }
+                }
+            }
+
+            // CRITICAL FIX: If we didn't extract action info, use fallback based on transition name
+            // NEW CYCLE: 0 → 1 → 2 → 3 → 1 → 2 → 3 → 1...
+            if ((fromActions == null || fromActions.isEmpty()) && fromAction < 0) {
+                FALLBACK_ACTIONS.increment();
+                logger.warn("Could not extract fromAction for {}, using fallback", transName);
+                // For SS-transition: should trigger from state 0 (and possibly state 3 after DD)
+                if (transName.toLowerCase().contains("ss") || transName.toLowerCase().contains("scan")) {
+                    fromActions = new ArrayList<>();
+                    fromActions.add(0);  // Initial state
+                    fromActions.add(3);  // DD-transition leads to state 3 (back to scan-and-select)
+                    logger.info("Using fallback fromActions for SS-transition: {}", fromActions);
+                }
+            }
+
+            // Extract PDF value from input-link references
+            // Look for patterns like "(<sd> ^pdf2 <pdf2>)" in conditions
+            for (String var : proposeRule.variables) {
+                if (var.startsWith("pdf")) {
+                    pdfName = var;
+                    break;
+                }
+            }
+        }
+
+        // Extract event name from valueMap
+        for (Map.Entry<String, String> entry : rule.valueMap.entrySet()) {
+            if (entry.getKey().contains("event")) {
+                eventName = entry.getValue();
+                break;
+            }
+        }
+
+        return new TransitionInfo(rule.ruleName, transName, fromAction, fromActions, toAction, eventName, pdfName);
+    }
+
+    /**
+     * Helper class to store transition information
+     */
+    static final class TransitionInfo {
+        final String ruleName;
+        final String transitionName;
+        final int fromAction;
+        final List<Integer> fromActions;
+        final int toAction;
+        final String eventName;
+        final String pdfName;
+
+        TransitionInfo(String ruleName, String transitionName, int fromAction, List<Integer> fromActions,
+                       int toAction, String eventName, String pdfName) {
+            this.ruleName = ruleName;
+            this.transitionName = transitionName;
+            this.fromAction = fromAction;
+            this.fromActions = (fromActions == null) ? null : Collections.unmodifiableList(fromActions);
+            this.toAction = toAction;
+            this.eventName = eventName;
+            this.pdfName = pdfName;
+        }
+    }
+}
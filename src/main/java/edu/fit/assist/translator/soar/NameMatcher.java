@@ -0,0 +1,219 @@
+package edu.fit.assist.translator.soar;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds whole occurrences of up to 64 names, and of their dash/underscore variants, in one scan of
+ * the text with an Aho-Corasick automaton. A name counts where it stands on its own or as &lt;name&gt;:
+ * "time-counter" is found in "time_counter &gt; 5" and in "&lt;time-counter&gt;" but not in
+ * "state_time-counter" or "time-counter2".
+ */
+final class NameMatcher {
+    // Matchers for single names, least recently used dropped first
+    private static final int MAX_CACHED = 64;
+    private static final Map<String, NameMatcher> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<String, NameMatcher>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, NameMatcher> eldest) {
+                    return size() > MAX_CACHED;
+                }
+            });
+
+    // Column of each character in the transition table. 0 for characters that are in no name
+    private final int[] asciiColumns = new int[128];
+    private final Map<Character, Integer> otherColumns = new HashMap<>();
+    // next[state][column] is the state after reading a character
+    private final int[][] next;
+    // The variants that end in each state, as indexes into variantName and variantLength
+    private final int[][] matches;
+    private final int[] variantName;
+    private final int[] variantLength;
+
+    NameMatcher(String... names) {
+        if (names.length > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " names, got " + names.length);
+        }
+        List<String> variants = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            for (String variant : variants(names[i])) {
+                variants.add(variant);
+                owners.add(i);
+            }
+        }
+        variantName = new int[variants.size()];
+        variantLength = new int[variants.size()];
+        int columns = 1;
+        for (int v = 0; v < variants.size(); v++) {
+            variantName[v] = owners.get(v);
+            variantLength[v] = variants.get(v).length();
+            for (char c : variants.get(v).toCharArray()) {
+                if (column(c) == 0) {
+                    if (c < asciiColumns.length) {
+                        asciiColumns[c] = columns++;
+                    } else {
+                        otherColumns.put(c, columns++);
+                    }
+                }
+            }
+        }
+
+        // The trie of all variants, -1 where there is no edge yet
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(newRow(columns));
+        ends.add(new ArrayList<>());
+        for (int v = 0; v < variants.size(); v++) {
+            int state = 0;
+            for (char c : variants.get(v).toCharArray()) {
+                int col = column(c);
+                if (trie.get(state)[col] == -1) {
+                    trie.get(state)[col] = trie.size();
+                    trie.add(newRow(columns));
+                    ends.add(new ArrayList<>());
+                }
+                state = trie.get(state)[col];
+            }
+            ends.get(state).add(v);
+        }
+
+        // Breadth first, fill the missing edges from the failure links and collect the matches they lead to
+        next = trie.toArray(new int[0][]);
+        int[] fail = new int[next.length];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int col = 0; col < columns; col++) {
+            if (next[0][col] == -1) {
+                next[0][col] = 0;
+            } else {
+                queue.add(next[0][col]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            ends.get(state).addAll(ends.get(fail[state]));
+            for (int col = 0; col < columns; col++) {
+                int child = next[state][col];
+                if (child == -1) {
+                    next[state][col] = next[fail[state]][col];
+                } else {
+                    fail[child] = next[fail[state]][col];
+                    queue.add(child);
+                }
+            }
+        }
+        matches = new int[next.length][];
+        for (int state = 0; state < next.length; state++) {
+            matches[state] = ends.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * The shared matcher for one name
+     */
+    static NameMatcher forName(String name) {
+        return CACHE.computeIfAbsent(name, NameMatcher::new);
+    }
+
+    /**
+     * The names found in text, bit i set for names[i]
+     */
+    long find(String text) {
+        return scan(text, false);
+    }
+
+    /**
+     * True if any of the names is in text
+     */
+    boolean contains(String text) {
+        return text != null && scan(text, true) != 0;
+    }
+
+    /**
+     * True if any of the names is in the variable or a value of the guard
+     */
+    boolean contains(Guard guard) {
+        if (contains(guard.variable)) {
+            return true;
+        }
+        for (String value : guard.values) {
+            if (contains(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long scan(String text, boolean firstOnly) {
+        long found = 0;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next[state][column(text.charAt(i))];
+            for (int v : matches[state]) {
+                long bit = 1L << variantName[v];
+                if ((found & bit) == 0 && isWholeName(text, i + 1 - variantLength[v], i + 1)) {
+                    found |= bit;
+                    if (firstOnly) {
+                        return found;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * True if text[start, end) stands on its own, or as &lt;name&gt; with nothing attached outside the brackets
+     */
+    private static boolean isWholeName(String text, int start, int end) {
+        if (start > 0 && text.charAt(start - 1) == '<' && end < text.length() && text.charAt(end) == '>') {
+            return !(start > 1 && isWordChar(text.charAt(start - 2)))
+                    && !(end + 1 < text.length() && isWordChar(text.charAt(end + 1)));
+        }
+        return !(start > 0 && isNameChar(text.charAt(start - 1)))
+                && !(end < text.length() && isNameChar(text.charAt(end)));
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isNameChar(char c) {
+        return isWordChar(c) || c == '<' || c == '>';
+    }
+
+    private int column(char c) {
+        if (c < asciiColumns.length) {
+            return asciiColumns[c];
+        }
+        Integer col = otherColumns.get(c);
+        return (col == null) ? 0 : col;
+    }
+
+    private static int[] newRow(int columns) {
+        int[] row = new int[columns];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    /**
+     * The name and its dash and underscore variants
+     */
+    private static Set<String> variants(String name) {
+        Set<String> variants = new LinkedHashSet<>();
+        if (name != null && !name.isEmpty()) {
+            variants.add(name);
+            variants.add(name.replace('_', '-'));
+            variants.add(name.replace('-', '_'));
+        }
+        return variants;
+    }
+}
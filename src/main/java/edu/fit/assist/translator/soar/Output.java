@@ -1,18 +1,28 @@
 package edu.fit.assist.translator.soar;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class Output {
+    private static final Logger logger = LoggerFactory.getLogger(Output.class);
+    private static final String STAGE = "merge";
+    private static final StageCounters.Counter PAIRS = StageCounters.counter(STAGE, "propose/apply pairs");
+    private static final StageCounters.Counter NO_PROBABILITY = StageCounters.counter(STAGE, "no probability");
+    private static final StageCounters.Counter MULTI_VARIABLE = StageCounters.counter(STAGE, "apply rules setting several or no variables");
+    private static final StageCounters.Counter MERGED = StageCounters.counter(STAGE, "merged");
+
     SoarRules rules;
     public Output(SoarRules rules){
         this.rules = rules;
     }
     public String generateOutput(){
         String output = "\ndtmc\n\n";
-        rules.parseVariableValuePass();
+        rules.resolveValueDomains();
         output += generateVariableDeclarations();
         output += generateModules();
         return output;
@@ -21,156 +31,339 @@ public class Output {
 
     private String generateMergedTransitions() {
         StringBuilder output = new StringBuilder();
+        // The merge log is only built when it is going to be written
+        boolean debug = logger.isDebugEnabled();
 
         // Cache variables initialized in apply*initialize
         LinkedHashMap<String, String> initAssignments = new LinkedHashMap<>();
-        Set<String> matched = null;
         Set<String> matchedProposeVals = new LinkedHashSet<>();
-        Set<String> matchedApplyGuards = new LinkedHashSet<>();
-        for (Rule rule : rules.rules) {
-            if (rule.ruleName.equals("apply*initialize")) {
-                initAssignments.putAll(rule.valueMap);
+        Set<Guard> matchedApplyGuards = new LinkedHashSet<>();
+        for (Rule rule : rules.getInitializeRules()) {
+            initAssignments.putAll(rule.valueMap);
+        }
+        String initProbVar = null;
+        for (String key : initAssignments.keySet()) {
+            if (key.contains("prob") && !key.contains("log")) {
+                initProbVar = "state_" + key.replace("state_", "").replace("-", "_");
+                break;
             }
         }
 
-        for (Rule proposeRule : rules.rules) {
-            if (!proposeRule.ruleName.startsWith("propose*")) continue;
-            String baseName = proposeRule.ruleName.substring("propose*".length());
-            List<Rule> matchingApplyRules = rules.rules.stream()
-                    .filter(r -> r.ruleName.equals("apply*" + baseName))
-                    .toList();
-
+        // The values proposed under each base name, and for every apply rule the guards each of them is mentioned in
+        List<Rule> proposeRules = rules.getProposeRules();
+        Map<String, Set<String>> proposeValuesByBase = new LinkedHashMap<>();
+        for (Rule proposeRule : proposeRules) {
+            proposeValuesByBase.computeIfAbsent(baseName(proposeRule), b -> new HashSet<>())
+                    .addAll(proposeRule.valueMap.values());
+        }
+        List<Rule> applyRules = new ArrayList<>();
+        for (String baseName : proposeValuesByBase.keySet()) {
+            applyRules.addAll(rules.getRulesByName(SoarRules.APPLY_PREFIX + baseName));
+        }
+        Map<Rule, ApplySide> applySides = new IdentityHashMap<>();
+        for (ApplySide side : TranslatorUtils.mapInOrder(applyRules,
+                rule -> new ApplySide(rule, proposeValuesByBase.get(rule.ruleName.substring(SoarRules.APPLY_PREFIX.length())), debug))) {
+            applySides.put(side.rule, side);
+        }
 
-            if (proposeRule.guards.stream().anyMatch(guard -> guard.contains("state_superstate"))) {
+        // A pair matches when the apply rule mentions a value the propose rule sets. The matched values
+        // used to be kept in one set for the whole model, so once any pair in the model has matched,
+        // every later pair emits, as before, whether or not it matched itself; pairs before the first
+        // match add nothing to the model
+        int firstPropose = proposeRules.size();
+        int firstApply = 0;
+        for (int p = 0; p < proposeRules.size() && firstPropose == proposeRules.size(); p++) {
+            Rule proposeRule = proposeRules.get(p);
+            if (isSuperstateRule(proposeRule)) {
                 continue;
             }
-            for (Rule applyRule : matchingApplyRules) {
-                System.out.println("Looking to merge: propose*" + baseName + " + apply*" + baseName);
-                System.out.println("    Propose Guards: " + proposeRule.guards);
-                System.out.println("    Propose ValueMap: " + proposeRule.valueMap);
-                System.out.println("    Apply Guards: " + applyRule.guards);
-                System.out.println("    Apply ValueMap: " + applyRule.valueMap);
-
-
-                for (String proposeVal : proposeRule.valueMap.values()) {
-                    for (String applyGuard : applyRule.guards) {
-                        if (applyGuard.contains(proposeVal)) {
-                            matchedProposeVals.add(proposeVal);
-                            matchedApplyGuards.add(applyGuard);
-                        }
-                    }
+            List<Rule> matchingApplyRules = rules.getRulesByName(SoarRules.APPLY_PREFIX + baseName(proposeRule));
+            for (int a = 0; a < matchingApplyRules.size(); a++) {
+                if (applySides.get(matchingApplyRules.get(a)).mentionsAny(proposeRule.valueMap.values())) {
+                    firstPropose = p;
+                    firstApply = a;
+                    break;
                 }
+            }
+        }
 
-                System.out.println("Matched propose values (" + matchedProposeVals.size() + "): "
-                        + matchedProposeVals);
-                System.out.println("Matched apply guards  (" + matchedApplyGuards.size() + "): "
-                        + matchedApplyGuards);
-
-                System.out.print("Apply ValueMap for this rule:");
-                for (Map.Entry<String, String> e : applyRule.valueMap.entrySet()) {
-                    System.out.println("  " + e.getKey() + " = " + e.getValue());
+        // Merge the pairs of each propose rule on the fork-join pool, then log and emit them in rule order.
+        // Merging leaves the rules as they are; the guards it formats replace those of the propose rule here
+        final int matchPropose = firstPropose;
+        final int matchApply = firstApply;
+        final String fallbackProbVar = initProbVar;
+        List<Integer> proposeIndexes = new ArrayList<>(proposeRules.size());
+        for (int p = 0; p < proposeRules.size(); p++) {
+            proposeIndexes.add(p);
+        }
+        // Each propose rule gets the index of its first apply rule from which the model has a match
+        List<List<MergedPair>> merged = TranslatorUtils.mapInOrder(proposeIndexes, p -> mergePairs(
+                proposeRules.get(p), applySides, fallbackProbVar,
+                p < matchPropose ? Integer.MAX_VALUE : p == matchPropose ? matchApply : 0, debug));
+        for (int p = 0; p < merged.size(); p++) {
+            for (MergedPair pair : merged.get(p)) {
+                if (debug) {
+                    logPair(pair, matchedProposeVals, matchedApplyGuards);
                 }
-
-
-                String probVar = null;
-                // Check alias pattern (^operator = <alias>)
-                String aliasValue = null;
-                for (String guard : proposeRule.guards) {
-                    if (guard.contains("^operator") && guard.contains("=")) {
-                        String[] parts = guard.split("\\s+");
-                        System.out.println(Arrays.toString(parts));
-                        if (parts.length == 3 && parts[1].contains("operator") && parts[2].startsWith("<")) {
-                            aliasValue = parts[2];
-                            break;
-                        }
-                    }
+                if (pair.transition != null) {
+                    output.append(pair.transition);
+                    proposeRules.get(p).setGuards(pair.guards);
                 }
+            }
+        }
+        return output.toString();
+    }
 
-                if (aliasValue != null) {
-                    for (String guard : proposeRule.guards) {
-                        if (guard.contains(aliasValue)) {
-                            String[] parts = guard.trim().split("\\s+");
-                            if (parts.length == 3) {
-                                String lhs = parts[0].replace("-", "_");
-                                if (lhs.startsWith("state_")) {
-                                    probVar = lhs;
-                                } else {
-                                    probVar = "state_" + lhs;
-                                }
-                                break;
-                            }
-                        }
-                    }
-                }
+    /**
+     * Log the merge of one pair, with the values and guards matched so far in the whole model
+     */
+    private static void logPair(MergedPair pair, Set<String> matchedProposeVals, Set<Guard> matchedApplyGuards) {
+        for (int i = 0; i < pair.matchedValues.size(); i++) {
+            matchedProposeVals.add(pair.matchedValues.get(i));
+            matchedApplyGuards.add(pair.matchedGuards.get(i));
+        }
+        StringBuilder log = new StringBuilder(pair.header);
+        line(log, "Matched propose values (" + matchedProposeVals.size() + "): " + matchedProposeVals);
+        line(log, "Matched apply guards  (" + matchedApplyGuards.size() + "): " + matchedApplyGuards);
+        log.append(pair.body);
+        if (pair.tail != null) {
+            line(log, "Matched propose values (" + matchedProposeVals.size() + "): " + matchedProposeVals);
+            log.append(pair.tail);
+        }
+        logger.debug("{}", log.toString().stripTrailing());
+    }
 
-                // If not found, check apply valueMap directly
-                if (probVar == null) {
-                    String bestMatch = null;
-                    for (String var : applyRule.valueMap.keySet()) {
-                        String clean = var.toLowerCase();
-                        if (clean.contains("prob") && !clean.contains("log")) {
-                            bestMatch = var;
-                            break;
-                        } else if (clean.contains("log") && bestMatch == null) {
-                            bestMatch = var;
-                        }
-                    }
-                    if (bestMatch != null) {
-                        probVar = "state_" + bestMatch.replace("state_", "").replace("-", "_");
+    /**
+     * Merge the propose rule with each apply rule of its base name, in order, without changing either.
+     * Each pair sees the guards as formatted by the pair before, and keeps those it formats for the
+     * caller to set on the propose rule. Pairs with apply rules before index emitFrom come before the
+     * first match of the model, and stop after the probability lookup. The log of each pair is only
+     * kept if debug is set.
+     */
+    private List<MergedPair> mergePairs(Rule proposeRule, Map<Rule, ApplySide> applySides, String initProbVar,
+                                        int emitFrom, boolean debug) {
+        if (isSuperstateRule(proposeRule)) {
+            return Collections.emptyList();
+        }
+        String baseName = baseName(proposeRule);
+        List<Rule> matchingApplyRules = rules.getRulesByName(SoarRules.APPLY_PREFIX + baseName);
+        List<MergedPair> pairs = new ArrayList<>(matchingApplyRules.size());
+        List<Guard> proposeGuards = proposeRule.guards;
+        String proposeGuardsText = debug ? String.valueOf(proposeGuards) : null;
+        String proposeValueMapText = debug ? String.valueOf(proposeRule.valueMap) : null;
+        // Stays null when debug is off, and so does every log built in it
+        StringBuilder log = debug ? new StringBuilder() : null;
+        for (int a = 0; a < matchingApplyRules.size(); a++) {
+            Rule applyRule = matchingApplyRules.get(a);
+            ApplySide apply = applySides.get(applyRule);
+            MergedPair pair = new MergedPair();
+            pairs.add(pair);
+            PAIRS.increment();
+
+            if (debug) {
+                log.setLength(0);
+                line(log, "Looking to merge: propose*" + baseName + " + apply*" + baseName);
+                line(log, "    Propose Guards: " + proposeGuardsText);
+                line(log, "    Propose ValueMap: " + proposeValueMapText);
+                line(log, "    Apply Guards: " + apply.guardsText);
+                line(log, "    Apply ValueMap: " + apply.valueMapText);
+                pair.header = log.toString();
+
+                for (String proposeVal : proposeRule.valueMap.values()) {
+                    for (Guard applyGuard : apply.guardsMentioning(proposeVal)) {
+                        pair.matchedValues.add(proposeVal);
+                        pair.matchedGuards.add(applyGuard);
                     }
                 }
 
-                // Fallback to values in initialize
-                if (probVar == null) {
-                    for (String key : initAssignments.keySet()) {
-                        if (key.contains("prob") && !key.contains("log")) {
-                            probVar = "state_" + key.replace("state_", "").replace("-", "_");
-                            break;
-                        }
+                log.setLength(0);
+                log.append("Apply ValueMap for this rule:").append(apply.valueMapLog);
+            }
+            String probVar = null;
+            // Check alias pattern (^operator = <alias>)
+            String aliasValue = null;
+            for (Guard guard : proposeGuards) {
+                if (guard.variable.contains("^operator") && guard.relation == Guard.Relation.EQUAL) {
+                    if (debug) line(log, String.valueOf(guard));
+                    if (guard.value().startsWith("<")) {
+                        aliasValue = guard.value();
+                        break;
                     }
                 }
+            }
 
-                if (probVar == null) {
-                    System.out.println("No probability found in guards or aliases for propose*" + baseName);
-                    continue;
-                }
-                for (String proposeVal : proposeRule.valueMap.values()) {
-                    for (String applyGuard : applyRule.guards) {
-                        if (applyGuard.contains(proposeVal)) {
-                            matchedProposeVals.add(proposeVal);
+            if (aliasValue != null) {
+                for (Guard guard : proposeGuards) {
+                    if (guard.mentions(aliasValue)) {
+                        if (guard.relation != Guard.Relation.IN) {
+                            String lhs = guard.variable.replace("-", "_");
+                            if (lhs.startsWith("state_")) {
+                                probVar = lhs;
+                            } else {
+                                probVar = "state_" + lhs;
+                            }
                             break;
                         }
                     }
                 }
+            }
 
-                if (matchedProposeVals.isEmpty()) continue;
-
-                System.out.println("Matched propose values (" + matchedProposeVals.size() + "): " + matchedProposeVals);
+            // If not found, check apply valueMap directly, then fall back to values in initialize
+            if (probVar == null) {
+                probVar = apply.probVar;
+            }
+            if (probVar == null) {
+                probVar = initProbVar;
+            }
 
-                // 🔍 Dynamically determine target variable from applyRule.valueMap
-                if (applyRule.valueMap.size() != 1) {
-                    System.out.println("Skipping apply*" + baseName + " because it modifies multiple or no variables.");
-                    continue;
+            if (probVar == null) {
+                NO_PROBABILITY.increment();
+                if (debug) line(log, "No probability found in guards or aliases for propose*" + baseName);
+            }
+            if (debug) pair.body = log.toString();
+            boolean modelHasMatch = a >= emitFrom;
+            if (probVar == null || !modelHasMatch) continue;
+
+            // 🔍 Dynamically determine target variable from applyRule.valueMap
+            if (debug) log.setLength(0);
+            if (apply.targetVar == null) {
+                MULTI_VARIABLE.increment();
+                if (debug) {
+                    line(log, "Skipping apply*" + baseName + " because it modifies multiple or no variables.");
+                    pair.tail = log.toString();
                 }
+                continue;
+            }
 
-                Map.Entry<String, String> entry = applyRule.valueMap.entrySet().iterator().next();
-                String targetVar = entry.getKey();
-                String targetVal = entry.getValue();
-                String fallbackVal = targetVal;
+            String targetVar = apply.targetVar;
+            String targetVal = apply.targetVal;
+            String fallbackVal = targetVal;
 
-                // Build guard and transition
-                String guard = proposeRule.formatGuard();
+            // Build guard and transition
+            proposeGuards = proposeRule.formattedGuards(proposeGuards);
+            String guard = proposeRule.formatGuard(proposeGuards);
+            pair.guards = proposeGuards;
+            if (debug) proposeGuardsText = String.valueOf(proposeGuards);
 
-                output.append("    [] ").append(guard).append(" -> ")
-                        .append(probVar).append(": (").append(targetVar).append("'=").append(targetVal).append(") \n" );
+            pair.transition = "    [] " + guard + " -> " + probVar + ": (" + targetVar + "'=" + targetVal + ") \n";
 //                + "+ ")
 //                        .append("state_stay_low_prob: (").append(targetVar).append("'=").append(fallbackVal).append(");\n");
 
-                System.out.println(" Merged: [] " + guard + " -> " +
+            MERGED.increment();
+            if (debug) {
+                line(log, " Merged: [] " + guard + " -> " +
                         probVar + ": (" + targetVar + "'=" + targetVal + ") + state_stay_low_prob: (" + targetVar + "'=" + fallbackVal + ");");
+                pair.tail = log.toString();
             }
         }
-        return output.toString();
+        return pairs;
+    }
+
+    private static String baseName(Rule proposeRule) {
+        return proposeRule.ruleName.substring(SoarRules.PROPOSE_PREFIX.length());
+    }
+
+    private static boolean isSuperstateRule(Rule proposeRule) {
+        return proposeRule.guards.stream().anyMatch(guard -> guard.mentions("state_superstate"));
+    }
+
+    private static void line(StringBuilder log, String text) {
+        log.append(text).append(System.lineSeparator());
+    }
+
+    /**
+     * What merging needs from an apply rule, worked out once however many propose rules it pairs with
+     */
+    private static final class ApplySide {
+        final Rule rule;
+        final String guardsText;
+        final String valueMapText;
+        final String valueMapLog;
+        // Probability variable named in the valueMap, or null
+        final String probVar;
+        // The only variable the rule sets, null if it sets several or none
+        final String targetVar;
+        final String targetVal;
+        // Inverted index from each value proposed under the base name to the guards that mention it
+        private final Map<String, List<Guard>> guardsByValue = new HashMap<>();
+
+        ApplySide(Rule rule, Set<String> proposedValues, boolean debug) {
+            this.rule = rule;
+            if (debug) {
+                guardsText = String.valueOf(rule.guards);
+                valueMapText = String.valueOf(rule.valueMap);
+                StringBuilder log = new StringBuilder();
+                for (Map.Entry<String, String> e : rule.valueMap.entrySet()) {
+                    line(log, "  " + e.getKey() + " = " + e.getValue());
+                }
+                valueMapLog = log.toString();
+            } else {
+                guardsText = null;
+                valueMapText = null;
+                valueMapLog = null;
+            }
+
+            String bestMatch = null;
+            for (String var : rule.valueMap.keySet()) {
+                String clean = var.toLowerCase();
+                if (clean.contains("prob") && !clean.contains("log")) {
+                    bestMatch = var;
+                    break;
+                } else if (clean.contains("log") && bestMatch == null) {
+                    bestMatch = var;
+                }
+            }
+            probVar = (bestMatch != null) ? "state_" + bestMatch.replace("state_", "").replace("-", "_") : null;
+
+            if (rule.valueMap.size() == 1) {
+                Map.Entry<String, String> entry = rule.valueMap.entrySet().iterator().next();
+                targetVar = entry.getKey();
+                targetVal = entry.getValue();
+            } else {
+                targetVar = null;
+                targetVal = null;
+            }
+
+            for (String value : proposedValues) {
+                List<Guard> mentioning = new ArrayList<>(1);
+                for (Guard guard : rule.guards) {
+                    if (guard.mentions(value)) {
+                        mentioning.add(guard);
+                    }
+                }
+                if (!mentioning.isEmpty()) {
+                    guardsByValue.put(value, mentioning);
+                }
+            }
+        }
+
+        List<Guard> guardsMentioning(String value) {
+            return guardsByValue.getOrDefault(value, Collections.emptyList());
+        }
+
+        boolean mentionsAny(Collection<String> values) {
+            for (String value : values) {
+                if (guardsByValue.containsKey(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * One propose/apply pair: at debug level its log, split where the shared matched sets are printed,
+     * and its transition with the propose guards it was formatted from
+     */
+    private static final class MergedPair {
+        String header;
+        final List<String> matchedValues = new ArrayList<>(1);
+        final List<Guard> matchedGuards = new ArrayList<>(1);
+        String body;
+        // Rest of the log once the model has a matched value, null if the pair stopped before
+        String tail;
+        String transition;
+        List<Guard> guards;
     }
 
 
@@ -219,45 +412,7 @@ public class Output {
         StringBuilder output = new StringBuilder();
 
 
-        // Generate types for all variables
-        for(Variable var : rules.variables.values()){
-            var.generateType();
-            rules.mapNameToType.put(var.name, var.varType);
-        }
-
-
-        for(String startNode : rules.mapNameToType.keySet()){
-            if(rules.mapNameToType.get(startNode) == Variable.INVALID){
-                continue;
-            }
-            int startNodeType = rules.mapNameToType.get(startNode);
-            ArrayList<String> queue = new ArrayList<String>();
-            queue.add(startNode);
-            while(!queue.isEmpty()){
-                String currentNode = queue.remove(0);
-                if(!rules.typeGraph.containsKey(currentNode)){
-                    continue;
-                }
-                for(String child : rules.typeGraph.get(currentNode)){
-                    if(!rules.mapNameToType.containsKey(child)){
-                        continue;
-                    }
-                    if(rules.mapNameToType.get(child) == Variable.INVALID){
-                        rules.mapNameToType.put(child,startNodeType);
-                        queue.add(child);
-                    }
-                }
-            }
-        }
-
-        for(String varName : rules.variables.keySet()){
-            Variable var = rules.variables.get(varName);
-            var.varType = rules.mapNameToType.get(var.name);
-            if(var.varType == Variable.INVALID){
-                var.varType = Variable.S_CONST;
-            }
-            rules.variables.put(varName,var);
-        }
+        rules.resolveTypes();
 
         for(Variable var : rules.variables.values()){
             //var.generateType();
@@ -268,7 +423,7 @@ public class Output {
 
 
             if(var.varType == Variable.S_CONST){
-                System.err.println(var.values);
+                logger.debug("String constant {} takes {}", var.name, var.values);
             }else if(var.varType == Variable.INT){
                 output.append("const integer ");
                 List<Integer> filtered = var.values.stream()
@@ -288,15 +443,15 @@ public class Output {
                 } else if (filtered.size() == 1) {
                     output.append(sanitizeName(var.name)).append(" = ").append(filtered.get(0)).append(";\n");
                 } else {
-                    System.err.println("// No valid values found for " + (var.name) + "\n");
+                    logger.warn("No valid values found for {}", var.name);
                 }
 
             }else if(var.varType == Variable.FLOAT){
                 output.append("const double ");
-                output.append(sanitizeName(var.name)).append(" = ").append(var.values.get(0)).append("\n");
+                output.append(sanitizeName(var.name)).append(" = ").append(var.values.iterator().next()).append("\n");
             }else{
                 output.append("TYPE ERROR");
-                System.err.println("TYPE ERROR with variable "+var.name);
+                logger.error("TYPE ERROR with variable {}", var.name);
             }
 
         }
@@ -0,0 +1,112 @@
+package edu.fit.assist.translator.soar;
+import edu.fit.assist.translator.gen.SoarParser;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.misc.Interval;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parses and visits productions in parallel and merges the results into {@link SoarRules} in
+ * source order, giving the same rules, variables and typeGraph as {@link RuleParser#parseRules}.
+ *
+ * The production text is split at the top level sp/gp boundaries into chunks of whole productions.
+ * Each chunk is parsed with its own lexer and parser on the fork-join pool, and each production is
+ * visited into its own {@link SoarRulesFragment}, which records the changes the visitor makes to
+ * the shared variables and typeGraph. Replaying those changes in source order reproduces the
+ * sequential result exactly, including checks that depend on variables of earlier productions.
+ * A production whose name was already used is visited again against the merged rules, since the
+ * visitor then adds its conditions to the earlier rule.
+ */
+public class ParallelRuleParser {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelRuleParser.class);
+
+    // Chunks per worker thread, so a few slow chunks don't leave the other threads idle
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    public static SoarRules parseRules(CharStream input) {
+        return parseRules(input, ForkJoinPool.commonPool());
+    }
+
+    public static SoarRules parseRules(CharStream input, ForkJoinPool pool) {
+        String text = input.size() > 0 ? input.getText(Interval.of(0, input.size() - 1)) : "";
+        List<Integer> starts = productionStarts(text);
+        if (starts == null) {
+            logger.warn("Could not split {} into productions, parsing sequentially", input.getSourceName());
+            return RuleParser.parseRules(CharStreams.fromString(text, input.getSourceName()));
+        }
+
+        int chunkCount = Math.max(1, Math.min(starts.size(), pool.getParallelism() * CHUNKS_PER_THREAD));
+        RuleParser.ParseStats stats = new RuleParser.ParseStats();
+        List<ForkJoinTask<List<SoarRulesFragment>>> tasks = new ArrayList<>();
+        for (int c = 0; c < chunkCount; c++) {
+            int from = (c == 0) ? 0 : starts.get(c * starts.size() / chunkCount);
+            int to = (c + 1 == chunkCount) ? text.length() : starts.get((c + 1) * starts.size() / chunkCount);
+            String chunk = text.substring(from, to);
+            tasks.add(pool.submit(() -> visitChunk(chunk, input.getSourceName(), stats)));
+        }
+
+        SoarRules rules = new SoarRules();
+        Visitor<?> visitor = new Visitor<>();
+        visitor.rules = rules;
+        Set<String> names = new HashSet<>();
+        for (ForkJoinTask<List<SoarRulesFragment>> task : tasks) {
+            for (SoarRulesFragment fragment : task.join()) {
+                fragment.mergeInto(rules, names, visitor);
+            }
+        }
+        stats.report();
+        return rules;
+    }
+
+    private static List<SoarRulesFragment> visitChunk(String chunk, String sourceName, RuleParser.ParseStats stats) {
+        SoarParser.SoarContext tree = RuleParser.parse(CharStreams.fromString(chunk, sourceName), stats);
+        List<SoarRulesFragment> fragments = new ArrayList<>();
+        Visitor<?> visitor = new Visitor<>();
+        for (SoarParser.Soar_productionContext production : tree.soar_production()) {
+            fragments.add(SoarRulesFragment.visit(visitor, production));
+        }
+        return fragments;
+    }
+
+    /**
+     * Offsets of the sp/gp commands that start each production, or null if the braces don't balance.
+     * Braces inside |...| strings, "..." documentation and # comments are ignored like the lexer does.
+     */
+    static List<Integer> productionStarts(String text) {
+        List<Integer> starts = new ArrayList<>();
+        int depth = 0;
+        int n = text.length();
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            if (c == '|' || c == '"') {
+                i = text.indexOf(c, i + 1);
+                if (i < 0) {
+                    return null;
+                }
+            } else if (c == '#') {
+                while (i + 1 < n && text.charAt(i + 1) != '\n') {
+                    i++;
+                }
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}') {
+                if (--depth < 0) {
+                    return null;
+                }
+            } else if (depth == 0 && (c == 's' || c == 'g') && text.startsWith("p", i + 1)
+                    && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))
+                    && (i + 2 == n || !Character.isLetterOrDigit(text.charAt(i + 2)))) {
+                starts.add(i);
+            }
+        }
+        return (depth == 0) ? starts : null;
+    }
+}
@@ -0,0 +1,52 @@
+package edu.fit.assist.translator.soar;
+import edu.fit.assist.translator.gen.SoarLexer;
+import edu.fit.assist.translator.gen.SoarParser;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.DecisionInfo;
+import org.antlr.v4.runtime.atn.DecisionState;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Parses with ANTLR's ProfilingATNSimulator and prints the cost of every parser decision, to find
+ * the rules of Soar.g4 whose prediction is expensive.
+ *
+ * The parse uses LL prediction, which first tries SLL and falls back to full LL on a conflict,
+ * so the table shows both the SLL work and how often each decision needed the fallback.
+ */
+public class ParserProfiler {
+
+    public static void profile(CharStream input, PrintStream out) {
+        SoarLexer lexer = new SoarLexer(input);
+        CommonTokenStream tokens = new CommonTokenStream(lexer);
+        SoarParser parser = new SoarParser(tokens);
+        parser.setProfile(true);
+        long start = System.nanoTime();
+        SoarParser.SoarContext tree = parser.soar();
+        long nanos = System.nanoTime() - start;
+
+        List<DecisionInfo> decisions = new ArrayList<>();
+        for (DecisionInfo decision : parser.getParseInfo().getDecisionInfo()) {
+            if (decision.invocations > 0) {
+                decisions.add(decision);
+            }
+        }
+        decisions.sort(Comparator.comparingLong((DecisionInfo d) -> d.timeInPrediction).reversed());
+
+        out.println("INFO: Parser profile of " + tree.soar_production().size() + " productions, "
+                + tokens.size() + " tokens, parsed in " + nanos / 1_000_000 + " ms");
+        out.println(String.format("%-8s %-22s %11s %9s %10s %8s %10s %10s %8s %10s %6s",
+                "decision", "rule", "invocations", "time(ms)", "SLL-look", "SLL-max", "LL-fallbk", "LL-look", "LL-max", "ambiguous", "errors"));
+        for (DecisionInfo d : decisions) {
+            DecisionState state = parser.getATN().getDecisionState(d.decision);
+            String rule = parser.getRuleNames()[state.ruleIndex];
+            out.println(String.format("%-8d %-22s %11d %9.3f %10d %8d %10d %10d %8d %10d %6d",
+                    d.decision, rule, d.invocations, d.timeInPrediction / 1e6, d.SLL_TotalLook, d.SLL_MaxLook,
+                    d.LL_Fallback, d.LL_TotalLook, d.LL_MaxLook, d.ambiguities.size(), d.errors.size()));
+        }
+    }
+}
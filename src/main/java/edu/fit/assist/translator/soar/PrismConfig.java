@@ -33,6 +33,8 @@ public class PrismConfig {
     private Map<String, Distribution> responseDecide = new LinkedHashMap<>();
     private Map<String, ErrorDistribution> decisionErrorDistributions = new LinkedHashMap<>();
     private List<ModuleConfig> modules = new ArrayList<>();
+    // soarRulePatterns of all modules, compiled when the config is loaded
+    private RulePatternMatcher ruleMatcher;
     
     public static class Distribution {
         public String type;
@@ -236,6 +238,7 @@ public class PrismConfig {
                     config.modules.add(module);
                 }
             }
+            config.ruleMatcher = new RulePatternMatcher(config.modules);
             
             return config;
         }
@@ -261,13 +264,28 @@ public class PrismConfig {
     public Map<String, ErrorDistribution> getDecisionErrorDistributions() { return decisionErrorDistributions; }
     public List<ModuleConfig> getModules() { return modules; }
     
+    /**
+     * The first module with a soarRulePattern matching the whole rule name, or null
+     */
     public ModuleConfig getModuleForRule(String ruleName) {
-        for (ModuleConfig module : modules) {
-            if (module.matchesRule(ruleName)) {
-                return module;
+        if (ruleMatcher == null) {
+            ruleMatcher = new RulePatternMatcher(modules);
+        }
+        return ruleMatcher.moduleFor(ruleName);
+    }
+    
+    /**
+     * The module of each rule that has one, in the order of ruleNames
+     */
+    public Map<String, ModuleConfig> getModulesForRules(Collection<String> ruleNames) {
+        Map<String, ModuleConfig> assignment = new LinkedHashMap<>();
+        for (String ruleName : ruleNames) {
+            ModuleConfig module = getModuleForRule(ruleName);
+            if (module != null) {
+                assignment.put(ruleName, module);
             }
         }
-        return null;
+        return assignment;
     }
     
     /**
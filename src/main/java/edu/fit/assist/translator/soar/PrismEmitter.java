@@ -0,0 +1,136 @@
+package edu.fit.assist.translator.soar;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Where the translators write the PRISM model, piece by piece instead of building it in one String.
+ * Numbers are written digit by digit without format strings, and always with a '.' decimal point
+ * whatever the default locale, since that is the only one PRISM reads.
+ */
+public interface PrismEmitter {
+    PrismEmitter text(char c);
+
+    PrismEmitter text(CharSequence text);
+
+    /**
+     * A PrismEmitter that appends to out
+     */
+    static PrismEmitter of(StringBuilder out) {
+        return new PrismEmitter() {
+            @Override
+            public PrismEmitter text(char c) {
+                out.append(c);
+                return this;
+            }
+
+            @Override
+            public PrismEmitter text(CharSequence text) {
+                out.append(text);
+                return this;
+            }
+        };
+    }
+
+    /**
+     * value like %d
+     */
+    default PrismEmitter number(long value) {
+        if (value == Long.MIN_VALUE) {
+            return text(Long.toString(value));
+        }
+        if (value < 0) {
+            text('-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            text((char) ('0' + (value / divisor) % 10));
+        }
+        return this;
+    }
+
+    /**
+     * value right-aligned in width characters, like %4d
+     */
+    default PrismEmitter padLeft(long value, int width) {
+        int length = (value < 0) ? 2 : 1;
+        for (long rest = Math.abs(value / 10); rest > 0; rest /= 10) {
+            length++;
+        }
+        for (int i = length; i < width; i++) {
+            text(' ');
+        }
+        return number(value);
+    }
+
+    /**
+     * text left-aligned in width characters, like %-16s
+     */
+    default PrismEmitter padRight(CharSequence text, int width) {
+        text(text);
+        for (int i = text.length(); i < width; i++) {
+            text(' ');
+        }
+        return this;
+    }
+
+    /**
+     * value with the given number of decimals, like %.16f: the shortest decimal that reads back as value,
+     * rounded half up
+     */
+    default PrismEmitter fixed(double value, int decimals) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return text(Double.toString(value));
+        }
+        if (Double.compare(value, 0.0) < 0) {
+            text('-');
+            value = -value;
+        }
+        String shortest = Double.toString(value);
+        int exponentAt = shortest.indexOf('E');
+        int mantissaEnd = (exponentAt < 0) ? shortest.length() : exponentAt;
+        int point = shortest.indexOf('.');
+        int exponent = (exponentAt < 0) ? 0 : Integer.parseInt(shortest, exponentAt + 1, shortest.length(), 10);
+        // The mantissa digits without the point, the first one worth 10^(integerDigits - 1)
+        int digitCount = mantissaEnd - 1;
+        int integerDigits = point + exponent;
+        int kept = integerDigits + decimals;
+        // Beyond 18 digits the scaled value could overflow a long
+        if (kept > 18 || decimals > 18) {
+            BigDecimal exact = new BigDecimal(shortest).setScale(decimals, RoundingMode.HALF_UP);
+            return text(exact.toPlainString());
+        }
+
+        long scaled = 0;
+        for (int i = 0; i < kept; i++) {
+            scaled = scaled * 10 + ((i < digitCount) ? digit(shortest, point, i) : 0);
+        }
+        if (kept >= 0 && kept < digitCount && digit(shortest, point, kept) >= 5) {
+            scaled++;
+        }
+        long unit = 1;
+        for (int i = 0; i < decimals; i++) {
+            unit *= 10;
+        }
+        number(scaled / unit);
+        if (decimals > 0) {
+            text('.');
+            long fraction = scaled % unit;
+            for (unit /= 10; unit > 0; unit /= 10) {
+                text((char) ('0' + (fraction / unit) % 10));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * The i-th mantissa digit of a Double.toString result whose decimal point is at point
+     */
+    private static int digit(String shortest, int point, int i) {
+        return shortest.charAt((i < point) ? i : i + 1) - '0';
+    }
+}
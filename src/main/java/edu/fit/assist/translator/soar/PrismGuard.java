@@ -0,0 +1,446 @@
+package edu.fit.assist.translator.soar;
+
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A PRISM guard over variables with finite integer domains, kept as a union of cubes: each cube allows a
+ * set of values for some of the variables and any value for the rest. Conjunction, disjunction and
+ * complement are exact, so the default command of a module can be guarded by the negation of the other
+ * guards and still be written as a short expression over the values it allows.
+ *
+ * Terms such as mod(time_counter, 300) are variables of their own, as if they were independent of
+ * time_counter. A guard that is simplified under that assumption holds for every real state as well;
+ * a check may report an overlap or a gap that no real state reaches.
+ */
+final class PrismGuard {
+    static final PrismGuard TRUE = new PrismGuard(Collections.singletonList(new TreeMap<>()));
+    static final PrismGuard FALSE = new PrismGuard(Collections.emptyList());
+
+    // Each cube maps the variables it restricts to their allowed values, offset by the variable's low bound
+    private final List<TreeMap<Variable, BitSet>> cubes;
+
+    private PrismGuard(List<TreeMap<Variable, BitSet>> cubes) {
+        this.cubes = cubes;
+    }
+
+    /**
+     * A term guards compare with constants, Example: a module variable with its declared range
+     */
+    static final class Variable implements Comparable<Variable> {
+        // Variables are written in the order they were made, which follows the order of the old guards
+        private static final AtomicInteger NEXT_ORDER = new AtomicInteger();
+
+        final String name;
+        final int low;
+        final int high;
+        // The constant high is written as, Example: TOTAL_TIME, or null to write the number
+        final String highName;
+        private final int order = NEXT_ORDER.getAndIncrement();
+
+        Variable(String name, int low, int high) {
+            this(name, low, high, null);
+        }
+
+        Variable(String name, int low, int high, String highName) {
+            this.name = name;
+            this.low = low;
+            this.high = Math.max(low, high);
+            this.highName = highName;
+        }
+
+        PrismGuard eq(int value) {
+            return in(value, value);
+        }
+
+        /**
+         * The guard that the variable lies in [from..to], clipped to its domain
+         */
+        PrismGuard in(int from, int to) {
+            BitSet values = new BitSet();
+            int first = Math.max(from, low);
+            int last = Math.min(to, high);
+            if (first <= last) {
+                values.set(first - low, last - low + 1);
+            }
+            return restrict(values);
+        }
+
+        PrismGuard in(Iterable<Integer> values) {
+            BitSet set = new BitSet();
+            for (int value : values) {
+                if (value >= low && value <= high) {
+                    set.set(value - low);
+                }
+            }
+            return restrict(set);
+        }
+
+        private PrismGuard restrict(BitSet values) {
+            if (values.isEmpty()) {
+                return FALSE;
+            }
+            TreeMap<Variable, BitSet> cube = new TreeMap<>();
+            if (values.cardinality() < size()) {
+                cube.put(this, values);
+            }
+            return new PrismGuard(Collections.singletonList(cube));
+        }
+
+        int size() {
+            return high - low + 1;
+        }
+
+        @Override
+        public int compareTo(Variable other) {
+            return Integer.compare(order, other.order);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    PrismGuard and(PrismGuard other) {
+        List<TreeMap<Variable, BitSet>> result = new ArrayList<>();
+        for (TreeMap<Variable, BitSet> a : cubes) {
+            for (TreeMap<Variable, BitSet> b : other.cubes) {
+                TreeMap<Variable, BitSet> cube = intersect(a, b);
+                if (cube != null) {
+                    result.add(cube);
+                }
+            }
+        }
+        return normalize(result);
+    }
+
+    PrismGuard or(PrismGuard other) {
+        List<TreeMap<Variable, BitSet>> result = new ArrayList<>(cubes);
+        result.addAll(other.cubes);
+        return normalize(result);
+    }
+
+    /**
+     * The complement: the conjunction, over the cubes, of the union of one variable outside each cube
+     */
+    PrismGuard not() {
+        PrismGuard result = TRUE;
+        for (TreeMap<Variable, BitSet> cube : cubes) {
+            List<TreeMap<Variable, BitSet>> outside = new ArrayList<>();
+            for (Map.Entry<Variable, BitSet> entry : cube.entrySet()) {
+                BitSet values = (BitSet) entry.getValue().clone();
+                values.flip(0, entry.getKey().size());
+                TreeMap<Variable, BitSet> single = new TreeMap<>();
+                single.put(entry.getKey(), values);
+                outside.add(single);
+            }
+            result = result.and(normalize(outside));
+            if (result.isFalse()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    boolean isFalse() {
+        return cubes.isEmpty();
+    }
+
+    boolean isTrue() {
+        return cubes.size() == 1 && cubes.get(0).isEmpty();
+    }
+
+    private static TreeMap<Variable, BitSet> intersect(TreeMap<Variable, BitSet> a, TreeMap<Variable, BitSet> b) {
+        TreeMap<Variable, BitSet> cube = new TreeMap<>(a);
+        for (Map.Entry<Variable, BitSet> entry : b.entrySet()) {
+            BitSet values = cube.get(entry.getKey());
+            if (values == null) {
+                cube.put(entry.getKey(), entry.getValue());
+            } else {
+                values = (BitSet) values.clone();
+                values.and(entry.getValue());
+                if (values.isEmpty()) {
+                    return null;
+                }
+                cube.put(entry.getKey(), values);
+            }
+        }
+        return cube;
+    }
+
+    /**
+     * Drop cubes inside other cubes and merge cubes that only differ in one variable, until neither applies
+     */
+    private static PrismGuard normalize(List<TreeMap<Variable, BitSet>> input) {
+        List<TreeMap<Variable, BitSet>> cubes = new ArrayList<>(input);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < cubes.size() && !changed; i++) {
+                for (int j = 0; j < cubes.size() && !changed; j++) {
+                    if (i == j) {
+                        continue;
+                    }
+                    TreeMap<Variable, BitSet> a = cubes.get(i);
+                    TreeMap<Variable, BitSet> b = cubes.get(j);
+                    if (contains(b, a)) {
+                        cubes.remove(i);
+                        changed = true;
+                    } else if (i < j) {
+                        TreeMap<Variable, BitSet> merged = merge(a, b);
+                        if (merged != null) {
+                            cubes.set(i, merged);
+                            cubes.remove(j);
+                            changed = true;
+                        }
+                    }
+                }
+            }
+        }
+        return new PrismGuard(cubes);
+    }
+
+    private static boolean contains(TreeMap<Variable, BitSet> outer, TreeMap<Variable, BitSet> inner) {
+        for (Map.Entry<Variable, BitSet> entry : outer.entrySet()) {
+            BitSet values = inner.get(entry.getKey());
+            if (values == null) {
+                return false;
+            }
+            BitSet extra = (BitSet) values.clone();
+            extra.andNot(entry.getValue());
+            if (!extra.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The union of two cubes that restrict the same variables the same way but for one, or null
+     */
+    private static TreeMap<Variable, BitSet> merge(TreeMap<Variable, BitSet> a, TreeMap<Variable, BitSet> b) {
+        if (!a.keySet().equals(b.keySet())) {
+            return null;
+        }
+        Variable different = null;
+        for (Map.Entry<Variable, BitSet> entry : a.entrySet()) {
+            if (!entry.getValue().equals(b.get(entry.getKey()))) {
+                if (different != null) {
+                    return null;
+                }
+                different = entry.getKey();
+            }
+        }
+        TreeMap<Variable, BitSet> merged = new TreeMap<>(a);
+        if (different != null) {
+            BitSet values = (BitSet) a.get(different).clone();
+            values.or(b.get(different));
+            if (values.cardinality() == different.size()) {
+                merged.remove(different);
+            } else {
+                merged.put(different, values);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Writes the guard as a sum of products, with the restrictions all cubes share taken out, or as the
+     * negation of its complement where that is shorter
+     */
+    @Override
+    public String toString() {
+        String positive = irredundant().sumOfProducts();
+        if (isTrue() || isFalse()) {
+            return positive;
+        }
+        String negative = "!(" + not().irredundant().sumOfProducts() + ")";
+        return (negative.length() < positive.length()) ? negative : positive;
+    }
+
+    /**
+     * The guard without the cubes that the other cubes cover between them, Example: x=1 & y=1 next to
+     * x=1 & z=1 and y=1 & z=0
+     */
+    private PrismGuard irredundant() {
+        List<TreeMap<Variable, BitSet>> result = new ArrayList<>(cubes);
+        for (int i = result.size() - 1; i >= 0; i--) {
+            List<TreeMap<Variable, BitSet>> others = new ArrayList<>(result);
+            others.remove(i);
+            if (covered(result.get(i), others, 0)) {
+                result.remove(i);
+            }
+        }
+        return new PrismGuard(result);
+    }
+
+    /**
+     * Whether the cubes from index from on cover cube, taking away one cube at a time
+     */
+    private static boolean covered(TreeMap<Variable, BitSet> cube, List<TreeMap<Variable, BitSet>> cubes, int from) {
+        if (from == cubes.size()) {
+            return false;
+        }
+        for (TreeMap<Variable, BitSet> piece : subtract(cube, cubes.get(from))) {
+            if (!covered(piece, cubes, from + 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The part of cube outside other, as disjoint cubes
+     */
+    private static List<TreeMap<Variable, BitSet>> subtract(TreeMap<Variable, BitSet> cube, TreeMap<Variable, BitSet> other) {
+        List<TreeMap<Variable, BitSet>> pieces = new ArrayList<>();
+        TreeMap<Variable, BitSet> rest = new TreeMap<>(cube);
+        for (Map.Entry<Variable, BitSet> entry : other.entrySet()) {
+            Variable variable = entry.getKey();
+            BitSet current = rest.get(variable);
+            if (current == null) {
+                current = new BitSet();
+                current.set(0, variable.size());
+            }
+            BitSet outside = (BitSet) current.clone();
+            outside.andNot(entry.getValue());
+            if (!outside.isEmpty()) {
+                TreeMap<Variable, BitSet> piece = new TreeMap<>(rest);
+                piece.put(variable, outside);
+                pieces.add(piece);
+            }
+            BitSet inside = (BitSet) current.clone();
+            inside.and(entry.getValue());
+            if (inside.isEmpty()) {
+                return pieces;
+            }
+            rest.put(variable, inside);
+        }
+        return pieces;
+    }
+
+    private String sumOfProducts() {
+        if (isFalse()) {
+            return "false";
+        }
+        if (isTrue()) {
+            return "true";
+        }
+        // Restrictions every cube has in common
+        TreeMap<Variable, BitSet> common = new TreeMap<>(cubes.get(0));
+        for (TreeMap<Variable, BitSet> cube : cubes) {
+            common.entrySet().removeIf(e -> !e.getValue().equals(cube.get(e.getKey())));
+        }
+        List<String> factors = new ArrayList<>();
+        for (Map.Entry<Variable, BitSet> entry : common.entrySet()) {
+            factors.add(values(entry.getKey(), entry.getValue(), common.size() > 1 || cubes.size() > 1));
+        }
+        if (cubes.size() > 1) {
+            List<String> terms = new ArrayList<>();
+            for (TreeMap<Variable, BitSet> cube : cubes) {
+                // Every cube has all the common restrictions
+                boolean inConjunction = cube.size() - common.size() > 1;
+                List<String> parts = new ArrayList<>();
+                for (Map.Entry<Variable, BitSet> entry : cube.entrySet()) {
+                    if (!common.containsKey(entry.getKey())) {
+                        parts.add(values(entry.getKey(), entry.getValue(), inConjunction));
+                    }
+                }
+                String term = String.join(" & ", parts);
+                terms.add(parts.size() > 1 ? "(" + term + ")" : term);
+            }
+            String sum = String.join(" | ", terms);
+            factors.add(factors.isEmpty() ? sum : "(" + sum + ")");
+        }
+        return String.join(" & ", factors);
+    }
+
+    /**
+     * The values of one variable, as the shorter of the ranges they form and the negation of the ranges
+     * they leave out; parenthesized if a disjunction would be part of a conjunction
+     */
+    private static String values(Variable variable, BitSet values, boolean inConjunction) {
+        String positive = ranges(variable, values);
+        BitSet missing = (BitSet) values.clone();
+        missing.flip(0, variable.size());
+        String negative;
+        if (missing.cardinality() == 1) {
+            negative = variable.name + "!=" + constant(variable, missing.nextSetBit(0) + variable.low);
+        } else {
+            negative = "!(" + ranges(variable, missing) + ")";
+        }
+        // A single range reads best as it is, Example: time_counter < TOTAL_TIME over time_counter!=TOTAL_TIME
+        if (positive.contains(" | ") && negative.length() < positive.length()) {
+            return negative;
+        }
+        return (inConjunction && positive.contains(" | ")) ? "(" + positive + ")" : positive;
+    }
+
+    private static String ranges(Variable variable, BitSet values) {
+        List<String> terms = new ArrayList<>();
+        for (int from = values.nextSetBit(0); from >= 0; from = values.nextSetBit(values.nextClearBit(from))) {
+            int a = from + variable.low;
+            int b = values.nextClearBit(from) - 1 + variable.low;
+            String name = variable.name;
+            if (a == b) {
+                terms.add(name + "=" + constant(variable, a));
+            } else if (a == variable.low) {
+                terms.add(b == variable.high - 1 && variable.highName != null
+                        ? name + " < " + variable.highName
+                        : name + " <= " + b);
+            } else if (b == variable.high) {
+                terms.add(a == variable.low + 1 ? name + " > " + variable.low : name + " >= " + a);
+            } else {
+                terms.add(name + " >= " + a + " & " + name + " <= " + b);
+            }
+        }
+        if (terms.size() > 1) {
+            for (int i = 0; i < terms.size(); i++) {
+                if (terms.get(i).contains(" & ")) {
+                    terms.set(i, "(" + terms.get(i) + ")");
+                }
+            }
+        }
+        return String.join(" | ", terms);
+    }
+
+    private static String constant(Variable variable, int value) {
+        return (value == variable.high && variable.highName != null) ? variable.highName : Integer.toString(value);
+    }
+
+    /**
+     * Check that no two of a module's command guards hold at once and that one of them always holds,
+     * logging where not. Returns a bit set of 1 for overlapping commands and 2 for uncovered states.
+     */
+    static int checkCommands(String module, List<PrismGuard> guards, Logger logger) {
+        int problems = 0;
+        for (int i = 0; i < guards.size(); i++) {
+            for (int j = i + 1; j < guards.size(); j++) {
+                PrismGuard both = guards.get(i).and(guards.get(j));
+                if (!both.isFalse()) {
+                    problems |= 1;
+                    logger.warn("Commands {} and {} of module {} are both enabled where {}", i + 1, j + 1, module, both);
+                }
+            }
+        }
+        PrismGuard any = FALSE;
+        for (PrismGuard guard : guards) {
+            any = any.or(guard);
+        }
+        PrismGuard uncovered = any.not();
+        if (!uncovered.isFalse()) {
+            problems |= 2;
+            logger.info("No command of module {} is enabled where {}; PRISM reports a deadlock if such a state is reachable",
+                    module, uncovered);
+        }
+        return problems;
+    }
+}
@@ -0,0 +1,137 @@
+package edu.fit.assist.translator.soar;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.misc.Interval;
+import org.jsoar.kernel.Agent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+
+/**
+ * On-disk cache of the cleaned production text of a load tree.
+ *
+ * Entries are named by a SHA-256 key over the path and contents of every file the load tree
+ * sources, the loader and JSoar version and {@link #FORMAT}, so editing any Soar file or upgrading JSoar
+ * simply misses and old entries are never read again. Entries are read back as a
+ * {@link MappedCharStream}, so the text stays in the mapped file instead of being decoded onto the
+ * heap, and are written a chunk at a time through a temporary file that is moved into place.
+ */
+public class ProductionCache {
+    private static final Logger logger = LoggerFactory.getLogger(ProductionCache.class);
+
+    // System property with the cache directory, overridden by --cache-dir
+    public static final String CACHE_DIR_PROPERTY = "soar.translator.cacheDir";
+    // Bump when the cached text changes for the same files, e.g. when ProductionSanitizer changes
+    static final int FORMAT = 1;
+    private static final String SUFFIX = ".soar";
+    // Code points written at a time, so the whole agent is never held as one String
+    private static final int WRITE_CHUNK = 1 << 13;
+
+    private final Path directory;
+
+    public ProductionCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Cache in the directory named by the {@value #CACHE_DIR_PROPERTY} system property, or in
+     * ~/.cache/soar-to-prism when it is not set.
+     */
+    public static ProductionCache fromSystemProperties() {
+        String dir = System.getProperty(CACHE_DIR_PROPERTY);
+        if (dir == null || dir.isEmpty()) {
+            return new ProductionCache(Paths.get(System.getProperty("user.home"), ".cache", "soar-to-prism"));
+        }
+        return new ProductionCache(Paths.get(dir));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Key for the files a load tree sources, as returned by {@link SoarSourceLoader#scan(String)}.
+     * Productions read directly by {@link SoarSourceLoader} are kept as written, so they get other
+     * keys than the ones JSoar prints.
+     */
+    public String key(Map<Path, byte[]> files, boolean direct) {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        String loader = direct ? "direct" : "jsoar " + jsoarVersion();
+        sha.update(("format " + FORMAT + "\nloader " + loader + "\n").getBytes(StandardCharsets.UTF_8));
+        for (Map.Entry<Path, byte[]> file : files.entrySet()) {
+            sha.update(file.getKey().toString().getBytes(StandardCharsets.UTF_8));
+            sha.update((byte) 0);
+            sha.update(file.getValue());
+        }
+        StringBuilder key = new StringBuilder();
+        for (byte b : sha.digest()) {
+            key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return key.toString();
+    }
+
+    /**
+     * The cached productions for the key, or null on a miss.
+     */
+    public CharStream read(String key, String sourceName) {
+        Path entry = directory.resolve(key + SUFFIX);
+        if (!Files.isRegularFile(entry)) {
+            return null;
+        }
+        try {
+            // Entries are replaced by moving a new file into place, never rewritten, so the mapping stays valid
+            return MappedCharStream.open(entry, sourceName);
+        } catch (IOException e) {
+            logger.warn("Could not read cache entry {}: {}", entry, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store the productions under the key. Failures only cost the next run a miss.
+     */
+    public void write(String key, CharStream productions) {
+        Path entry = directory.resolve(key + SUFFIX);
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, key, ".tmp");
+            try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                int size = productions.size();
+                for (int from = 0; from < size; from += WRITE_CHUNK) {
+                    out.write(productions.getText(Interval.of(from, Math.min(from + WRITE_CHUNK, size) - 1)));
+                }
+            }
+            Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not write cache entry {}: {}", entry, e.getMessage());
+            try {
+                if (temp != null) {
+                    Files.deleteIfExists(temp);
+                }
+            } catch (IOException ignored) {
+                // nothing left to do
+            }
+        }
+    }
+
+    private static String jsoarVersion() {
+        Package jsoar = Agent.class.getPackage();
+        String version = (jsoar != null) ? jsoar.getImplementationVersion() : null;
+        return (version != null) ? version : "unknown";
+    }
+}
@@ -0,0 +1,288 @@
+package edu.fit.assist.translator.soar;
+
+import org.jsoar.kernel.Production;
+import org.jsoar.kernel.lhs.Condition;
+import org.jsoar.kernel.lhs.ConjunctiveTest;
+import org.jsoar.kernel.lhs.DisjunctionTest;
+import org.jsoar.kernel.lhs.EqualityTest;
+import org.jsoar.kernel.lhs.RelationalTest;
+import org.jsoar.kernel.lhs.Test;
+import org.jsoar.kernel.lhs.ThreeFieldCondition;
+import org.jsoar.kernel.memory.PreferenceType;
+import org.jsoar.kernel.rhs.Action;
+import org.jsoar.kernel.rhs.MakeAction;
+import org.jsoar.kernel.rhs.RhsFunctionCall;
+import org.jsoar.kernel.rhs.RhsValue;
+import org.jsoar.kernel.symbols.SymbolImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Front end that builds {@link SoarRules} directly from the conditions and actions of the
+ * {@link Production}s JSoar has already parsed, instead of printing them and re-parsing the text
+ * with SoarParser.
+ *
+ * The rules are filled in through the same {@link Visitor} methods the parse tree walk uses, so both
+ * front ends produce the same guards, valueMap and contextMap for the same production.
+ */
+public class ProductionConverter {
+    private static final Logger logger = LoggerFactory.getLogger(ProductionConverter.class);
+    private final Visitor<?> visitor = new Visitor<>();
+    // Occurrences of every variable in the production being converted
+    private final HashMap<String, Integer> variableCounts = new HashMap<>();
+
+    public ProductionConverter(SoarRules rules) {
+        visitor.rules = rules;
+    }
+
+    public static SoarRules convert(Iterable<Production> productions) {
+        ProductionConverter converter = new ProductionConverter(new SoarRules());
+        for (Production p : productions) {
+            converter.addProduction(p);
+        }
+        return converter.visitor.rules;
+    }
+
+    /**
+     * Describes every rule and variable on which the rules of the text front end and of this converter
+     * disagree, one entry per difference
+     */
+    static List<String> differences(SoarRules textRules, SoarRules directRules) {
+        List<String> differences = new ArrayList<>();
+        for (Rule textRule : textRules.rules) {
+            Rule directRule = directRules.getRuleByName(textRule.ruleName);
+            if (directRule == null) {
+                differences.add("Rule " + textRule.ruleName + " is missing from the jsoar front end");
+            } else if (!textRule.guards.equals(directRule.guards)
+                    || !textRule.valueMap.equals(directRule.valueMap)
+                    || !textRule.contextMap.equals(directRule.contextMap)
+                    || !textRule.variables.equals(directRule.variables)) {
+                differences.add("Front ends disagree on rule " + textRule.ruleName
+                        + "\n  text:  guards=" + textRule.guards + " values=" + textRule.valueMap + " context=" + textRule.contextMap
+                        + "\n  jsoar: guards=" + directRule.guards + " values=" + directRule.valueMap + " context=" + directRule.contextMap);
+            }
+        }
+        for (Rule directRule : directRules.rules) {
+            if (textRules.getRuleByName(directRule.ruleName) == null) {
+                differences.add("Rule " + directRule.ruleName + " is missing from the text front end");
+            }
+        }
+        for (Variable var : textRules.variables.values()) {
+            Variable other = directRules.variables.get(var.name);
+            if (other == null || !var.values.equals(other.values) || !Objects.equals(var.initialValue, other.initialValue)) {
+                differences.add("Front ends disagree on the values of " + var.name);
+            }
+        }
+        return differences;
+    }
+
+    public void addProduction(Production p) {
+        countVariables(p);
+        visitor.beginProduction(p.getName());
+
+        // sp{ ruleName
+        boolean first = true;
+        for (Condition c = p.getFirstCondition(); c != null; c = c.next) {
+            ThreeFieldCondition condition = c.asThreeFieldCondition();
+            if (condition == null) {
+                // -{ ... } conjunctive negations have no equivalent guard
+                logger.warn("Skipping conjunctive negation in rule {}", p.getName());
+                continue;
+            }
+            addCondition(condition, first);
+            first = false;
+        }
+        // -->
+        for (Action a = p.getFirstAction(); a != null; a = a.next) {
+            MakeAction action = a.asMakeAction();
+            if (action != null) {
+                addAction(action);
+            }
+        }
+        //}
+    }
+
+    private void addCondition(ThreeFieldCondition condition, boolean first) {
+        String var = testToString(condition.id_test);
+        if (first && condition.id_test.asConjunctiveTest() != null && isStateTest(condition.id_test.asConjunctiveTest())) {
+            // (state <s> ...)
+            visitor.beginStateCondition(var, isImpasseTest(condition.id_test.asConjunctiveTest()) ? "impasse" : "state");
+        } else {
+            visitor.beginCondition(var);
+        }
+        visitor.negateCondition = condition.asNegativeCondition() != null;
+
+        String attribute = testToString(condition.attr_test);
+        String value = isDroppedPlaceholder(condition.value_test) ? null : testToString(condition.value_test);
+        visitor.addAttributeTest(attribute, value != null, value, false);
+    }
+
+    private void addAction(MakeAction action) {
+        visitor.beginAction(valueToString(action.id));
+        String attributeName = valueToString(action.attr);
+        String variable = visitor.beginAttributeValue(attributeName);
+        String val = valueToString(action.value);
+        if (action.preference_type == PreferenceType.REJECT) {
+            val = "nil";
+        }
+        visitor.addAttributeValue(attributeName, variable, val);
+    }
+
+    /**
+     * Renders a test the way the parse tree walk renders the equivalent text.
+     */
+    private String testToString(Test test) {
+        if (test == null) {
+            return null;
+        }
+        EqualityTest equality = test.asEqualityTest();
+        if (equality != null) {
+            return equality.getReferent().toString();
+        }
+        RelationalTest relational = test.asRelationalTest();
+        if (relational != null) {
+            return relationToString(relational.type) + " " + relational.referent.toString();
+        }
+        DisjunctionTest disjunction = test.asDisjunctionTest();
+        if (disjunction != null) {
+            StringBuilder result = new StringBuilder("<<");
+            for (SymbolImpl constant : disjunction.disjunction_list) {
+                result.append(' ').append(constant.toString());
+            }
+            return result.append(" >>").toString();
+        }
+        ConjunctiveTest conjunctive = test.asConjunctiveTest();
+        if (conjunctive != null) {
+            // Only the first test of { ... } is used, the goal test of (state <s>) is skipped
+            for (Test t : conjunctive.conjunct_list) {
+                if (t.asGoalIdTest() == null && t.asImpasseIdTest() == null) {
+                    return testToString(t);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String relationToString(int type) {
+        switch (type) {
+            case RelationalTest.NOT_EQUAL_TEST: return "<>";
+            case RelationalTest.LESS_TEST: return "<";
+            case RelationalTest.GREATER_TEST: return ">";
+            case RelationalTest.LESS_OR_EQUAL_TEST: return "<=";
+            case RelationalTest.GREATER_OR_EQUAL_TEST: return ">=";
+            case RelationalTest.SAME_TYPE_TEST: return "<=>";
+            default: return "=";
+        }
+    }
+
+    /**
+     * Renders a right hand side value; function calls become "operand1 operation operand2" like Visitor.visitFunc_call.
+     */
+    private String valueToString(RhsValue value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.asSymbolValue() != null) {
+            return value.asSymbolValue().getSym().toString();
+        }
+        RhsFunctionCall call = value.asFunctionCall();
+        if (call != null) {
+            List<RhsValue> arguments = call.getArguments();
+            String operand1 = arguments.size() > 0 ? valueToString(arguments.get(0)) : null;
+            String operand2 = arguments.size() > 1 ? valueToString(arguments.get(1)) : null;
+            return operand1 + " " + call.getName().toString() + " " + operand2;
+        }
+        return null;
+    }
+
+    private static boolean isStateTest(ConjunctiveTest test) {
+        for (Test t : test.conjunct_list) {
+            if (t.asGoalIdTest() != null || t.asImpasseIdTest() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isImpasseTest(ConjunctiveTest test) {
+        for (Test t : test.conjunct_list) {
+            if (t.asImpasseIdTest() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A JSoar placeholder variable that occurs only once is removed from the printed production by
+     * {@link ProductionSanitizer}, so the text path sees no value test at all.
+     */
+    private boolean isDroppedPlaceholder(Test test) {
+        EqualityTest equality = (test != null) ? test.asEqualityTest() : null;
+        if (equality == null || equality.getReferent().asVariable() == null) {
+            return false;
+        }
+        String name = equality.getReferent().toString();
+        return ProductionSanitizer.isPlaceholder(name) && variableCounts.getOrDefault(name, 0) == 1;
+    }
+
+    private void countVariables(Production p) {
+        variableCounts.clear();
+        for (Condition c = p.getFirstCondition(); c != null; c = c.next) {
+            ThreeFieldCondition condition = c.asThreeFieldCondition();
+            if (condition != null) {
+                countVariables(condition.id_test);
+                countVariables(condition.attr_test);
+                countVariables(condition.value_test);
+            }
+        }
+        for (Action a = p.getFirstAction(); a != null; a = a.next) {
+            MakeAction action = a.asMakeAction();
+            if (action != null) {
+                countVariables(action.id);
+                countVariables(action.attr);
+                countVariables(action.value);
+                countVariables(action.referent);
+            }
+        }
+    }
+
+    private void countVariables(Test test) {
+        if (test == null) {
+            return;
+        }
+        if (test.asEqualityTest() != null) {
+            countVariable(test.asEqualityTest().getReferent());
+        } else if (test.asRelationalTest() != null) {
+            countVariable(test.asRelationalTest().referent);
+        } else if (test.asConjunctiveTest() != null) {
+            for (Test t : test.asConjunctiveTest().conjunct_list) {
+                countVariables(t);
+            }
+        }
+    }
+
+    private void countVariables(RhsValue value) {
+        if (value == null) {
+            return;
+        }
+        if (value.asSymbolValue() != null) {
+            countVariable(value.asSymbolValue().getSym());
+        } else if (value.asFunctionCall() != null) {
+            for (RhsValue argument : value.asFunctionCall().getArguments()) {
+                countVariables(argument);
+            }
+        }
+    }
+
+    private void countVariable(SymbolImpl symbol) {
+        if (symbol != null && symbol.asVariable() != null) {
+            variableCounts.merge(symbol.toString(), 1, Integer::sum);
+        }
+    }
+}
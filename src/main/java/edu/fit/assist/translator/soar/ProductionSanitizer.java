@@ -0,0 +1,91 @@
+package edu.fit.assist.translator.soar;
+
+import java.util.HashMap;
+
+/**
+ * Removes JSoar placeholder variables (e.g. {@code <a*b>}, generated when chunks are printed)
+ * that occur only once in a production.
+ *
+ * The production is scanned once to count every placeholder, then copied a second time into a
+ * buffer that is reused between productions, skipping the placeholders seen only once.
+ * Instances are not thread-safe; the returned text is only valid until the next call.
+ */
+public class ProductionSanitizer {
+    private final HashMap<String, Integer> occurrences = new HashMap<>();
+    private final StringBuilder output = new StringBuilder();
+    private int[] spans = new int[64]; // start/end pairs of every placeholder found in the first scan
+    private int spanCount = 0;
+
+    public CharSequence clean(CharSequence input) {
+        occurrences.clear();
+        output.setLength(0);
+        spanCount = 0;
+
+        // First scan: locate placeholders and build the frequency table
+        int length = input.length();
+        int i = 0;
+        while (i < length) {
+            int end = (input.charAt(i) == '<') ? matchPlaceholder(input, i) : -1;
+            if (end < 0) {
+                i++;
+                continue;
+            }
+            addSpan(i, end);
+            occurrences.merge(input.subSequence(i, end).toString(), 1, Integer::sum);
+            i = end;
+        }
+        if (spanCount == 0) {
+            return input;
+        }
+
+        // Second scan: copy the production, dropping placeholders that occur only once
+        int copied = 0;
+        for (int s = 0; s < spanCount; s += 2) {
+            int start = spans[s];
+            int end = spans[s + 1];
+            if (occurrences.get(input.subSequence(start, end).toString()) == 1) {
+                output.append(input, copied, start);
+                copied = end;
+            }
+        }
+        output.append(input, copied, length);
+        return output;
+    }
+
+    /**
+     * Checks whether the whole text is a placeholder variable such as {@code <a*b>}.
+     */
+    public static boolean isPlaceholder(CharSequence text) {
+        return text.length() > 0 && text.charAt(0) == '<' && matchPlaceholder(text, 0) == text.length();
+    }
+
+    /**
+     * Matches {@code <[a-zA-Z0-9]+[*][a-zA-Z0-9]+>} starting at {@code start}.
+     * @return the index just past the closing '>', or -1 if there is no placeholder here
+     */
+    private static int matchPlaceholder(CharSequence input, int start) {
+        int i = start + 1;
+        int first = i;
+        while (i < input.length() && isAlphanumeric(input.charAt(i))) i++;
+        if (i == first || i >= input.length() || input.charAt(i) != '*') return -1;
+        i++;
+        int second = i;
+        while (i < input.length() && isAlphanumeric(input.charAt(i))) i++;
+        if (i == second || i >= input.length() || input.charAt(i) != '>') return -1;
+        return i + 1;
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private void addSpan(int start, int end) {
+        if (spanCount + 2 > spans.length) {
+            int[] grown = new int[spans.length * 2];
+            System.arraycopy(spans, 0, grown, 0, spanCount);
+            spans = grown;
+        }
+        spans[spanCount++] = start;
+        spans[spanCount++] = end;
+    }
+}
@@ -1,60 +1,85 @@
 package edu.fit.assist.translator.soar;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
-public class Rule {
+/**
+ * One production. The collections start out as shared empty ones and are only allocated when the
+ * rule first adds to them, since most rules leave some of them empty. Names are kept in the
+ * {@link Symbols} of the SoarRules holding the rule, so the many rules that use the same attribute
+ * share one String.
+ */
+public class Rule implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     String ruleName;
-    HashMap<String, String> contextMap; // Example: Maps <s> to state or <o> to state_operator
-    ArrayList<String> variables; // Stores all variables used by this rule
-    ArrayList<String> guards; // Stores all guards for this rule
-    LinkedHashMap<String, Variable> variableMap;
-    LinkedHashMap<String, String> valueMap; // Stores the value to apply in the right side of the rule. Maps Variable name to new value
-    LinkedHashMap<Double, ArrayList<String>> groupedAssignments;
+    Map<String, String> contextMap = Collections.emptyMap(); // Example: Maps <s> to state or <o> to state_operator
+    List<String> variables = Collections.emptyList(); // Stores all variables used by this rule
+    List<Guard> guards = Collections.emptyList(); // Stores all guards for this rule
+    transient LinkedHashMap<String, Variable> variableMap; // the variables of the SoarRules holding this rule
+    transient Symbols symbols; // the symbol table of the SoarRules holding this rule
+    Map<String, String> valueMap = Collections.emptyMap(); // Stores the value to apply in the right side of the rule. Maps Variable name to new value
+    Map<String, ValueUpdate> updates = Collections.emptyMap(); // The values of valueMap, classified and parsed
     boolean isLearningRule = false;
     double priority = 0.0;
     boolean isElaboration = false;
-    LinkedHashMap<String, Double> valueProbs;
 
-    public Rule(String name, LinkedHashMap<String, Variable> map) {
-        this.ruleName = name;
-        this.contextMap = new HashMap<>();
-        this.variables = new ArrayList<>();
-        this.guards = new ArrayList<>();
+    // Initial capacity of the per rule collections, which rarely hold more than a few entries
+    private static final int SMALL = 4;
+
+    public Rule(String name, LinkedHashMap<String, Variable> map, Symbols symbols) {
+        this.ruleName = symbols.intern(name);
         this.variableMap = map;
-        this.valueMap = new LinkedHashMap<>();
-        this.valueProbs = new LinkedHashMap<>();
-        this.groupedAssignments = new LinkedHashMap<>();
+        this.symbols = symbols;
     }
 
     public String formatGuard() {
-        String output = "";
-        boolean first = true;
-        ArrayList<String> newGuards = new ArrayList<>();
-        for (String guard : guards) {
-            String variableName = guard.split(" ")[0];
-            if (variableMap.get(variableName) == null) {
+        List<Guard> newGuards = formattedGuards(guards);
+        String output = formatGuard(newGuards);
+        setGuards(newGuards);
+        return output;
+    }
+
+    /**
+     * The guards formatGuard leaves in place of guards: those of known variables, with the existence
+     * checks of numeric variables turned into their flag. Changes neither the rule nor its symbols, so
+     * it can run while other threads format the same rule.
+     */
+    List<Guard> formattedGuards(List<Guard> guards) {
+        List<Guard> newGuards = new ArrayList<>(guards.size());
+        for (Guard guard : guards) {
+            if (variableMap.get(guard.variable) == null) {
                 continue;
             }
-            int type = variableMap.get(variableName).varType;
-            if (type == Variable.INT) {
-                guard = guard.replaceAll(" != nil", "_exists = yes");
-                guard = guard.replaceAll(" = nil", "_exists = no");
-            } else if (type == Variable.FLOAT) {
-                guard = guard.replaceAll(" != nil", "_exists = yes");
-                guard = guard.replaceAll(" = nil", "_exists = no");
+            int type = variableMap.get(guard.variable).varType;
+            if ((type == Variable.INT || type == Variable.FLOAT) && guard.isExistenceCheck()) {
+                // Numeric variables can't be nil in PRISM, so existence is a separate flag
+                guard = Guard.of(guard.variable + "_exists", Guard.Relation.EQUAL, guard.isNegated() ? "yes" : "no");
             }
+            newGuards.add(guard);
+        }
+        return newGuards;
+    }
+
+    /**
+     * The PRISM text of formatted guards, followed for elaborations by the negation of what they set
+     */
+    String formatGuard(List<Guard> formatted) {
+        String output = "";
+        boolean first = true;
+        for (Guard guard : formatted) {
             if (!first) {
                 output += " & ";
             } else {
                 first = false;
             }
             output += guard;
-            newGuards.add(guard);
         }
-        this.guards = newGuards;
 
         // Add negation of action side of elaborations
         if (this.isElaboration) {
@@ -70,16 +95,41 @@ public class Rule {
         return output;
     }
 
+    /**
+     * Replace the guards of the rule with formatted ones, taking their names from the symbols
+     */
+    void setGuards(List<Guard> formatted) {
+        formatted.replaceAll(guard -> guard.share(symbols));
+        this.guards = formatted;
+    }
+
     public void addAttrValue(String var, String val) {
-        valueMap.put(var, val);
+        addAttrValue(var, ValueUpdate.of(val));
+    }
+
+    public void addAttrValue(String var, ValueUpdate val) {
+        if (valueMap.isEmpty()) {
+            valueMap = new LinkedHashMap<>(SMALL);
+            updates = new LinkedHashMap<>(SMALL);
+        }
+        var = symbols.intern(var);
+        val = val.share(symbols);
+        valueMap.put(var, val.text);
+        updates.put(var, val);
     }
 
-    public void addGuard(String guard) {
-        guards.add(guard);
+    public void addGuard(Guard guard) {
+        if (guards.isEmpty()) {
+            guards = new ArrayList<>(SMALL);
+        }
+        guards.add(guard.share(symbols));
     }
 
     public void addVariable(String var) {
-        variables.add(var);
+        if (variables.isEmpty()) {
+            variables = new ArrayList<>(SMALL);
+        }
+        variables.add(symbols.intern(var));
     }
 
     public void addContext(String key, String value) {
@@ -87,7 +137,31 @@ public class Rule {
             key = "<" + key + ">";
         }
         value = value.replace("-", "_"); // normalize to match PRISM
-        contextMap.put(key, value);
+        if (contextMap.isEmpty()) {
+            contextMap = new HashMap<>(SMALL);
+        }
+        contextMap.put(symbols.intern(key), symbols.intern(value));
+    }
+
+    /**
+     * Take the names of the rule from symbols, when the rule is added to a SoarRules other than the
+     * one it was built in, or was read back from the production cache
+     */
+    void share(Symbols symbols) {
+        this.symbols = symbols;
+        ruleName = symbols.intern(ruleName);
+        variables.replaceAll(symbols::intern);
+        guards.replaceAll(guard -> guard.share(symbols));
+        if (!contextMap.isEmpty()) {
+            Map<String, String> context = contextMap;
+            contextMap = new HashMap<>(SMALL);
+            context.forEach((key, value) -> contextMap.put(symbols.intern(key), symbols.intern(value)));
+        }
+        if (!updates.isEmpty()) {
+            Map<String, ValueUpdate> values = updates;
+            valueMap = Collections.emptyMap();
+            values.forEach(this::addAttrValue);
+        }
     }
 
     public String getContext(String var) {
@@ -0,0 +1,157 @@
+package edu.fit.assist.translator.soar;
+import edu.fit.assist.translator.gen.SoarLexer;
+import edu.fit.assist.translator.gen.SoarParser;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.RuleContext;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Parses Soar productions with the two-stage strategy ANTLR recommends: SLL prediction that bails
+ * out on the first syntax error, and full LL prediction with normal error recovery only when the
+ * SLL pass fails. Valid input, which is nearly all input, never pays for full LL prediction or
+ * error recovery.
+ */
+public class RuleParser {
+    private static final Logger logger = LoggerFactory.getLogger(RuleParser.class);
+
+    /**
+     * Parse all rules together and walk the parse tree
+     */
+    public static SoarRules parseRules(CharStream input) {
+        SoarParser.SoarContext tree = parse(input);
+
+        Visitor<?> visitor = new Visitor<>();
+        visitor.rules = new SoarRules();
+        visitor.visit(tree);
+        return visitor.rules;
+    }
+
+    public static SoarParser.SoarContext parse(CharStream input) {
+        ParseStats stats = new ParseStats();
+        SoarParser.SoarContext tree = parse(input, stats);
+        stats.report();
+        return tree;
+    }
+
+    /**
+     * Parse without printing the summary, adding the outcome to stats. Syntax errors are still
+     * printed by the console listener as they are found.
+     */
+    static SoarParser.SoarContext parse(CharStream input, ParseStats stats) {
+        return parse(new CommonTokenStream(new SoarLexer(input)), stats);
+    }
+
+    static SoarParser.SoarContext parse(CommonTokenStream tokens, ParseStats stats) {
+        SoarParser parser = new SoarParser(tokens);
+
+        // Stage 1: SLL, give up on the first error without reporting it
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        long start = System.nanoTime();
+        String failedProduction;
+        try {
+            SoarParser.SoarContext tree = parser.soar();
+            stats.addSll(tree.soar_production().size(), System.nanoTime() - start);
+            return tree;
+        } catch (ParseCancellationException e) {
+            RecognitionException cause = (e.getCause() instanceof RecognitionException) ? (RecognitionException) e.getCause() : null;
+            failedProduction = (cause != null) ? productionName(cause.getCtx()) : null;
+        }
+        long sllTime = System.nanoTime() - start;
+
+        // Stage 2: full LL with the default recovery and error messages
+        tokens.seek(0);
+        parser.reset();
+        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+        parser.setErrorHandler(new DefaultErrorStrategy());
+        parser.addErrorListener(ConsoleErrorListener.INSTANCE);
+        SyntaxErrorCollector errors = new SyntaxErrorCollector();
+        parser.addErrorListener(errors);
+        start = System.nanoTime();
+        SoarParser.SoarContext tree = parser.soar();
+        stats.addLl(tree.soar_production().size(), sllTime, System.nanoTime() - start, failedProduction, errors.productions);
+        return tree;
+    }
+
+    /**
+     * Name of the production the given parse context belongs to, or null if it is outside a
+     * production or its name was not parsed.
+     */
+    static String productionName(RuleContext ctx) {
+        for (RuleContext c = ctx; c != null; c = c.parent) {
+            if (c instanceof SoarParser.Soar_productionContext) {
+                SoarParser.Sym_constantContext name = ((SoarParser.Soar_productionContext) c).sym_constant();
+                return (name != null) ? name.getText() : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Outcome of one or more parses, reported together.
+     */
+    static class ParseStats {
+        private int productions;
+        private long sllNanos;
+        private long llNanos;
+        private final Set<String> fallbackProductions = new LinkedHashSet<>();
+        private final Set<String> errorProductions = new LinkedHashSet<>();
+
+        synchronized void addSll(int parsed, long nanos) {
+            productions += parsed;
+            sllNanos += nanos;
+        }
+
+        synchronized void addLl(int parsed, long sllNanos, long llNanos, String failedProduction, Set<String> errors) {
+            productions += parsed;
+            this.sllNanos += sllNanos;
+            this.llNanos += llNanos;
+            fallbackProductions.add(String.valueOf(failedProduction));
+            errorProductions.addAll(errors);
+        }
+
+        synchronized void report() {
+            if (fallbackProductions.isEmpty()) {
+                logger.info("Parsed {} productions with SLL in {} ms", productions, sllNanos / 1_000_000);
+                return;
+            }
+            logger.info("Parsed {} productions, SLL failed in {} after {} ms, parsed again with LL in {} ms",
+                    productions, fallbackProductions, sllNanos / 1_000_000, llNanos / 1_000_000);
+            if (errorProductions.isEmpty()) {
+                logger.info("No syntax errors with LL, productions {} need full LL prediction", fallbackProductions);
+            } else {
+                logger.warn("Syntax errors in productions {}", errorProductions);
+            }
+        }
+    }
+
+    /**
+     * Records the productions that contain syntax errors.
+     */
+    private static class SyntaxErrorCollector extends BaseErrorListener {
+        final Set<String> productions = new LinkedHashSet<>();
+
+        @Override
+        public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine,
+                                String msg, RecognitionException e) {
+            if (recognizer instanceof Parser) {
+                productions.add(String.valueOf(productionName(((Parser) recognizer).getContext())));
+            }
+        }
+    }
+}
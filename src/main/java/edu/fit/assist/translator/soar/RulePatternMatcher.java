@@ -0,0 +1,225 @@
+package edu.fit.assist.translator.soar;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The soarRulePatterns of all modules of a {@link PrismConfig}, compiled once so a rule name is matched
+ * against the few patterns that can match it instead of against every pattern.
+ *
+ * The literal text a pattern must start with goes into a prefix trie, and walking the rule name down
+ * the trie yields the candidate patterns. Patterns made of literal text and ".*" only, such as
+ * ".*sickness.*" or "propose\\*check\\*.*", are matched with String searches instead of the regex.
+ * As before, a pattern has to match the whole rule name and the first module with a matching
+ * pattern wins.
+ */
+final class RulePatternMatcher {
+    private static final Logger logger = LoggerFactory.getLogger(RulePatternMatcher.class);
+    private final List<PrismConfig.ModuleConfig> modules = new ArrayList<>();
+    // All patterns, in module order and then in the order each module lists them
+    private final List<Entry> entries = new ArrayList<>();
+    private final TrieNode root = new TrieNode();
+
+    RulePatternMatcher(List<PrismConfig.ModuleConfig> modules) {
+        for (PrismConfig.ModuleConfig module : modules) {
+            int moduleIndex = this.modules.size();
+            this.modules.add(module);
+            for (String pattern : module.soarRulePatterns) {
+                Entry entry = Entry.compile(moduleIndex, pattern);
+                if (entry == null) {
+                    logger.warn("Ignoring invalid soarRulePattern \"{}\" of module {}", pattern, module.name);
+                    continue;
+                }
+                TrieNode node = root;
+                for (int i = 0; i < entry.prefix.length(); i++) {
+                    node = node.children.computeIfAbsent(entry.prefix.charAt(i), c -> new TrieNode());
+                }
+                node.entries.add(entries.size());
+                entries.add(entry);
+            }
+        }
+    }
+
+    /**
+     * The first module with a pattern matching the whole rule name, or null
+     */
+    PrismConfig.ModuleConfig moduleFor(String ruleName) {
+        // Patterns are numbered in priority order, so the lowest matching number wins
+        int best = Integer.MAX_VALUE;
+        TrieNode node = root;
+        for (int i = 0; node != null; i++) {
+            for (int index : node.entries) {
+                if (index < best && entries.get(index).matches(ruleName)) {
+                    best = index;
+                }
+            }
+            node = (i < ruleName.length()) ? node.children.get(ruleName.charAt(i)) : null;
+        }
+        return (best == Integer.MAX_VALUE) ? null : modules.get(entries.get(best).module);
+    }
+
+    private static final class TrieNode {
+        final Map<Character, TrieNode> children = new HashMap<>(4);
+        // The patterns whose literal prefix ends here
+        final List<Integer> entries = new ArrayList<>(1);
+    }
+
+    private static final class Entry {
+        final int module;
+        final Pattern regex;
+        // Text every match starts with
+        final String prefix;
+        // For a pattern of literal text and ".*" only: the literal parts, and whether ".*" opens and closes it
+        final List<String> segments;
+        final boolean openStart;
+        final boolean openEnd;
+
+        private Entry(int module, Pattern regex, String prefix, List<String> segments, boolean openStart, boolean openEnd) {
+            this.module = module;
+            this.regex = regex;
+            this.prefix = prefix;
+            this.segments = segments;
+            this.openStart = openStart;
+            this.openEnd = openEnd;
+        }
+
+        /**
+         * The compiled pattern, or null if it isn't a valid regex
+         */
+        static Entry compile(int module, String pattern) {
+            Pattern regex;
+            try {
+                regex = Pattern.compile(pattern);
+            } catch (PatternSyntaxException e) {
+                return null;
+            }
+            List<String> segments = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            String prefix = null;
+            boolean glob = true;
+            boolean openStart = false;
+            int i = 0;
+            while (i < pattern.length()) {
+                char c = pattern.charAt(i);
+                if (c == '.' && i + 1 < pattern.length() && pattern.charAt(i + 1) == '*'
+                        && !(i + 2 < pattern.length() && isQuantifierSuffix(pattern.charAt(i + 2)))) {
+                    if (prefix == null) {
+                        prefix = literal.toString();
+                    }
+                    if (literal.length() > 0) {
+                        segments.add(literal.toString());
+                        literal.setLength(0);
+                    } else if (segments.isEmpty()) {
+                        openStart = true;
+                    }
+                    i += 2;
+                    continue;
+                }
+                char next;
+                int length;
+                if (c == '\\' && i + 1 < pattern.length() && !Character.isLetterOrDigit(pattern.charAt(i + 1))) {
+                    next = pattern.charAt(i + 1);
+                    length = 2;
+                } else if (isMeta(c)) {
+                    glob = false;
+                    break;
+                } else {
+                    next = c;
+                    length = 1;
+                }
+                // A quantified character may be missing from the match
+                if (i + length < pattern.length() && isQuantifier(pattern.charAt(i + length))) {
+                    glob = false;
+                    break;
+                }
+                literal.append(next);
+                i += length;
+            }
+            if (prefix == null) {
+                prefix = literal.toString();
+            }
+            // An alternative may start with anything
+            if (pattern.indexOf('|') >= 0) {
+                prefix = "";
+                glob = false;
+            }
+            if (!glob) {
+                return new Entry(module, regex, prefix, null, false, false);
+            }
+            boolean openEnd = pattern.endsWith(".*") && literal.length() == 0;
+            if (literal.length() > 0) {
+                segments.add(literal.toString());
+            }
+            return new Entry(module, regex, prefix, segments, openStart, openEnd);
+        }
+
+        boolean matches(String name) {
+            // "." doesn't match line terminators, so leave those names to the regex
+            if (segments == null || hasLineTerminator(name)) {
+                return regex.matcher(name).matches();
+            }
+            if (segments.isEmpty()) {
+                // ".*" or the empty pattern
+                return openStart || name.isEmpty();
+            }
+            if (segments.size() == 1 && !openStart && !openEnd) {
+                return name.equals(segments.get(0));
+            }
+            int from = 0;
+            int first = 0;
+            int last = segments.size();
+            if (!openStart) {
+                if (!name.startsWith(segments.get(0))) {
+                    return false;
+                }
+                from = segments.get(0).length();
+                first = 1;
+            }
+            if (!openEnd) {
+                last--;
+            }
+            for (int s = first; s < last; s++) {
+                int at = name.indexOf(segments.get(s), from);
+                if (at < 0) {
+                    return false;
+                }
+                from = at + segments.get(s).length();
+            }
+            if (!openEnd) {
+                String end = segments.get(segments.size() - 1);
+                return name.endsWith(end) && name.length() - end.length() >= from;
+            }
+            return true;
+        }
+
+        private static boolean isMeta(char c) {
+            return "\\[](){}.*+?^$|".indexOf(c) >= 0;
+        }
+
+        private static boolean isQuantifier(char c) {
+            return c == '*' || c == '+' || c == '?' || c == '{';
+        }
+
+        // Lazy or possessive ".*"
+        private static boolean isQuantifierSuffix(char c) {
+            return c == '?' || c == '+';
+        }
+
+        private static boolean hasLineTerminator(String name) {
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -1,13 +1,40 @@
 package edu.fit.assist.translator.soar;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 public class SoarRules {
+    private static final Logger logger = LoggerFactory.getLogger(SoarRules.class);
+    static final String PROPOSE_PREFIX = "propose*";
+    static final String APPLY_PREFIX = "apply*";
+    static final String ELABORATE_MARKER = "elaborate";
+    static final String INITIALIZE_RULE = "apply*initialize";
+    // Marks a variable value that stands for all values of the variable named after it
+    static final String REFERENCE_PREFIX = "^VAR";
+
+    // All rules in source order. Add rules with addRule so the indexes below stay in step
     ArrayList<Rule> rules;
     LinkedHashMap<String, Variable> variables;
     LinkedHashMap<String, Integer> mapNameToType;
     LinkedHashMap<String, ArrayList<String>> typeGraph;
+    // Names and values shared by the rules and variables, dropped with them
+    final Symbols symbols = new Symbols();
+
+    // Rules by name and by role, each list in source order. A name repeats when a production is redefined
+    private final HashMap<String, List<Rule>> rulesByName = new HashMap<>();
+    private final ArrayList<Rule> proposeRules = new ArrayList<>();
+    private final ArrayList<Rule> applyRules = new ArrayList<>();
+    private final ArrayList<Rule> elaborateRules = new ArrayList<>();
 
     public SoarRules(){
         rules = new ArrayList<Rule>();
@@ -30,58 +57,339 @@ public class SoarRules {
         }
     }
 
-    public void parseVariableValuePass(){
-        for (String varName: variables.keySet()){
-            Variable var = variables.get(varName);
+    /**
+     * Links the types of name and value if value is the name of a known variable
+     */
+    public void addTypeEdgeIfVariable(String name, String value){
+        if(variables.containsKey(value)){
+            addTypeNode(name, value);
+            addTypeNode(value, name);
+        }
+    }
+
+    public void setInitialValue(String varName, String value){
+        variables.get(varName).initialValue = value;
+    }
+
+    /**
+     * Replaces the REFERENCE_PREFIX values, which stand for all values of another variable, with
+     * those values, so every variable gets its full domain through chains of references. References
+     * form a graph that is walked once with Tarjan's algorithm: each strongly connected component is
+     * finished after the components it references, and the variables of a cycle share one domain.
+     * A variable keeps its own values first, so every run gives the same order of values.
+     */
+    public void resolveValueDomains(){
+        ArrayList<Variable> vars = new ArrayList<Variable>(variables.values());
+        HashMap<String, Integer> index = indexVariables();
+        int n = vars.size();
+        // references.get(i) holds the variables whose values variable i takes, in the order referenced
+        ArrayList<ArrayList<Integer>> references = new ArrayList<ArrayList<Integer>>(n);
+        for (int i = 0; i < n; i++) {
+            ArrayList<Integer> referenced = new ArrayList<Integer>(0);
+            Variable var = vars.get(i);
+            Iterator<String> values = var.values.iterator();
+            while (values.hasNext()) {
+                String value = values.next();
+                if (!value.startsWith(REFERENCE_PREFIX)) {
+                    continue;
+                }
+                values.remove();
+                String name = value.substring(REFERENCE_PREFIX.length());
+                Integer source = index.get(name);
+                if (source == null) {
+                    logger.warn("{} takes the value of unknown variable {}", var.name, name);
+                } else if (source != i) {
+                    referenced.add(source);
+                }
+            }
+            references.add(referenced);
+        }
 
-            for(int i=0; i<var.values.size(); i++){
-                String s = var.values.get(i);
-                if (s.startsWith("^VAR")){
-                    var.values.remove(i);
-                    i--;
-                    s = s.substring(4);
-                    for (String val : variables.get(s).values){
-                        if(!var.values.contains(val)){
-                            var.values.add(val);
-                        }
+        // Iterative Tarjan, so long chains of references can't overflow the stack
+        int[] number = new int[n];
+        int[] low = new int[n];
+        int[] next = new int[n];
+        int[] component = new int[n];
+        Arrays.fill(number, -1);
+        boolean[] open = new boolean[n];
+        ArrayDeque<Integer> path = new ArrayDeque<Integer>();
+        ArrayDeque<Integer> unfinished = new ArrayDeque<Integer>();
+        int visited = 0;
+        int components = 0;
+        for (int start = 0; start < n; start++) {
+            if (number[start] != -1) {
+                continue;
+            }
+            number[start] = low[start] = visited++;
+            open[start] = true;
+            unfinished.push(start);
+            path.push(start);
+            while (!path.isEmpty()) {
+                int v = path.peek();
+                ArrayList<Integer> referenced = references.get(v);
+                if (next[v] < referenced.size()) {
+                    int w = referenced.get(next[v]++);
+                    if (number[w] == -1) {
+                        number[w] = low[w] = visited++;
+                        open[w] = true;
+                        unfinished.push(w);
+                        path.push(w);
+                    } else if (open[w]) {
+                        low[v] = Math.min(low[v], number[w]);
                     }
+                    continue;
+                }
+                path.pop();
+                if (!path.isEmpty()) {
+                    low[path.peek()] = Math.min(low[path.peek()], low[v]);
+                }
+                if (low[v] == number[v]) {
+                    ArrayList<Integer> members = new ArrayList<Integer>();
+                    int w;
+                    do {
+                        w = unfinished.pop();
+                        open[w] = false;
+                        component[w] = components;
+                        members.add(w);
+                    } while (w != v);
+                    mergeDomains(vars, references, members, component);
+                    components++;
                 }
             }
         }
+    }
 
+    /**
+     * Gives the variables of one strongly connected component their domain. The components they
+     * reference outside this one are already finished.
+     */
+    private static void mergeDomains(ArrayList<Variable> vars, ArrayList<ArrayList<Integer>> references,
+                                     ArrayList<Integer> members, int[] component){
+        if (members.size() == 1) {
+            Variable var = vars.get(members.get(0));
+            for (int source : references.get(members.get(0))) {
+                var.values.addAll(vars.get(source).values);
+            }
+            return;
+        }
+        Collections.sort(members);
+        LinkedHashSet<String> domain = new LinkedHashSet<String>();
+        for (int member : members) {
+            domain.addAll(vars.get(member).values);
+        }
+        int id = component[members.get(0)];
+        for (int member : members) {
+            for (int source : references.get(member)) {
+                if (component[source] != id) {
+                    domain.addAll(vars.get(source).values);
+                }
+            }
+        }
+        for (int member : members) {
+            vars.get(member).values.addAll(domain);
+        }
+    }
+
+    /**
+     * Gives every variable a type and records it in mapNameToType. A variable whose values don't
+     * decide its type takes the type of the variables typeGraph links it to: union-find joins the
+     * untyped variables linked to each other, and each such class takes the type of the first typed
+     * variable, in insertion order, linked to one of its members. Variables still untyped are
+     * symbolic constants.
+     */
+    public void resolveTypes(){
+        ArrayList<Variable> vars = new ArrayList<Variable>(variables.values());
+        HashMap<String, Integer> index = indexVariables();
+        for (Variable var : vars) {
+            var.generateType();
+        }
+
+        int[] parent = new int[vars.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        for (int i = 0; i < vars.size(); i++) {
+            if (vars.get(i).varType != Variable.INVALID) {
+                continue;
+            }
+            for (int j : linkedVariables(vars.get(i), index)) {
+                if (vars.get(j).varType == Variable.INVALID) {
+                    union(parent, i, j);
+                }
+            }
+        }
+
+        int[] classType = new int[vars.size()];
+        Arrays.fill(classType, Variable.INVALID);
+        for (int i = 0; i < vars.size(); i++) {
+            int type = vars.get(i).varType;
+            if (type == Variable.INVALID) {
+                continue;
+            }
+            for (int j : linkedVariables(vars.get(i), index)) {
+                int root = find(parent, j);
+                if (vars.get(j).varType == Variable.INVALID && classType[root] == Variable.INVALID) {
+                    classType[root] = type;
+                }
+            }
+        }
+
+        for (int i = 0; i < vars.size(); i++) {
+            Variable var = vars.get(i);
+            if (var.varType == Variable.INVALID) {
+                var.varType = classType[find(parent, i)];
+            }
+            mapNameToType.put(var.name, var.varType);
+            if (var.varType == Variable.INVALID) {
+                var.varType = Variable.S_CONST;
+            }
+        }
+    }
+
+    private HashMap<String, Integer> indexVariables(){
+        HashMap<String, Integer> index = new HashMap<String, Integer>();
+        for (String varName : variables.keySet()) {
+            index.put(varName, index.size());
+        }
+        return index;
     }
-    public void removeRule(String ruleName){
 
-        for(int i=0; i < rules.size(); i++){
-            if(rules.get(i).ruleName.equals(ruleName)){
-                rules.remove(i);
-                break;
+    /**
+     * Indexes of the variables typeGraph links var to
+     */
+    private ArrayList<Integer> linkedVariables(Variable var, HashMap<String, Integer> index){
+        ArrayList<Integer> linked = new ArrayList<Integer>();
+        ArrayList<String> nodes = typeGraph.get(var.name);
+        if (nodes != null) {
+            for (String node : nodes) {
+                Integer j = index.get(node);
+                if (j != null) {
+                    linked.add(j);
+                }
             }
         }
+        return linked;
+    }
+
+    private static int find(int[] parent, int i){
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
 
+    private static void union(int[] parent, int a, int b){
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        // The lower index becomes the root, so the classes don't depend on the order of the links
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+        } else if (rootB < rootA) {
+            parent[rootA] = rootB;
+        }
+    }
+
+    public void removeRule(String ruleName){
+        List<Rule> named = rulesByName.get(ruleName);
+        if (named == null) {
+            return;
+        }
+        Rule rule = named.remove(0);
+        if (named.isEmpty()) {
+            rulesByName.remove(ruleName);
+        }
+        removeSame(rules, rule);
+        removeSame(proposeRules, rule);
+        removeSame(applyRules, rule);
+        removeSame(elaborateRules, rule);
+    }
+
+    private static void removeSame(List<Rule> list, Rule rule){
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == rule) {
+                list.remove(i);
+                return;
+            }
+        }
     }
 
     public void addVariableValue(String varName, String varValue){
         if(variables.containsKey(varName)){
-            variables.get(varName).addValue(varValue);
+            variables.get(varName).addValue(symbols.intern(varValue));
         }else{
-            Variable v = new Variable(varName);
-            v.addValue(varValue);
-            variables.put(varName, v);
+            Variable v = new Variable(symbols.intern(varName));
+            v.addValue(symbols.intern(varValue));
+            variables.put(v.name, v);
         }
     }
 
 
     public void createNewRule(String name){
-        rules.add(new Rule(name, variables));
+        addRule(new Rule(name, variables, symbols));
     }
 
-    public Rule getRuleByName(String name){
-        for(Rule rule : rules){
-            if(rule.ruleName.equals(name)){
-                return rule;
-            }
+    /**
+     * Appends a rule and indexes it by name and role. Every rule is added here.
+     */
+    public void addRule(Rule rule){
+        if (rule.symbols != symbols) {
+            rule.share(symbols);
+        }
+        rules.add(rule);
+        rulesByName.computeIfAbsent(rule.ruleName, k -> new ArrayList<>(1)).add(rule);
+        if (rule.ruleName.startsWith(PROPOSE_PREFIX)) {
+            proposeRules.add(rule);
+        }
+        if (rule.ruleName.startsWith(APPLY_PREFIX)) {
+            applyRules.add(rule);
         }
-        return null;
+        if (rule.ruleName.contains(ELABORATE_MARKER)) {
+            elaborateRules.add(rule);
+        }
+    }
+
+    /**
+     * The first rule with the given name, or null
+     */
+    public Rule getRuleByName(String name){
+        List<Rule> named = rulesByName.get(name);
+        return (named == null) ? null : named.get(0);
+    }
+
+    /**
+     * All rules with the given name, in source order
+     */
+    public List<Rule> getRulesByName(String name){
+        List<Rule> named = rulesByName.get(name);
+        return (named == null) ? Collections.emptyList() : Collections.unmodifiableList(named);
+    }
+
+    /**
+     * Rules whose name starts with propose*, in source order
+     */
+    public List<Rule> getProposeRules(){
+        return Collections.unmodifiableList(proposeRules);
+    }
+
+    /**
+     * Rules whose name starts with apply*, in source order
+     */
+    public List<Rule> getApplyRules(){
+        return Collections.unmodifiableList(applyRules);
+    }
+
+    /**
+     * Rules whose name contains elaborate, in source order
+     */
+    public List<Rule> getElaborateRules(){
+        return Collections.unmodifiableList(elaborateRules);
+    }
+
+    /**
+     * The apply*initialize rules, normally one
+     */
+    public List<Rule> getInitializeRules(){
+        return getRulesByName(INITIALIZE_RULE);
     }
 }
@@ -0,0 +1,142 @@
+package edu.fit.assist.translator.soar;
+import edu.fit.assist.translator.gen.SoarParser;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The rules of a single production, with every change {@link Visitor} makes to the shared variables
+ * and typeGraph recorded so it can be replayed onto the merged {@link SoarRules} in source order.
+ * Used by {@link ParallelRuleParser} and {@link IncrementalRuleParser}.
+ */
+class SoarRulesFragment extends SoarRules {
+    private static final int VALUE = 0, TYPE_NODE = 1, TYPE_EDGE_IF_VARIABLE = 2, INITIAL_VALUE = 3;
+
+    // Parse tree of the production, null when the fragment was restored from the cache
+    final SoarParser.Soar_productionContext production;
+    private final List<Integer> kinds = new ArrayList<>();
+    private final List<String> arguments = new ArrayList<>();
+
+    SoarRulesFragment(SoarParser.Soar_productionContext production) {
+        this.production = production;
+    }
+
+    /**
+     * Visit one production into a new fragment.
+     */
+    static SoarRulesFragment visit(Visitor<?> visitor, SoarParser.Soar_productionContext production) {
+        SoarRulesFragment fragment = new SoarRulesFragment(production);
+        visitor.rules = fragment;
+        visitor.visit(production);
+        return fragment;
+    }
+
+    String ruleName() {
+        return rules.get(0).ruleName;
+    }
+
+    @Override
+    public void addVariableValue(String varName, String varValue) {
+        super.addVariableValue(varName, varValue);
+        record(VALUE, varName, varValue);
+    }
+
+    @Override
+    public void addTypeNode(String name1, String name2) {
+        super.addTypeNode(name1, name2);
+        record(TYPE_NODE, name1, name2);
+    }
+
+    @Override
+    public void addTypeEdgeIfVariable(String name, String value) {
+        // Depends on the variables of earlier productions, so it is only decided when merging
+        record(TYPE_EDGE_IF_VARIABLE, name, value);
+    }
+
+    @Override
+    public void setInitialValue(String varName, String value) {
+        super.setInitialValue(varName, value);
+        record(INITIAL_VALUE, varName, value);
+    }
+
+    private void record(int kind, String a, String b) {
+        kinds.add(kind);
+        arguments.add(a);
+        arguments.add(b);
+    }
+
+    /**
+     * Add the rule and replay the recorded changes onto target. A production that reuses the name
+     * of an earlier one is visited again against target instead, since the visitor then changes
+     * the earlier rule.
+     * @param names the rule names already in target
+     * @param visitor a visitor whose rules are target
+     * @return false if the production had to be visited again but has no parse tree
+     */
+    boolean mergeInto(SoarRules target, Set<String> names, Visitor<?> visitor) {
+        if (!names.add(ruleName())) {
+            if (production == null) {
+                return false;
+            }
+            visitor.visit(production);
+            return true;
+        }
+        for (Rule rule : rules) {
+            rule.variableMap = target.variables;
+            target.addRule(rule);
+        }
+        for (int i = 0; i < kinds.size(); i++) {
+            String a = arguments.get(2 * i);
+            String b = arguments.get(2 * i + 1);
+            switch (kinds.get(i)) {
+                case VALUE:
+                    target.addVariableValue(a, b);
+                    break;
+                case TYPE_NODE:
+                    target.addTypeNode(a, b);
+                    break;
+                case TYPE_EDGE_IF_VARIABLE:
+                    target.addTypeEdgeIfVariable(a, b);
+                    break;
+                default:
+                    target.setInitialValue(a, b);
+                    break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Serializable form of a fragment, without its parse tree.
+     */
+    static class Entry implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final Rule rule;
+        final int[] kinds;
+        final String[] arguments;
+        // Time it took to parse and visit the production
+        final long nanos;
+
+        Entry(SoarRulesFragment fragment, long nanos) {
+            this.rule = fragment.rules.get(0);
+            this.kinds = fragment.kinds.stream().mapToInt(Integer::intValue).toArray();
+            this.arguments = fragment.arguments.toArray(new String[0]);
+            this.nanos = nanos;
+        }
+
+        SoarRulesFragment restore() {
+            SoarRulesFragment fragment = new SoarRulesFragment(null);
+            fragment.addRule(rule);
+            for (int kind : kinds) {
+                fragment.kinds.add(kind);
+            }
+            for (String argument : arguments) {
+                fragment.arguments.add(argument);
+            }
+            return fragment;
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package edu.fit.assist.translator.soar;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CodePointBuffer;
+import org.antlr.v4.runtime.CodePointCharStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads a Soar agent without booting JSoar and its Tcl interpreter.
+ *
+ * Only the commands most load trees use are understood: source, pushd, popd and sp {...}. Every
+ * file is read and split into commands on a background thread as soon as the file that sources it
+ * has been read, so the whole tree is read in parallel while the commands are still executed in
+ * source order. Like JSoar, source runs a file from its own directory and a production that is
+ * defined again replaces the earlier one.
+ *
+ * Anything else (other commands, Tcl variables or substitutions, quoted productions) makes
+ * {@link #load(String)} return null so the caller can fall back to JSoar.
+ *
+ * The productions are returned as written. JSoar prints them with dot notation expanded and one
+ * attribute per action, so the rules built from them can differ, and loading is only done this way
+ * when asked for (--frontend=source).
+ *
+ * {@link #scan(String)} only follows source, pushd and popd and skips other commands, to find the
+ * files a load tree reaches even when it has to be loaded with JSoar.
+ */
+public class SoarSourceLoader {
+    private static final Logger logger = LoggerFactory.getLogger(SoarSourceLoader.class);
+
+    // Initial size of the code point buffer the productions are copied into; it grows as needed
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+
+    // Files read so far, keyed by absolute normalized path
+    private final ConcurrentHashMap<Path, CompletableFuture<SourceFile>> files = new ConcurrentHashMap<>();
+    // Working directory stack shared by source, pushd and popd
+    private final Deque<Path> directories = new ArrayDeque<>();
+    // Files currently being sourced, to reject recursive source loops
+    private final Set<Path> active = new HashSet<>();
+    // Production text by name, in the order the productions were (re)defined
+    private final LinkedHashMap<String, String> productions = new LinkedHashMap<>();
+    // Content digest of every file sourced, in the order the files were first sourced
+    private final LinkedHashMap<Path, byte[]> sourced = new LinkedHashMap<>();
+    // Only follow source, pushd and popd
+    private boolean scanning;
+
+    /**
+     * Load all productions reachable from the given file as a stream the SoarLexer can read directly,
+     * or null if the files use a command this loader does not understand.
+     */
+    public static CharStream load(String path) {
+        return new SoarSourceLoader().loadProductions(path);
+    }
+
+    /**
+     * Same as {@link #load(String)}, reusing the files this loader has already read.
+     */
+    public CharStream loadProductions(String path) {
+        try {
+            run(path, false);
+            return toCharStream(path);
+        } catch (UnsupportedSourceException | InvalidPathException e) {
+            logger.info("Loading {} with JSoar: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The SHA-256 digest of every file the load tree sources, in source order, or null if that
+     * cannot be told without running the files (substitutions in source, pushd or popd, or other
+     * commands that run source or use substitutions). Productions are skipped.
+     */
+    public Map<Path, byte[]> scan(String path) {
+        try {
+            run(path, true);
+            return new LinkedHashMap<>(sourced);
+        } catch (UnsupportedSourceException | InvalidPathException e) {
+            logger.info("Cannot tell which files {} sources: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private void run(String path, boolean scanning) {
+        this.scanning = scanning;
+        directories.clear();
+        active.clear();
+        productions.clear();
+        sourced.clear();
+        source(Paths.get(path));
+    }
+
+    private void source(Path path) {
+        Path file = resolve(path);
+        if (!active.add(file)) {
+            throw new UnsupportedSourceException("recursive source of " + file);
+        }
+        int depth = directories.size();
+        directories.push(directoryOf(file));
+        SourceFile contents = await(fetch(file), file);
+        sourced.putIfAbsent(file, contents.digest);
+        for (Command command : contents.commands) {
+            execute(command, file);
+        }
+        if (directories.size() != depth + 1) {
+            throw new UnsupportedSourceException("unbalanced pushd/popd in " + file);
+        }
+        directories.pop();
+        active.remove(file);
+    }
+
+    private void execute(Command command, Path file) {
+        boolean followed = command.name.equals("source") || command.name.equals("pushd") || command.name.equals("popd");
+        if (scanning && !followed) {
+            // Productions can't source files. Other commands are skipped unless they could source files themselves
+            if (!command.name.equals("sp")
+                    && (command.substituted || command.arguments.stream().anyMatch(SoarSourceLoader::runsSource))) {
+                throw new UnsupportedSourceException("'" + command.name + "' may source files at " + file + ":" + command.line);
+            }
+            return;
+        }
+        if (command.substituted) {
+            throw new UnsupportedSourceException("Tcl substitution in '" + command.name + "' at " + file + ":" + command.line);
+        }
+        switch (command.name) {
+            case "sp":
+                String body = command.singleArgument(file);
+                if (!body.startsWith("{")) {
+                    throw new UnsupportedSourceException("quoted production at " + file + ":" + command.line);
+                }
+                String name = productionName(body);
+                if (name.isEmpty()) {
+                    throw new UnsupportedSourceException("production without a name at " + file + ":" + command.line);
+                }
+                // A redefined production replaces the old one and moves to the end, as in JSoar
+                productions.remove(name);
+                productions.put(name, "sp " + body + "\n");
+                break;
+            case "source":
+                source(Paths.get(unbrace(command.singleArgument(file))));
+                break;
+            case "pushd":
+                directories.push(resolve(Paths.get(unbrace(command.singleArgument(file)))));
+                break;
+            case "popd":
+                if (!command.arguments.isEmpty() || directories.size() < 2) {
+                    throw new UnsupportedSourceException("popd at " + file + ":" + command.line);
+                }
+                directories.pop();
+                break;
+            default:
+                throw new UnsupportedSourceException("unknown command '" + command.name + "' at " + file + ":" + command.line);
+        }
+    }
+
+    /**
+     * Start reading a file and, once it is split into commands, the files it sources.
+     */
+    private CompletableFuture<SourceFile> fetch(Path file) {
+        return files.computeIfAbsent(file, f -> CompletableFuture.supplyAsync(() -> {
+            byte[] bytes = readFile(f);
+            List<Command> commands = parse(new String(bytes, StandardCharsets.UTF_8), f);
+            try {
+                prefetch(commands, directoryOf(f));
+            } catch (InvalidPathException e) {
+                // reported when the command is executed
+            }
+            return new SourceFile(sha256(bytes), commands);
+        }));
+    }
+
+    /**
+     * Replay the pushd/popd of a file to find the files it sources and start reading them early.
+     * A wrong guess only costs a sequential read later.
+     */
+    private void prefetch(List<Command> commands, Path directory) {
+        Deque<Path> stack = new ArrayDeque<>();
+        stack.push(directory);
+        for (Command command : commands) {
+            if (command.substituted || (command.arguments.size() != 1 && !command.name.equals("popd"))) {
+                continue;
+            }
+            switch (command.name) {
+                case "source":
+                    fetch(stack.peek().resolve(unbrace(command.arguments.get(0))).toAbsolutePath().normalize());
+                    break;
+                case "pushd":
+                    stack.push(stack.peek().resolve(unbrace(command.arguments.get(0))).toAbsolutePath().normalize());
+                    break;
+                case "popd":
+                    if (stack.size() == 1) {
+                        return;
+                    }
+                    stack.pop();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static byte[] readFile(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SourceFile await(CompletableFuture<SourceFile> future, Path file) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UnsupportedSourceException) {
+                throw (UnsupportedSourceException) e.getCause();
+            }
+            // Let JSoar report missing or unreadable files
+            throw new UnsupportedSourceException("could not read " + file + ": " + e.getCause().getMessage());
+        }
+    }
+
+    private Path resolve(Path path) {
+        Path base = directories.isEmpty() ? Paths.get("") : directories.peek();
+        return base.resolve(path).toAbsolutePath().normalize();
+    }
+
+    private static Path directoryOf(Path file) {
+        Path parent = file.getParent();
+        return (parent != null) ? parent : file.toAbsolutePath().getRoot();
+    }
+
+    private CharStream toCharStream(String sourceName) {
+        CodePointBuffer.Builder buffer = CodePointBuffer.builder(INITIAL_BUFFER_SIZE);
+        char[] scratch = new char[1024];
+        for (String production : productions.values()) {
+            scratch = Input.append(buffer, production, scratch);
+        }
+        return CodePointCharStream.fromBuffer(buffer.build(), sourceName);
+    }
+
+    // First word after the opening brace of an sp body
+    private static String productionName(String body) {
+        int start = 1;
+        while (start < body.length() && Character.isWhitespace(body.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < body.length() - 1 && !Character.isWhitespace(body.charAt(end))) {
+            end++;
+        }
+        return body.substring(start, end);
+    }
+
+    /**
+     * Whether a command argument, such as a proc body, contains a source command. Only a whole Tcl word
+     * counts, so attribute names like ^source or apply*source-select don't.
+     */
+    static boolean runsSource(String argument) {
+        int from = 0;
+        while ((from = argument.indexOf("source", from)) >= 0) {
+            int end = from + "source".length();
+            if ((from == 0 || isWordBoundary(argument.charAt(from - 1)))
+                    && (end == argument.length() || isWordBoundary(argument.charAt(end)))) {
+                return true;
+            }
+            from = end;
+        }
+        return false;
+    }
+
+    private static boolean isWordBoundary(char c) {
+        return Character.isWhitespace(c) || c == '{' || c == '}' || c == '[' || c == ']' || c == ';' || c == '"';
+    }
+
+    private static String unbrace(String word) {
+        return word.startsWith("{") ? word.substring(1, word.length() - 1) : word;
+    }
+
+    /**
+     * Split a file into commands using the Tcl word rules the supported commands need: words are
+     * separated by blanks, commands by newlines or ';', {...} groups nest and keep their braces,
+     * "..." groups are plain strings and # starts a comment where a command could start.
+     */
+    static List<Command> parse(String text, Path file) {
+        List<Command> commands = new ArrayList<>();
+        List<String> words = new ArrayList<>();
+        boolean substituted = false;
+        int line = 1;
+        int commandLine = 1;
+        int i = 0;
+        int n = text.length();
+        while (i < n) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == ';') {
+                if (c == '\n') {
+                    line++;
+                }
+                i++;
+                addCommand(commands, words, commandLine, substituted);
+                substituted = false;
+            } else if (c == ' ' || c == '\t' || c == '\r' || c == '\f') {
+                i++;
+            } else if (c == '\\' && i + 1 < n && text.charAt(i + 1) == '\n') {
+                // line continuation
+                line++;
+                i += 2;
+            } else if (c == '#' && words.isEmpty()) {
+                while (i < n && text.charAt(i) != '\n') {
+                    i++;
+                }
+            } else {
+                if (words.isEmpty()) {
+                    commandLine = line;
+                }
+                int start = i;
+                if (c == '{') {
+                    int depth = 0;
+                    for (; i < n; i++) {
+                        char d = text.charAt(i);
+                        if (d == '\\') {
+                            i++;
+                        } else if (d == '{') {
+                            depth++;
+                        } else if (d == '}' && --depth == 0) {
+                            break;
+                        } else if (d == '\n') {
+                            line++;
+                        }
+                    }
+                    if (i >= n) {
+                        throw new UnsupportedSourceException("missing close-brace at " + file + ":" + commandLine);
+                    }
+                    i++;
+                    words.add(text.substring(start, i));
+                } else if (c == '"') {
+                    for (i++; i < n && text.charAt(i) != '"'; i++) {
+                        substituted |= isSubstitution(text.charAt(i));
+                        if (text.charAt(i) == '\n') {
+                            line++;
+                        }
+                    }
+                    if (i >= n) {
+                        throw new UnsupportedSourceException("missing close-quote at " + file + ":" + commandLine);
+                    }
+                    i++;
+                    words.add(text.substring(start + 1, i - 1));
+                } else {
+                    for (; i < n; i++) {
+                        char d = text.charAt(i);
+                        if (d == ' ' || d == '\t' || d == '\r' || d == '\f' || d == '\n' || d == ';') {
+                            break;
+                        }
+                        substituted |= isSubstitution(d);
+                    }
+                    words.add(text.substring(start, i));
+                }
+            }
+        }
+        addCommand(commands, words, commandLine, substituted);
+        return commands;
+    }
+
+    // Variables, command substitution and escapes need a real Tcl interpreter
+    private static boolean isSubstitution(char c) {
+        return c == '$' || c == '[' || c == '\\';
+    }
+
+    private static void addCommand(List<Command> commands, List<String> words, int line, boolean substituted) {
+        if (!words.isEmpty()) {
+            commands.add(new Command(words.get(0), new ArrayList<>(words.subList(1, words.size())), line, substituted));
+            words.clear();
+        }
+    }
+
+    private static class SourceFile {
+        final byte[] digest;
+        final List<Command> commands;
+
+        SourceFile(byte[] digest, List<Command> commands) {
+            this.digest = digest;
+            this.commands = commands;
+        }
+    }
+
+    static class Command {
+        final String name;
+        final List<String> arguments;
+        final int line;
+        // A word outside braces uses $, [ or \
+        final boolean substituted;
+
+        Command(String name, List<String> arguments, int line, boolean substituted) {
+            this.name = name;
+            this.arguments = arguments;
+            this.line = line;
+            this.substituted = substituted;
+        }
+
+        String singleArgument(Path file) {
+            if (arguments.size() != 1) {
+                throw new UnsupportedSourceException(name + " with " + arguments.size() + " arguments at " + file + ":" + line);
+            }
+            return arguments.get(0);
+        }
+    }
+
+    /**
+     * Thrown when the files need more than this loader understands.
+     */
+    static class UnsupportedSourceException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedSourceException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package edu.fit.assist.translator.soar;
+
+import org.slf4j.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of what each translation stage did, Example: how many propose/apply pairs were merged.
+ * Counting costs one add, so the counters stay on at any log level and {@link #logSummary} reports
+ * them once at the end in place of the per-rule debug lines.
+ */
+final class StageCounters {
+    // In the order the counters were created, which groups them by the class that owns them
+    private static final List<Counter> COUNTERS = new CopyOnWriteArrayList<>();
+
+    private StageCounters() {
+    }
+
+    static Counter counter(String stage, String name) {
+        Counter counter = new Counter(stage, name);
+        COUNTERS.add(counter);
+        return counter;
+    }
+
+    /**
+     * Log one line per stage with its counts, skipping stages that counted nothing
+     */
+    static void logSummary(Logger logger) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        Map<String, StringBuilder> stages = new LinkedHashMap<>();
+        Map<String, Boolean> counted = new LinkedHashMap<>();
+        for (Counter counter : COUNTERS) {
+            long count = counter.get();
+            StringBuilder line = stages.computeIfAbsent(counter.stage, s -> new StringBuilder());
+            if (line.length() > 0) {
+                line.append(", ");
+            }
+            line.append(counter.name).append('=').append(count);
+            counted.merge(counter.stage, count > 0, Boolean::logicalOr);
+        }
+        for (Map.Entry<String, StringBuilder> stage : stages.entrySet()) {
+            if (counted.get(stage.getKey())) {
+                logger.info("{}: {}", stage.getKey(), stage.getValue());
+            }
+        }
+    }
+
+    static final class Counter {
+        final String stage;
+        final String name;
+        private final LongAdder count = new LongAdder();
+
+        private Counter(String stage, String name) {
+            this.stage = stage;
+            this.name = name;
+        }
+
+        void increment() {
+            count.increment();
+        }
+
+        void add(long n) {
+            count.add(n);
+        }
+
+        long get() {
+            return count.sum();
+        }
+    }
+}
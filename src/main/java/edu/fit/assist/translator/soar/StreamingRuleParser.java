@@ -0,0 +1,101 @@
+package edu.fit.assist.translator.soar;
+import edu.fit.assist.translator.gen.SoarLexer;
+import edu.fit.assist.translator.gen.SoarParser;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CommonTokenFactory;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ListTokenSource;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.UnbufferedTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses and visits one production at a time, so memory use depends on the largest production
+ * rather than on the size of the agent.
+ *
+ * Tokens come from an {@link UnbufferedTokenStream} that only keeps the tokens of the production
+ * being parsed, and the lexer copies the text of each token so no token refers back into the input.
+ * Each production is parsed on its own with SLL prediction, handed to the {@link Visitor} and then
+ * dropped. A production that SLL rejects is cut out at its closing brace and parsed again with full
+ * LL and error recovery like {@link RuleParser} does, so a syntax error can't swallow the productions
+ * after it.
+ */
+public class StreamingRuleParser {
+
+    private static final int OPEN_BRACE = tokenType("'{'");
+    private static final int CLOSE_BRACE = tokenType("'}'");
+
+    public static SoarRules parseRules(CharStream input) {
+        SoarLexer lexer = new SoarLexer(input);
+        lexer.setTokenFactory(new CommonTokenFactory(true));
+        UnbufferedTokenStream<Token> tokens = new UnbufferedTokenStream<>(lexer);
+        SoarParser parser = new SoarParser(tokens);
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+
+        Visitor<?> visitor = new Visitor<>();
+        visitor.rules = new SoarRules();
+        RuleParser.ParseStats stats = new RuleParser.ParseStats();
+        while (tokens.LA(1) != Token.EOF) {
+            // Hold on to the tokens of this production until it is parsed, in case LL has to parse it again
+            int marker = tokens.mark();
+            int start = tokens.index();
+            long startNanos = System.nanoTime();
+            try {
+                SoarParser.Soar_productionContext production = parser.soar_production();
+                stats.addSll(1, System.nanoTime() - startNanos);
+                visitor.visit(production);
+            } catch (ParseCancellationException e) {
+                tokens.seek(start);
+                List<Token> productionTokens = productionTokens(tokens);
+                // The stream can only seek to tokens it has buffered, so step over the last one
+                tokens.seek(start + productionTokens.size() - 1);
+                tokens.consume();
+
+                // Both stages again on this production alone, so LL reports and recovers from its errors
+                stats.addSll(0, System.nanoTime() - startNanos);
+                SoarParser.SoarContext tree = RuleParser.parse(
+                        new CommonTokenStream(new ListTokenSource(productionTokens, input.getSourceName())), stats);
+                visitor.visit(tree);
+            } finally {
+                tokens.release(marker);
+            }
+        }
+        stats.report();
+        return visitor.rules;
+    }
+
+    /**
+     * Tokens from the current position up to and including the brace that closes the production,
+     * or up to the end of the input if the braces don't balance.
+     */
+    private static List<Token> productionTokens(UnbufferedTokenStream<Token> tokens) {
+        List<Token> production = new ArrayList<>();
+        int depth = 0;
+        for (int i = 1; tokens.LA(i) != Token.EOF; i++) {
+            Token token = tokens.LT(i);
+            production.add(token);
+            if (token.getType() == OPEN_BRACE) {
+                depth++;
+            } else if (token.getType() == CLOSE_BRACE && --depth <= 0) {
+                break;
+            }
+        }
+        return production;
+    }
+
+    private static int tokenType(String literal) {
+        for (int type = 1; type <= SoarLexer.VOCABULARY.getMaxTokenType(); type++) {
+            if (literal.equals(SoarLexer.VOCABULARY.getLiteralName(type))) {
+                return type;
+            }
+        }
+        throw new IllegalStateException("No token " + literal + " in the Soar grammar");
+    }
+}
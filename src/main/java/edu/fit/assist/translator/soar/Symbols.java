@@ -0,0 +1,33 @@
+package edu.fit.assist.translator.soar;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The symbol table of one {@link SoarRules}. Attribute, variable and constant names repeat in
+ * thousands of rules (Example: "state_action"), so each one is stored once and every rule refers to
+ * the same String. The table is dropped with the rules it belongs to. Safe for concurrent use, since
+ * rules can still add symbols while the output is built on the fork-join pool; the fragments
+ * {@link ParallelRuleParser} builds on several threads keep their own tables all the same, and their
+ * rules are shared into the merged table when they are added to it.
+ */
+public final class Symbols {
+    private final ConcurrentHashMap<String, String> table = new ConcurrentHashMap<>();
+
+    /**
+     * The shared String equal to symbol
+     */
+    public String intern(String symbol) {
+        if (symbol == null) {
+            return null;
+        }
+        String shared = table.putIfAbsent(symbol, symbol);
+        return (shared != null) ? shared : symbol;
+    }
+
+    /**
+     * Number of distinct symbols seen so far
+     */
+    public int size() {
+        return table.size();
+    }
+}
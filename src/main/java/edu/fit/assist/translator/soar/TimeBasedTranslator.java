@@ -1,5 +1,9 @@
 package edu.fit.assist.translator.soar;
 
+import edu.fit.assist.translator.soar.ModelFacts.TransitionInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -20,19 +24,37 @@ import java.util.stream.Collectors;
  * - Time windows and intervals
  */
 public class TimeBasedTranslator {
+    private static final Logger logger = LoggerFactory.getLogger(TimeBasedTranslator.class);
+    private static final String STAGE = "time-based translation";
+    private static final StageCounters.Counter STATE_VARIABLES = StageCounters.counter(STAGE, "state variables");
+    private static final StageCounters.Counter NON_NUMERIC_VARIABLES = StageCounters.counter(STAGE, "non-numeric variables skipped");
+    private static final StageCounters.Counter TIME_WINDOWS = StageCounters.counter(STAGE, "time windows");
+    private static final StageCounters.Counter TRANSITION_MODULES = StageCounters.counter(STAGE, "transition modules");
+    private static final StageCounters.Counter LUMPED_TIME_VALUES = StageCounters.counter(STAGE, "time values lumped");
+    private static final StageCounters.Counter OVERLAPPING_MODULES = StageCounters.counter(STAGE, "modules with overlapping commands");
+    private static final StageCounters.Counter UNCOVERED_MODULES = StageCounters.counter(STAGE, "modules with uncovered states");
+
     private SoarRules rules;
+    private ModelFacts facts;
     private int totalTime = 1200;
     private List<Integer> timeWindows = new ArrayList<>();
     private List<Integer> commitTimes = new ArrayList<>();
     private Map<String, Object> constantValues = new LinkedHashMap<>();
     private PrismConfig config = null;
     private String timeVariableName = PrismConfig.DEFAULT_TIME_VARIABLE;
+    // Lump the quiet stretches between event instants into single steps (--compress-time)
+    private boolean compressTime = false;
+    // What time advances by in one step: 1, or the time_step formula when time is compressed
+    private String timeStep = "1";
 
     // Extracted variable information from Soar
     private Map<String, VariableInfo> stateVariables = new LinkedHashMap<>();
     private Map<String, Integer> monitorConstants = new LinkedHashMap<>();
     private int minAction = Integer.MAX_VALUE;
     private int maxAction = Integer.MIN_VALUE;
+    // The declared range of the action variable, including its initial value
+    private int actionLow = 0;
+    private int actionHigh = 3;
     private int selectActionTrigger = -1;
     private int decideActionTrigger = -1;
     private int maxResponseState = 60;
@@ -81,13 +103,6 @@ public class TimeBasedTranslator {
         return name.replace('-', '_');
     }
 
-    /**
-     * Check if the provided text references the configured time variable name
-     */
-    private boolean containsTimeVariable(String text) {
-        return TranslatorUtils.containsNameVariant(text, timeVariableName);
-    }
-
     public TimeBasedTranslator(SoarRules rules) {
         this.rules = rules;
         extractConfiguration();
@@ -115,6 +130,14 @@ public class TimeBasedTranslator {
         extractConfiguration();
     }
 
+    /**
+     * Advance time from one event instant to the next in a single step wherever nothing but time
+     * changes in between, see {@link #generateTimeStepFormulas}
+     */
+    public void setCompressTime(boolean compressTime) {
+        this.compressTime = compressTime;
+    }
+
     private static PrismConfig loadConfig(String configPath) {
         if (configPath == null) {
             return null;
@@ -122,8 +145,7 @@ public class TimeBasedTranslator {
         try {
             return PrismConfig.loadFromFile(configPath);
         } catch (IOException e) {
-            System.err.println("Warning: Could not load config file " + configPath + ": " + e.getMessage());
-            System.err.println("Falling back to rule-based extraction");
+            logger.warn("Could not load config file {}: {}. Falling back to rule-based extraction", configPath, e.getMessage());
             return null;
         }
     }
@@ -134,28 +156,30 @@ public class TimeBasedTranslator {
      */
     private void extractConfiguration() {
         Integer timeInterval = null;
+        // The time values are only needed to infer the time interval, which a config always gives
+        facts = ModelFacts.analyze(rules, config != null ? null : timeVariableName);
 
         // ALWAYS extract from Soar rules first - this is the primary source
-        for (Rule rule : rules.rules) {
-            if (rule.ruleName.equals("apply*initialize")) {
-                // Extract total time from Soar rules (unless overridden by config)
-                String totalTimeStr = rule.valueMap.get("total-time");
-                if (totalTimeStr != null && config == null) {
-                    try {
-                        totalTime = Integer.parseInt(totalTimeStr);
-                    } catch (NumberFormatException e) {
-                        System.err.println("Could not parse total-time: " + totalTimeStr);
-                    }
+        for (Rule rule : rules.getInitializeRules()) {
+            // Extract total time from Soar rules (unless overridden by config)
+            ValueUpdate totalTimeValue = rule.updates.get("total-time");
+            if (totalTimeValue != null && config == null) {
+                if (totalTimeValue.intValue != null) {
+                    totalTime = totalTimeValue.intValue;
+                } else {
+                    logger.warn("Could not parse total-time: {}", totalTimeValue);
                 }
+            }
 
-                // Store all initialization values as constants from Soar
-                for (Map.Entry<String, String> entry : rule.valueMap.entrySet()) {
-                    constantValues.put(entry.getKey(), entry.getValue());
-                }
+            // Store all initialization values as constants from Soar
+            for (Map.Entry<String, String> entry : rule.valueMap.entrySet()) {
+                constantValues.put(entry.getKey(), entry.getValue());
             }
+        }
 
-            // Look for time-interval in elaborate rules
-            if (rule.ruleName.contains("elaborate") && rule.ruleName.contains("time-interval")) {
+        // Look for time-interval in elaborate rules
+        for (Rule rule : rules.getElaborateRules()) {
+            if (rule.ruleName.contains("time-interval")) {
                 // Check valueMap for ti or time-interval
                 for (Map.Entry<String, String> entry : rule.valueMap.entrySet()) {
                     if (entry.getKey().contains("ti") || entry.getKey().contains("time-interval")) {
@@ -214,41 +238,41 @@ public class TimeBasedTranslator {
      * Builds metadata including name, range, and initial value
      */
     private void extractStateVariables() {
-        for (Rule rule : rules.rules) {
-            if (rule.ruleName.equals("apply*initialize")) {
-                // Extract state variables from valueMap
-                for (Map.Entry<String, String> entry : rule.valueMap.entrySet()) {
-                    String varName = entry.getKey();
-                    String varValue = entry.getValue();
-
-                    // Skip special variables
-                    if (varName.equals("total-time") || varName.equals("time-counter")) {
-                        continue;
-                    }
-
-                    try {
-                        int initValue = parseInitValue(varValue);
+        for (Rule rule : rules.getInitializeRules()) {
+            // Extract state variables from valueMap
+            for (Map.Entry<String, ValueUpdate> entry : rule.updates.entrySet()) {
+                String varName = entry.getKey();
+                ValueUpdate varValue = entry.getValue();
+
+                // Skip special variables
+                if (varName.equals("total-time") || varName.equals("time-counter")) {
+                    continue;
+                }
 
-                        // Infer range based on variable name and init value
-                        int minValue = 0;
-                        int maxValue = inferMaxValue(varName, initValue);
+                try {
+                    int initValue = ModelFacts.parseInitValue(varValue);
 
-                        // Store variable info with normalized name as key
-                        String normalizedName = normalizePrismVariableName(varName);
-                        stateVariables.put(normalizedName, new VariableInfo(varName, minValue, maxValue, initValue));
+                    // Infer range based on variable name and init value
+                    int minValue = 0;
+                    int maxValue = inferMaxValue(varName, initValue);
 
-                        // Special handling for monitor constants
-                        if (varName.equals("name")) {
-                            extractMonitorConstants(rule);
-                        }
+                    // Store variable info with normalized name as key
+                    String normalizedName = normalizePrismVariableName(varName);
+                    stateVariables.put(normalizedName, new VariableInfo(varName, minValue, maxValue, initValue));
+                    STATE_VARIABLES.increment();
 
-                    } catch (NumberFormatException e) {
-                        // Not a numeric variable, skip
-                        System.out.println("DEBUG: Skipping non-numeric variable: " + varName + " = " + varValue);
+                    // Special handling for monitor constants
+                    if (varName.equals("name")) {
+                        extractMonitorConstants(rule);
                     }
+
+                } catch (NumberFormatException e) {
+                    // Not a numeric variable, skip
+                    NON_NUMERIC_VARIABLES.increment();
+                    logger.debug("Skipping non-numeric variable: {} = {}", varName, varValue);
                 }
-                break;
             }
+            break;
         }
 
         // After extraction, discover variable name mappings
@@ -291,12 +315,8 @@ public class TimeBasedTranslator {
             }
         }
 
-        System.out.println("INFO: Discovered variable mappings:");
-        System.out.println("  action -> " + actionVarName);
-        System.out.println("  condition -> " + conditionVarName);
-        System.out.println("  name -> " + nameVarName);
-        System.out.println("  temp_condition -> " + transientConditionVarName);
-        System.out.println("  sampling_flag -> " + samplingFlagVarName);
+        logger.info("Discovered variable mappings: action -> {}, condition -> {}, name -> {}, temp_condition -> {}, sampling_flag -> {}",
+                actionVarName, conditionVarName, nameVarName, transientConditionVarName, samplingFlagVarName);
     }
 
     /**
@@ -334,57 +354,15 @@ public class TimeBasedTranslator {
         return samplingFlagVarName != null ? samplingFlagVarName : "sampling_checked";
     }
 
-    /**
-     * Parse initialization value from Soar (handles "yes", "no", numbers, etc.)
-     */
-    private int parseInitValue(String value) throws NumberFormatException {
-        if (value == null) throw new NumberFormatException("null value");
-
-        // Handle boolean-like values
-        if (value.equals("yes") || value.equals("true")) return 1;
-        if (value.equals("no") || value.equals("false")) return 0;
-
-        // Handle monitor names
-        if (value.equals("mission-monitor")) return 0;
-        if (value.equals("sickness-monitor") || value.equals("condition-monitor")) return 1;
-
-        // Parse as number
-        return Integer.parseInt(value.trim());
-    }
-
     /**
      * Infer maximum value for a variable based on its name and init value
      */
     private int inferMaxValue(String varName, int initValue) {
-        // Check if variable appears in rules to find max value
+        // The largest number the variable is compared with or set to in the rules
         int maxFound = initValue;
-
-        for (Rule rule : rules.rules) {
-            // Check guards and valueMap for this variable
-            for (String guard : rule.guards) {
-                if (guard.contains(varName)) {
-                    // Try to extract comparison values
-                    String[] parts = guard.split("[=<>]");
-                    for (String part : parts) {
-                        try {
-                            int val = Integer.parseInt(part.trim());
-                            maxFound = Math.max(maxFound, val);
-                        } catch (NumberFormatException e) {
-                            // Not a number
-                        }
-                    }
-                }
-            }
-
-            // Check valueMap
-            if (rule.valueMap.containsKey(varName)) {
-                try {
-                    int val = parseInitValue(rule.valueMap.get(varName));
-                    maxFound = Math.max(maxFound, val);
-                } catch (NumberFormatException e) {
-                    // Not a number
-                }
-            }
+        Integer observed = facts.maxObserved(varName);
+        if (observed != null) {
+            maxFound = Math.max(maxFound, observed);
         }
 
         // Default to 1 for boolean-like variables
@@ -398,8 +376,8 @@ public class TimeBasedTranslator {
      */
     private void extractMonitorConstants(Rule rule) {
         // Find monitor constant definitions
-        for (String guard : rule.guards) {
-            if (guard.contains("mission-monitor") || guard.contains("sickness-monitor") || guard.contains("condition-monitor")) {
+        for (Guard guard : rule.guards) {
+            if (guard.mentions("mission-monitor") || guard.mentions("sickness-monitor") || guard.mentions("condition-monitor")) {
                 // Extract from guards or valueMap
             }
         }
@@ -414,9 +392,7 @@ public class TimeBasedTranslator {
      * Extract action range from transition rules
      */
     private void extractActionRange() {
-        List<TransitionInfo> transitions = extractTransitionRules();
-
-        for (TransitionInfo trans : transitions) {
+        for (TransitionInfo trans : facts.transitions) {
             if (trans.toAction >= 0) {
                 minAction = Math.min(minAction, trans.toAction);
                 maxAction = Math.max(maxAction, trans.toAction);
@@ -472,13 +448,11 @@ public class TimeBasedTranslator {
 
         // Extract action triggers from transition guards
         // Look for SS-transition (scan-and-select) and D-transition (deciding)
-        List<TransitionInfo> transitions = extractTransitionRules();
-
         // NEW CYCLE: 0 → 1 → 2 → 3 → 1 → 2 → 3...
         // Default: use initial action state (0) for selecting
         selectActionTrigger = 0;  // Initial state in new cycle
 
-        for (TransitionInfo trans : transitions) {
+        for (TransitionInfo trans : facts.transitions) {
             String name = trans.transitionName.toLowerCase();
 
             // SS-transition: fromActions tells us which states are "selecting" states
@@ -495,57 +469,15 @@ public class TimeBasedTranslator {
             }
         }
 
-        System.out.println("DEBUG: Extracted action triggers - select=" + selectActionTrigger + ", decide=" + decideActionTrigger);
+        logger.debug("Extracted action triggers - select={}, decide={}", selectActionTrigger, decideActionTrigger);
     }
 
     /**
      * Infer time interval by analyzing guards and time-counter operations in rules
      */
     private Integer inferTimeIntervalFromRules() {
-        Set<Integer> timeValues = new TreeSet<>();
-
-        // Scan all rules for time-counter related operations
-        for (Rule rule : rules.rules) {
-            // Check guards for time-counter comparisons
-            for (String guard : rule.guards) {
-                if (containsTimeVariable(guard)) {
-                    // Try to extract numeric values from the guard
-                    String[] parts = guard.split("\\s+");
-                    for (String part : parts) {
-                        try {
-                            int value = Integer.parseInt(part.replaceAll("[^0-9]", ""));
-                            if (value > 0 && value <= totalTime) {
-                                timeValues.add(value);
-                            }
-                        } catch (NumberFormatException e) {
-                            // Not a number, skip
-                        }
-                    }
-                }
-            }
-
-            // Check valueMap for time-counter updates
-            for (Map.Entry<String, String> entry : rule.valueMap.entrySet()) {
-                if (containsTimeVariable(entry.getKey())) {
-                    String value = entry.getValue();
-                    // Check for increment operations like (+ <pdf2> <tc>) or numeric values
-                    if (value.matches(".*\\d+.*")) {
-                        try {
-                            // Extract all numbers from the value
-                            String nums = value.replaceAll("[^0-9]", "");
-                            if (!nums.isEmpty()) {
-                                int val = Integer.parseInt(nums);
-                                if (val > 0 && val <= totalTime) {
-                                    timeValues.add(val);
-                                }
-                            }
-                        } catch (NumberFormatException e) {
-                            // Not a simple number
-                        }
-                    }
-                }
-            }
-        }
+        // The time values that fit in the total time
+        Set<Integer> timeValues = facts.timeValues.headSet(totalTime + 1);
 
         // If we found time values, calculate the interval
         if (!timeValues.isEmpty()) {
@@ -601,6 +533,7 @@ public class TimeBasedTranslator {
         }
 
         timeWindows = windows;
+        TIME_WINDOWS.add(windows.size());
         commitTimes = commits;
     }
 
@@ -609,93 +542,86 @@ public class TimeBasedTranslator {
      */
     public String translateToTimeBased() {
         StringBuilder output = new StringBuilder();
+        translateToTimeBased(PrismEmitter.of(output));
+        return output.toString();
+    }
 
-        output.append("dtmc\n");
-        output.append("//PRISM model generated from Soar cognitive model\n");
-        output.append(String.format("//Total time: %d\n\n", totalTime));
+    /**
+     * Generates the PRISM code into out, module by module, without holding the whole model in memory
+     */
+    public void translateToTimeBased(PrismEmitter out) {
+        out.text("dtmc\n");
+        out.text("//PRISM model generated from Soar cognitive model\n");
+        out.text("//Total time: ").number(totalTime).text("\n\n");
 
         // Generate constants
-        output.append(generateConstants());
-        output.append("\n");
+        generateConstants(out);
+        out.text("\n");
 
-        // Generate time module
-        output.append(generateTimeModule());
-        output.append("\n");
+        // Transitions are needed by the action_state module and the transition modules
+        List<TransitionInfo> transitions = facts.transitions;
+
+        // Compressed time steps by the time_step formula, if any stretch between events is worth lumping
+        timeStep = "1";
+        if (compressTime && generateTimeStepFormulas(out, transitions)) {
+            timeStep = "time_step";
+            out.text("\n");
+        }
 
-        // Extract transitions first (needed by action_state module)
-        List<TransitionInfo> transitions = extractTransitionRules();
+        // Generate time module
+        generateTimeModule(out);
+        out.text("\n");
 
         // Generate action state module (must be before transition modules)
-        output.append(generateActionStateModule(transitions));
-        output.append("\n");
+        generateActionStateModule(out, transitions);
+        out.text("\n");
 
         // Generate condition monitoring module
-        output.append(generateStateMonitoringModule());
-        output.append("\n");
+        generateStateMonitoringModule(out);
+        out.text("\n");
 
         // Generate action transition modules
-        output.append(generateActionModules(transitions));
-        output.append("\n");
+        generateActionModules(out, transitions);
+        out.text("\n");
 
         // Generate response time module (if distributions available)
-        String responseModule = generateResponseTimeModule();
-        if (!responseModule.isEmpty()) {
-            output.append(responseModule);
-            output.append("\n");
+        if (generateResponseTimeModule(out)) {
+            out.text("\n");
         }
 
         // Generate decision error module (if distributions available)
-        String errorModule = generateDecisionErrorModule();
-        if (!errorModule.isEmpty()) {
-            output.append(errorModule);
-            output.append("\n");
+        if (generateDecisionErrorModule(out)) {
+            out.text("\n");
         }
 
         // Generate rewards
-        output.append(generateRewards());
-
-        return output.toString();
+        generateRewards(out);
     }
 
     /**
      * Generate constant definitions
      * Prioritizes constants extracted from Soar rules, supplements with config
      */
-    private String generateConstants() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(String.format("const int TOTAL_TIME = %d;\n", totalTime));
-
-        // Extract module name constants from Soar rules
-        // Look for name values in initialize rule
-        boolean foundMissionMonitor = false;
-        boolean foundSicknessMonitor = false;
-
-        for (Rule rule : rules.rules) {
-            if (rule.ruleName.equals("apply*initialize")) {
-                String nameValue = rule.valueMap.get("name");
-                if (nameValue != null) {
-                    // Found name initialization, use it to define constant
-                    if (nameValue.contains("mission") && !foundMissionMonitor) {
-                        sb.append(String.format("const int mission_monitor  = %d;\n", MISSION_MONITOR));
-                        foundMissionMonitor = true;
-                    }
-                }
-            }
-            // Check for monitor switching rules to find sickness/condition monitor
-            if (rule.ruleName.contains("switch-monitor") || rule.ruleName.contains("sickness")) {
-                if (!foundSicknessMonitor) {
-                    sb.append(String.format("const int sickness_monitor = %d;\n", SICKNESS_MONITOR));
-                    foundSicknessMonitor = true;
-                }
+    private void generateConstants(PrismEmitter out) {
+        out.text("const int TOTAL_TIME = ").number(totalTime).text(";\n");
+
+        // Module name constants the Soar rules define, in the order they define them
+        for (String monitor : facts.monitorConstants) {
+            if (monitor.equals(ModelFacts.MISSION_MONITOR)) {
+                out.text("const int mission_monitor  = ").number(MISSION_MONITOR).text(";\n");
+            } else {
+                out.text("const int sickness_monitor = ").number(SICKNESS_MONITOR).text(";\n");
             }
         }
+        boolean foundMissionMonitor = facts.monitorConstants.contains(ModelFacts.MISSION_MONITOR);
+        boolean foundSicknessMonitor = facts.monitorConstants.contains(ModelFacts.SICKNESS_MONITOR);
 
         // If not found in Soar rules, use defaults
         if (!foundMissionMonitor) {
-            sb.append(String.format("const int mission_monitor  = %d;\n", MISSION_MONITOR));
+            out.text("const int mission_monitor  = ").number(MISSION_MONITOR).text(";\n");
         }
         if (!foundSicknessMonitor) {
-            sb.append(String.format("const int sickness_monitor = %d;\n", SICKNESS_MONITOR));
+            out.text("const int sickness_monitor = ").number(SICKNESS_MONITOR).text(";\n");
         }
 
         // Add probability constants from Soar rules first
@@ -744,7 +670,7 @@ public class TimeBasedTranslator {
                     "  - sicknessProbabilityTable with entries like '0,0,0' (time,currentLevel,nextLevel)");
         }
 
-        sb.append(String.format("const double pdf1 = %.2f;\n", pdf1));
+        out.text("const double pdf1 = ").fixed(pdf1, 2).text(";\n");
 
         // Add any additional constants from config that aren't already defined
         if (config != null && !config.getConstants().isEmpty()) {
@@ -759,39 +685,120 @@ public class TimeBasedTranslator {
                 Object value = entry.getValue();
                 // Check if it's an integer type first, before checking floating point
                 if (value instanceof Integer || value instanceof Long) {
-                    sb.append(String.format("const int %s = %d;\n", name, ((Number)value).intValue()));
+                    out.text("const int ").text(name).text(" = ").number(((Number)value).intValue()).text(";\n");
                 } else if (value instanceof Double || value instanceof Float) {
-                    sb.append(String.format("const double %s = %.2f;\n", name, ((Number)value).doubleValue()));
+                    out.text("const double ").text(name).text(" = ").fixed(((Number)value).doubleValue(), 2).text(";\n");
                 } else {
-                    sb.append(String.format("const %s = %s;\n", name, value));
+                    out.text("const ").text(name).text(" = ").text(String.valueOf(value)).text(";\n");
                 }
             }
         }
 
-        sb.append("\n");
-        return sb.toString();
+        out.text("\n");
     }
 
     /**
      * Generate the time module that increments time counter
      */
-    private String generateTimeModule() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("module time\n");
-        sb.append(String.format("  time_counter : [0..TOTAL_TIME] init 0;\n"));
-        sb.append(String.format("  [sync] time_counter <  TOTAL_TIME -> (time_counter' = time_counter + 1);\n"));
-        sb.append(String.format("  [sync] time_counter =  TOTAL_TIME -> (time_counter' = time_counter);\n"));
-        sb.append("endmodule\n");
-        return sb.toString();
+    private void generateTimeModule(PrismEmitter out) {
+        out.text("module time\n");
+        out.text("  time_counter : [0..TOTAL_TIME] init 0;\n");
+        out.text("  [sync] time_counter <  TOTAL_TIME -> (time_counter' = time_counter + ").text(timeStep).text(");\n");
+        out.text("  [sync] time_counter =  TOTAL_TIME -> (time_counter' = time_counter);\n");
+        out.text("endmodule\n");
+    }
+
+    /**
+     * Write the formulas of compressed time and return true, or write nothing and return false when no
+     * stretch between event instants is long enough to lump.
+     *
+     * The event instants are the time windows, the commit times and TOTAL_TIME: the only instants at
+     * which condition_monitoring does anything. next_event is the first of them at or after the current
+     * time, and time_step jumps there in one step while every other module would keep its state for the
+     * whole stretch: no transition in progress or able to start, and no response about to start or end.
+     * A running response only counts down, so it moves down by time_step with time, but the jump stops at
+     * response_state=1 so that the response completes in a step of its own. In any other state time_step
+     * is 1, as is the step from an event instant, so each event instant is still reached, with the same
+     * distribution over the other variables as when time advances one unit per step.
+     */
+    private boolean generateTimeStepFormulas(PrismEmitter out, List<TransitionInfo> transitions) {
+        TreeSet<Integer> events = new TreeSet<>();
+        events.addAll(timeWindows);
+        events.addAll(commitTimes);
+        events.add(totalTime);
+        events = new TreeSet<>(events.subSet(0, true, totalTime, true));
+
+        // Time values met when the other modules stay idle: 0, the events and the step after each event
+        TreeSet<Integer> visited = new TreeSet<>(events);
+        visited.add(0);
+        for (int event : events) {
+            if (event < totalTime) {
+                visited.add(event + 1);
+            }
+        }
+        int lumped = totalTime + 1 - visited.size();
+        if (lumped <= 0) {
+            logger.info("Compressed time: every time value is an event instant or follows one, advancing time one unit per step");
+            return false;
+        }
+        LUMPED_TIME_VALUES.add(lumped);
+        logger.info("Compressed time: {} event instants, {} of {} time values are skipped while the other modules are idle",
+                events.size(), lumped, totalTime + 1);
+
+        String actionVar = getActionVarName();
+        out.text("// ---- Compressed Time ----\n");
+        out.text("// Quiet stretches between event instants take a single step of time_step time units\n");
+        out.text("formula next_event = ");
+        int period = windowPeriod();
+        SortedSet<Integer> before = events.headSet(totalTime);
+        if (period > 0) {
+            // The window itself, or else the commit that ends it
+            out.text("min(mod(time_counter, ").number(period).text(") = 0 ? time_counter : time_counter + ")
+                    .number(period - 1).text(" - mod(time_counter, ").number(period).text("), TOTAL_TIME);\n");
+        } else if (!before.isEmpty()) {
+            out.text("min(");
+            for (int event : before) {
+                out.text("time_counter <= ").number(event).text(" ? ").number(event).text(" : TOTAL_TIME, ");
+            }
+            out.text("TOTAL_TIME);\n");
+        } else {
+            out.text("TOTAL_TIME;\n");
+        }
+
+        out.text("formula time_idle = ");
+        if (transitions.isEmpty()) {
+            out.text("true");
+        }
+        for (int i = 0; i < transitions.size(); i++) {
+            if (i > 0) out.text(" & ");
+            TransitionInfo info = transitions.get(i);
+            String moduleName = info.transitionName.toLowerCase() + "_transition";
+            out.text(moduleName).text("_ing=0 & ").text(moduleName).text("_done=0");
+            String actionGuard = actionGuard(info);
+            if (!actionGuard.isEmpty()) {
+                out.text(" & !").text(actionGuard.startsWith("(") ? actionGuard : "(" + actionGuard + ")");
+            }
+        }
+        out.text(";\n");
+
+        out.text("formula time_step = (time_counter < next_event & time_idle) ? ");
+        if (hasResponseDistributions()) {
+            out.text("min(next_event - time_counter, response_state > 1 ? response_state - 1 : (response_state = 0 & response_type = 0 & ")
+                    .text(actionVar).text(" != ").number(decideActionTrigger).text(" & ")
+                    .text(actionVar).text(" != ").number(selectActionTrigger).text(" ? TOTAL_TIME : 1))");
+        } else {
+            out.text("next_event - time_counter");
+        }
+        out.text(" : 1;\n");
+        return true;
     }
 
     /**
      * Generate action state module
      * Tracks the current action state (Scan-and-Select, Deciding, Decided)
      */
-    private String generateActionStateModule(List<TransitionInfo> transitions) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("module action_state\n");
+    private void generateActionStateModule(PrismEmitter out, List<TransitionInfo> transitions) {
+        out.text("module action_state\n");
 
         // Extract initial action value from multiple sources
         Integer initAction = null;
@@ -799,20 +806,14 @@ public class TimeBasedTranslator {
         // 1. Try to extract from Soar apply*initialize rule
         if (actionVarName != null && stateVariables.containsKey(actionVarName)) {
             initAction = stateVariables.get(actionVarName).initValue;
-            System.out.println("INFO: Found initial " + actionVarName + "=" + initAction + " in apply*initialize rule");
+            logger.info("Found initial {}={} in apply*initialize rule", actionVarName, initAction);
         } else {
-            for (Rule rule : rules.rules) {
-                if (rule.ruleName.equals("apply*initialize")) {
-                    String actionVal = rule.valueMap.get(actionVarName != null ? actionVarName : "action");
-                    if (actionVal != null) {
-                        try {
-                            initAction = Integer.parseInt(actionVal);
-                            System.out.println("INFO: Found initial action=" + initAction + " in apply*initialize rule");
-                            break;
-                        } catch (NumberFormatException e) {
-                            // Keep looking
-                        }
-                    }
+            for (Rule rule : rules.getInitializeRules()) {
+                ValueUpdate actionVal = rule.updates.get(actionVarName != null ? actionVarName : "action");
+                if (actionVal != null && actionVal.intValue != null) {
+                    initAction = actionVal.intValue;
+                    logger.info("Found initial action={} in apply*initialize rule", initAction);
+                    break;
                 }
             }
         }
@@ -823,7 +824,7 @@ public class TimeBasedTranslator {
             if (actionObj != null) {
                 try {
                     initAction = ((Number) actionObj).intValue();
-                    System.out.println("INFO: Found initial action=" + initAction + " in config constants");
+                    logger.info("Found initial action={} in config constants", initAction);
                 } catch (Exception e) {
                     // Keep looking
                 }
@@ -850,7 +851,7 @@ public class TimeBasedTranslator {
             }
             if (maxAction >= 0) {
                 initAction = maxAction + 1;  // Initial state is one beyond all transition states
-                System.out.println("INFO: Inferred initial action=" + initAction + " from transition rules (max action + 1)");
+                logger.info("Inferred initial action={} from transition rules (max action + 1)", initAction);
             }
         }
 
@@ -877,50 +878,51 @@ public class TimeBasedTranslator {
 
         // Generate action variable declaration with extracted/inferred range
         String actionVar = getActionVarName();
-        sb.append(String.format("  %s : [%d..%d] init %d;\n", actionVar, actionMin, actionMax, initAction));
-        sb.append("\n");
+        actionLow = actionMin;
+        actionHigh = actionMax;
+        out.text("  ").text(actionVar).text(" : [").number(actionMin).text("..").number(actionMax)
+                .text("] init ").number(initAction).text(";\n");
+        out.text("\n");
+
+        List<PrismGuard.Variable> ing = new ArrayList<>();
+        for (TransitionInfo info : transitions) {
+            ing.add(new PrismGuard.Variable(info.transitionName.toLowerCase() + "_transition_ing", 0, 1));
+        }
+        List<PrismGuard> guards = new ArrayList<>();
 
         // Generate transitions for each action module - action_state listens for signals
         // Use mutually exclusive guards to avoid overlaps
         for (int i = 0; i < transitions.size(); i++) {
-            TransitionInfo info = transitions.get(i);
-            String moduleName = info.transitionName.toLowerCase() + "_transition";
-
-            // Build guard that excludes other transitions
-            StringBuilder guard = new StringBuilder();
-            guard.append(String.format("%s_ing=1", moduleName));
-
+            // Guard that excludes other transitions
+            PrismGuard guard = ing.get(i).eq(1);
             for (int j = 0; j < transitions.size(); j++) {
                 if (i != j) {
-                    String otherModule = transitions.get(j).transitionName.toLowerCase() + "_transition";
-                    guard.append(String.format(" & !(%s_ing=1)", otherModule));
+                    guard = guard.and(ing.get(j).eq(1).not());
                 }
             }
-
-            sb.append(String.format("  [sync] %s -> (%s' = %d);\n", guard.toString(), actionVar, info.toAction));
+            guards.add(guard);
+            out.text("  [sync] ").text(guard.toString()).text(" -> (").text(actionVar).text("' = ")
+                    .number(transitions.get(i).toAction).text(");\n");
         }
-        sb.append("\n");
+        out.text("\n");
 
         // Else clause - keep action unchanged when no transition is active
-        StringBuilder elseGuard = new StringBuilder();
-        for (int i = 0; i < transitions.size(); i++) {
-            if (i > 0) elseGuard.append(" & ");
-            String moduleName = transitions.get(i).transitionName.toLowerCase() + "_transition";
-            elseGuard.append(String.format("!(%s_ing=1)", moduleName));
+        PrismGuard idle = PrismGuard.TRUE;
+        for (PrismGuard.Variable variable : ing) {
+            idle = idle.and(variable.eq(1).not());
         }
+        guards.add(idle);
+        out.text("  [sync] ").text(idle.toString()).text(" -> (").text(actionVar).text("' = ").text(actionVar).text(");\n");
 
-        sb.append(String.format("  [sync] %s -> (%s' = %s);\n", elseGuard.toString(), actionVar, actionVar));
-
-        sb.append("endmodule\n");
-        return sb.toString();
+        out.text("endmodule\n");
+        checkCommands("action_state", guards);
     }
 
     /**
      * Generate the condition monitoring module using extracted variable information
      */
-    private String generateStateMonitoringModule() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("module condition_monitoring\n");
+    private void generateStateMonitoringModule(PrismEmitter out) {
+        out.text("module condition_monitoring\n");
 
         // State variables - use extracted info instead of hardcoded
         // Get variable names from extracted metadata
@@ -936,139 +938,210 @@ public class TimeBasedTranslator {
             if (stateVariables.containsKey(varRef)) {
                 VariableInfo var = stateVariables.get(varRef);
                 // var.name is already PRISM-compatible (normalized in constructor)
-                sb.append(String.format("  %-16s : [%d..%d] init ", var.name, var.minValue, var.maxValue));
+                out.text("  ").padRight(var.name, 16).text(" : [").number(var.minValue).text("..")
+                        .number(var.maxValue).text("] init ");
 
                 // Handle init value - special case for 'name' which should init to mission_monitor
                 if (var.name.equals(nameVar)) {
-                    sb.append("mission_monitor;\n");
+                    out.text("mission_monitor;\n");
                 } else {
-                    sb.append(String.format("%d;\n", var.initValue));
+                    out.number(var.initValue).text(";\n");
                 }
             } else {
                 // Fallback to hardcoded if variable not found in Soar
-                System.err.println("WARNING: Variable '" + varRef + "' not found in Soar, using defaults");
+                logger.warn("Variable '{}' not found in Soar, using defaults", varRef);
                 if (varRef.equals(nameVar)) {
-                    sb.append(String.format("  %-16s : [0..1] init mission_monitor;\n", varRef));
+                    out.text("  ").padRight(varRef, 16).text(" : [0..1] init mission_monitor;\n");
                 } else {
-                    sb.append(String.format("  %-16s : [0..1] init 0;\n", varRef));
+                    out.text("  ").padRight(varRef, 16).text(" : [0..1] init 0;\n");
                 }
             }
         }
-        sb.append("\n");
+        out.text("\n");
+
+        // Periodic windows and commits are matched with mod, so the module doesn't grow with TOTAL_TIME / interval
+        int period = windowPeriod();
+        PrismGuard.Variable phase = (period > 0) ? new PrismGuard.Variable("mod(time_counter, " + period + ")", 0, period - 1) : null;
+        PrismGuard.Variable time = timeVariable();
+        PrismGuard.Variable flag = monitorVariable(samplingFlagVar);
+        PrismGuard.Variable condition = monitorVariable(conditionVar);
+        List<PrismGuard> guards = new ArrayList<>();
 
-        sb.append("\n  // ---- sample at window start (automatically in condition monitor mode) ----\n");
+        out.text("\n  // ---- sample at window start (automatically in condition monitor mode) ----\n");
         // Generate sampling transitions at window starts - use dynamic variable names
         // Note: We assume the model is always in a monitoring mode at window starts due to initialization
         // or we can simplify by removing the name check entirely
-        for (int window : timeWindows) {
-            // Sample when condition absent (probabilistic)
-            sb.append(String.format("  [sync] time_counter = %4d & %s=0 & %s=0 ->\n",
-                    window, samplingFlagVar, conditionVar));
-            sb.append(String.format("        pdf1     : (%s'=0) & (%s'=1)\n", tsVar, samplingFlagVar));
-            sb.append(String.format("      + (1-pdf1) : (%s'=1) & (%s'=1);\n", tsVar, samplingFlagVar));
-
-            // Sample when condition present (stays set)
-            sb.append(String.format("  [sync] time_counter = %4d & %s=0 & %s=1 ->\n",
-                    window, samplingFlagVar, conditionVar));
-            sb.append(String.format("        1 : (%s'=1) & (%s'=1);\n\n", tsVar, samplingFlagVar));
+        PrismGuard windows = PrismGuard.FALSE;
+        if (period > 0) {
+            windows = phase.eq(0);
+            generateSamplingCommands(out, windows, flag, condition, guards);
+        } else {
+            for (int window : timeWindows) {
+                windows = windows.or(time.eq(window));
+                generateSamplingCommands(out, time.eq(window), flag, condition, guards);
+            }
         }
 
         // Reset sampling flag at one step before each window (to enable re-sampling)
         // Integrated with commit transitions to avoid overlap
-        sb.append("  // ---- commit at window end (with sampling flag reset) ----\n");
+        out.text("  // ---- commit at window end (with sampling flag reset) ----\n");
         // The commit times happen to be exactly one step before the next window
         // So we can integrate the reset logic here
         // But we need separate transitions based on sampling flag state
-        sb.append("  // Note: Window ends double as resets for next window sampling\n");
-        for (int i = 0; i < commitTimes.size(); i++) {
-            int commitTime = commitTimes.get(i);
-            // When samplingFlagVar=0, just commit
-            sb.append(String.format("  [sync] time_counter = %4d & %s=0 -> (%s' = %s);\n",
-                    commitTime, samplingFlagVar, conditionVar, tsVar));
-            // When samplingFlagVar=1, commit AND reset for next sampling
-            sb.append(String.format("  [sync] time_counter = %4d & %s=1 -> (%s' = %s) & (%s' = 0);\n",
-                    commitTime, samplingFlagVar, conditionVar, tsVar, samplingFlagVar));
+        out.text("  // Note: Window ends double as resets for next window sampling\n");
+        PrismGuard commits = PrismGuard.FALSE;
+        if (period > 0) {
+            // Every window but the last ends with a commit, so the commits are the steps before a window short of TOTAL_TIME
+            commits = phase.eq(period - 1).and(time.in(0, totalTime - 1));
+            generateCommitCommands(out, commits, flag, guards);
+        } else {
+            for (int commitTime : commitTimes) {
+                commits = commits.or(time.eq(commitTime));
+                generateCommitCommands(out, time.eq(commitTime), flag, guards);
+            }
         }
-        sb.append("\n");
+        out.text("\n");
 
         // Generate default/else transition - use dynamic variable names
         // This ensures the module always has a transition enabled (prevents deadlocks)
         // Must be mutually exclusive with all other transitions above
-        sb.append("  // ---- default transition (keeps state unchanged) ----\n");
-        sb.append("  [sync] ");
-
-        // Build guard that excludes all specific conditions above
-        List<String> excludeConditions = new ArrayList<>();
+        // Excludes commit times (both sampling flag values) and sampling windows while the flag is 0
+        PrismGuard unchanged = commits.or(windows.and(flag.eq(0))).not();
+        guards.add(unchanged);
+        out.text("  // ---- default transition (keeps state unchanged) ----\n");
+        out.text("  [sync] ").text(unchanged.toString());
+        out.text(" ->\n");
+        out.text("    (").text(conditionVar).text("' = ").text(conditionVar).text(") & (")
+                .text(tsVar).text("' = ").text(tsVar).text(") & (")
+                .text(samplingFlagVar).text("' = ").text(samplingFlagVar).text(") & (")
+                .text(nameVar).text("' = ").text(nameVar).text(");\n");
+
+        out.text("endmodule\n");
+        checkCommands("condition_monitoring", guards);
+    }
 
-        // Exclude commit times (both samplingFlagVar=0 and samplingFlagVar=1 cases)
-        for (int commitTime : commitTimes) {
-            excludeConditions.add(String.format("time_counter = %d", commitTime));
-        }
+    /**
+     * The sampling commands of the windows that window matches
+     */
+    private void generateSamplingCommands(PrismEmitter out, PrismGuard window, PrismGuard.Variable flag,
+                                          PrismGuard.Variable condition, List<PrismGuard> guards) {
+        String tsVar = getTransientConditionVarName();
+        String samplingFlagVar = getSamplingFlagVarName();
 
-        // Exclude sampling windows (when sampling flag = 0, regardless of condition state)
-        for (int window : timeWindows) {
-            excludeConditions.add(String.format("(time_counter = %d & %s=0)",
-                    window, samplingFlagVar));
-        }
+        // Sample when condition absent (probabilistic)
+        PrismGuard absent = window.and(flag.eq(0)).and(condition.eq(0));
+        guards.add(absent);
+        out.text("  [sync] ").text(absent.toString()).text(" ->\n");
+        out.text("        pdf1     : (").text(tsVar).text("'=0) & (").text(samplingFlagVar).text("'=1)\n");
+        out.text("      + (1-pdf1) : (").text(tsVar).text("'=1) & (").text(samplingFlagVar).text("'=1);\n");
+
+        // Sample when condition present (stays set)
+        PrismGuard present = window.and(flag.eq(0)).and(condition.eq(1));
+        guards.add(present);
+        out.text("  [sync] ").text(present.toString()).text(" ->\n");
+        out.text("        1 : (").text(tsVar).text("'=1) & (").text(samplingFlagVar).text("'=1);\n\n");
+    }
 
-        // Build the exclusion guard
-        for (int i = 0; i < excludeConditions.size(); i++) {
-            if (i > 0) sb.append(" & ");
-            sb.append("!(");
-            sb.append(excludeConditions.get(i));
-            sb.append(")");
-        }
+    /**
+     * The commit commands of the window ends that commit matches
+     */
+    private void generateCommitCommands(PrismEmitter out, PrismGuard commit, PrismGuard.Variable flag,
+                                        List<PrismGuard> guards) {
+        String conditionVar = getConditionVarName();
+        String tsVar = getTransientConditionVarName();
+        String samplingFlagVar = getSamplingFlagVarName();
 
-        sb.append(" ->\n");
-        sb.append(String.format("    (%s' = %s) & (%s' = %s) & (%s' = %s) & (%s' = %s);\n",
-                conditionVar, conditionVar, tsVar, tsVar, samplingFlagVar, samplingFlagVar, nameVar, nameVar));
+        // When samplingFlagVar=0, just commit
+        PrismGuard sampled = commit.and(flag.eq(0));
+        guards.add(sampled);
+        out.text("  [sync] ").text(sampled.toString())
+                .text(" -> (").text(conditionVar).text("' = ").text(tsVar).text(");\n");
+        // When samplingFlagVar=1, commit AND reset for next sampling
+        PrismGuard reset = commit.and(flag.eq(1));
+        guards.add(reset);
+        out.text("  [sync] ").text(reset.toString())
+                .text(" -> (").text(conditionVar).text("' = ").text(tsVar).text(") & (")
+                .text(samplingFlagVar).text("' = 0);\n");
+    }
 
-        sb.append("endmodule\n");
-        return sb.toString();
+    /**
+     * The sampling interval if the windows are every multiple of it up to TOTAL_TIME and each window
+     * but the last is committed one step before the next, as {@link #generateTimeWindows} makes them;
+     * otherwise -1, and the windows and commits are listed one by one
+     */
+    private int windowPeriod() {
+        if (timeWindows.size() < 2) {
+            return -1;
+        }
+        int period = timeWindows.get(1) - timeWindows.get(0);
+        if (period <= 0 || timeWindows.get(0) != 0 || timeWindows.size() != totalTime / period + 1
+                || commitTimes.size() != timeWindows.size() - 1) {
+            return -1;
+        }
+        for (int i = 0; i < timeWindows.size(); i++) {
+            if (timeWindows.get(i) != i * period) {
+                return -1;
+            }
+        }
+        for (int i = 0; i < commitTimes.size(); i++) {
+            if (commitTimes.get(i) != (i + 1) * period - 1) {
+                return -1;
+            }
+        }
+        return period;
     }
 
     /**
      * Generate response time module using loaded distributions
      * Integrates responseSelect and responseDecide distributions from config
      * Extracts max response state and action triggers dynamically
+     * Returns false, writing nothing, when there are no response distributions
      */
-    private String generateResponseTimeModule() {
-        if (config == null ||
-                (config.getResponseSelect().isEmpty() && config.getResponseDecide().isEmpty())) {
-            return ""; // No response distributions available
+    private boolean generateResponseTimeModule(PrismEmitter out) {
+        if (!hasResponseDistributions()) {
+            return false; // No response distributions available
         }
 
         // Get dynamic variable names
         String actionVar = getActionVarName();
         String conditionVar = getConditionVarName();
 
+        PrismGuard.Variable action = actionVariable();
+        PrismGuard.Variable responseState = new PrismGuard.Variable("response_state", 0, maxResponseState);
+        PrismGuard.Variable responseType = new PrismGuard.Variable("response_type", 0, 2);
+        PrismGuard.Variable condition = monitorVariable(conditionVar);
+        PrismGuard selecting = action.eq(selectActionTrigger).and(responseState.eq(0));
+        PrismGuard deciding = action.eq(decideActionTrigger).and(responseState.eq(0));
+        List<PrismGuard> guards = new ArrayList<>();
+
         // Use class variables for action triggers and max response state (already extracted in extractActionTriggers)
-        StringBuilder sb = new StringBuilder();
-        sb.append("\n// ---- Response Time Modeling ----\n");
-        sb.append("module response_time\n");
-        sb.append(String.format("  response_state : [0..%d] init 0;  // 0 = idle, 1-%d = responding\n",
-                maxResponseState, maxResponseState));
-        sb.append("  response_type  : [0..2] init 0;   // 0 = none, 1 = select, 2 = decide\n\n");
+        out.text("\n// ---- Response Time Modeling ----\n");
+        out.text("module response_time\n");
+        out.text("  response_state : [0..").number(maxResponseState).text("] init 0;  // 0 = idle, 1-")
+                .number(maxResponseState).text(" = responding\n");
+        out.text("  response_type  : [0..2] init 0;   // 0 = none, 1 = select, 2 = decide\n\n");
 
         // Generate select response transitions
         if (!config.getResponseSelect().isEmpty()) {
-            sb.append("  // ---- Scan-and-Select Response Distribution ----\n");
-            sb.append(String.format("  // Triggered when %s=%d (selecting state)\n", actionVar, selectActionTrigger));
+            out.text("  // ---- Scan-and-Select Response Distribution ----\n");
+            out.text("  // Triggered when ").text(actionVar).text("=").number(selectActionTrigger).text(" (selecting state)\n");
 
             // Use condition level 0 (baseline) distribution as example
             PrismConfig.Distribution selectDist = config.getResponseSelect().get("condition0");
             if (selectDist == null) {
                 selectDist = config.getResponseSelect().get("sickness0");
             }
-            if (selectDist != null && selectDist.probabilities != null) {
+            // A trigger no action value can match gets no command
+            PrismGuard selectGuard = selecting.and(condition.eq(0));
+            if (selectDist != null && selectDist.probabilities != null && !selectGuard.isFalse()) {
                 // Normalize probabilities to sum to exactly 1.0
                 double totalProb = 0.0;
                 for (PrismConfig.Distribution.StateProb sp : selectDist.probabilities) {
                     totalProb += sp.probability;
                 }
 
-                sb.append(String.format("  [sync] %s=%d & response_state=0 & %s=0 ->\n",
-                        actionVar, selectActionTrigger, conditionVar));
+                guards.add(selectGuard);
+                out.text("  [sync] ").text(selectGuard.toString()).text(" ->\n");
                 double accumulatedProb = 0.0;
                 for (int i = 0; i < selectDist.probabilities.size(); i++) {
                     PrismConfig.Distribution.StateProb sp = selectDist.probabilities.get(i);
@@ -1080,16 +1153,16 @@ public class TimeBasedTranslator {
                         normalizedProb = sp.probability / totalProb;
                         accumulatedProb += normalizedProb;
                     }
-                    // Use %.16f for maximum precision to avoid rounding issues
-                    sb.append(String.format("    %.16f : (response_state'=%d) & (response_type'=1)",
-                            normalizedProb, sp.state));
+                    // Use 16 decimals for maximum precision to avoid rounding issues
+                    out.text("    ").fixed(normalizedProb, 16).text(" : (response_state'=").number(sp.state)
+                            .text(") & (response_type'=1)");
                     if (i < selectDist.probabilities.size() - 1) {
-                        sb.append(" +\n");
+                        out.text(" +\n");
                     } else {
-                        sb.append(";\n");
+                        out.text(";\n");
                     }
                 }
-                sb.append("\n");
+                out.text("\n");
             }
 
             // Condition-present agent has different distribution
@@ -1097,15 +1170,17 @@ public class TimeBasedTranslator {
             if (selectSickDist == null) {
                 selectSickDist = config.getResponseSelect().get("sickness1");
             }
-            if (selectSickDist != null && selectSickDist.probabilities != null) {
+            // A trigger no action value can match gets no command
+            PrismGuard selectSickGuard = selecting.and(condition.eq(1));
+            if (selectSickDist != null && selectSickDist.probabilities != null && !selectSickGuard.isFalse()) {
                 // Normalize probabilities to sum to exactly 1.0
                 double totalProb = 0.0;
                 for (PrismConfig.Distribution.StateProb sp : selectSickDist.probabilities) {
                     totalProb += sp.probability;
                 }
 
-                sb.append(String.format("  [sync] %s=%d & response_state=0 & %s=1 ->\n",
-                        actionVar, selectActionTrigger, conditionVar));
+                guards.add(selectSickGuard);
+                out.text("  [sync] ").text(selectSickGuard.toString()).text(" ->\n");
                 double accumulatedProb = 0.0;
                 for (int i = 0; i < selectSickDist.probabilities.size(); i++) {
                     PrismConfig.Distribution.StateProb sp = selectSickDist.probabilities.get(i);
@@ -1117,38 +1192,40 @@ public class TimeBasedTranslator {
                         normalizedProb = sp.probability / totalProb;
                         accumulatedProb += normalizedProb;
                     }
-                    // Use %.16f for maximum precision to avoid rounding issues
-                    sb.append(String.format("    %.16f : (response_state'=%d) & (response_type'=1)",
-                            normalizedProb, sp.state));
+                    // Use 16 decimals for maximum precision to avoid rounding issues
+                    out.text("    ").fixed(normalizedProb, 16).text(" : (response_state'=").number(sp.state)
+                            .text(") & (response_type'=1)");
                     if (i < selectSickDist.probabilities.size() - 1) {
-                        sb.append(" +\n");
+                        out.text(" +\n");
                     } else {
-                        sb.append(";\n");
+                        out.text(";\n");
                     }
                 }
-                sb.append("\n");
+                out.text("\n");
             }
         }
 
         // Generate decide response transitions
         if (!config.getResponseDecide().isEmpty()) {
-            sb.append("  // ---- Decision Response Distribution ----\n");
-            sb.append("  // Triggered when action transitions to deciding state\n");
+            out.text("  // ---- Decision Response Distribution ----\n");
+            out.text("  // Triggered when action transitions to deciding state\n");
 
             // Baseline agent decision response
             PrismConfig.Distribution decideDist = config.getResponseDecide().get("condition0");
             if (decideDist == null) {
                 decideDist = config.getResponseDecide().get("sickness0");
             }
-            if (decideDist != null && decideDist.probabilities != null) {
+            // A trigger no action value can match gets no command
+            PrismGuard decideGuard = deciding.and(condition.eq(0));
+            if (decideDist != null && decideDist.probabilities != null && !decideGuard.isFalse()) {
                 // Normalize probabilities to sum to exactly 1.0
                 double totalProb = 0.0;
                 for (PrismConfig.Distribution.StateProb sp : decideDist.probabilities) {
                     totalProb += sp.probability;
                 }
 
-                sb.append(String.format("  [sync] %s=%d & response_state=0 & %s=0 ->\n",
-                        actionVar, decideActionTrigger, conditionVar));
+                guards.add(decideGuard);
+                out.text("  [sync] ").text(decideGuard.toString()).text(" ->\n");
                 double accumulatedProb = 0.0;
                 for (int i = 0; i < decideDist.probabilities.size(); i++) {
                     PrismConfig.Distribution.StateProb sp = decideDist.probabilities.get(i);
@@ -1160,16 +1237,16 @@ public class TimeBasedTranslator {
                         normalizedProb = sp.probability / totalProb;
                         accumulatedProb += normalizedProb;
                     }
-                    // Use %.16f for maximum precision to avoid rounding issues
-                    sb.append(String.format("    %.16f : (response_state'=%d) & (response_type'=2)",
-                            normalizedProb, sp.state));
+                    // Use 16 decimals for maximum precision to avoid rounding issues
+                    out.text("    ").fixed(normalizedProb, 16).text(" : (response_state'=").number(sp.state)
+                            .text(") & (response_type'=2)");
                     if (i < decideDist.probabilities.size() - 1) {
-                        sb.append(" +\n");
+                        out.text(" +\n");
                     } else {
-                        sb.append(";\n");
+                        out.text(";\n");
                     }
                 }
-                sb.append("\n");
+                out.text("\n");
             }
 
             // Condition-present agent decision response
@@ -1177,15 +1254,17 @@ public class TimeBasedTranslator {
             if (decideSickDist == null) {
                 decideSickDist = config.getResponseDecide().get("sickness1");
             }
-            if (decideSickDist != null && decideSickDist.probabilities != null) {
+            // A trigger no action value can match gets no command
+            PrismGuard decideSickGuard = deciding.and(condition.eq(1));
+            if (decideSickDist != null && decideSickDist.probabilities != null && !decideSickGuard.isFalse()) {
                 // Normalize probabilities to sum to exactly 1.0
                 double totalProb = 0.0;
                 for (PrismConfig.Distribution.StateProb sp : decideSickDist.probabilities) {
                     totalProb += sp.probability;
                 }
 
-                sb.append(String.format("  [sync] %s=%d & response_state=0 & %s=1 ->\n",
-                        actionVar, decideActionTrigger, conditionVar));
+                guards.add(decideSickGuard);
+                out.text("  [sync] ").text(decideSickGuard.toString()).text(" ->\n");
                 double accumulatedProb = 0.0;
                 for (int i = 0; i < decideSickDist.probabilities.size(); i++) {
                     PrismConfig.Distribution.StateProb sp = decideSickDist.probabilities.get(i);
@@ -1197,57 +1276,71 @@ public class TimeBasedTranslator {
                         normalizedProb = sp.probability / totalProb;
                         accumulatedProb += normalizedProb;
                     }
-                    // Use %.16f for maximum precision to avoid rounding issues
-                    sb.append(String.format("    %.16f : (response_state'=%d) & (response_type'=2)",
-                            normalizedProb, sp.state));
+                    // Use 16 decimals for maximum precision to avoid rounding issues
+                    out.text("    ").fixed(normalizedProb, 16).text(" : (response_state'=").number(sp.state)
+                            .text(") & (response_type'=2)");
                     if (i < decideSickDist.probabilities.size() - 1) {
-                        sb.append(" +\n");
+                        out.text(" +\n");
                     } else {
-                        sb.append(";\n");
+                        out.text(";\n");
                     }
                 }
-                sb.append("\n");
+                out.text("\n");
             }
         }
 
         // Response completion - response state decrements each time step
-        sb.append("  // ---- Response Progress ----\n");
-        sb.append(String.format("  [sync] response_state > 0 & !(%s=%d & response_state=0) & !(%s=%d & response_state=0) -> (response_state' = response_state - 1);\n\n",
-                actionVar, selectActionTrigger, actionVar, decideActionTrigger));
+        PrismGuard progress = responseState.in(1, maxResponseState).and(selecting.not()).and(deciding.not());
+        guards.add(progress);
+        out.text("  // ---- Response Progress ----\n");
+        out.text("  [sync] ").text(progress.toString())
+                .text(" -> (response_state' = response_state - ").text(timeStep).text(");\n\n");
 
         // Idle state - reset response type when done
-        sb.append("  // ---- Idle State ----\n");
-        sb.append(String.format("  [sync] response_state = 0 & response_type > 0 & %s != %d & %s != %d ->\n",
-                actionVar, selectActionTrigger, actionVar, decideActionTrigger));
-        sb.append("    (response_state' = 0) & (response_type' = 0);\n\n");
-
-        sb.append("  // ---- Default ----\n");
-        sb.append(String.format("  [sync] response_state = 0 & response_type = 0 & %s != %d & %s != %d ->\n",
-                actionVar, decideActionTrigger, actionVar, selectActionTrigger));
-        sb.append("    (response_state' = response_state) & (response_type' = response_type);\n");
-
-        sb.append("endmodule\n");
-        return sb.toString();
+        PrismGuard triggered = action.eq(selectActionTrigger).or(action.eq(decideActionTrigger));
+        PrismGuard idle = responseState.eq(0).and(responseType.in(1, 2)).and(triggered.not());
+        guards.add(idle);
+        out.text("  // ---- Idle State ----\n");
+        out.text("  [sync] ").text(idle.toString()).text(" ->\n");
+        out.text("    (response_state' = 0) & (response_type' = 0);\n\n");
+
+        PrismGuard unchanged = responseState.eq(0).and(responseType.eq(0)).and(triggered.not());
+        guards.add(unchanged);
+        out.text("  // ---- Default ----\n");
+        out.text("  [sync] ").text(unchanged.toString()).text(" ->\n");
+        out.text("    (response_state' = response_state) & (response_type' = response_type);\n");
+
+        out.text("endmodule\n");
+        checkCommands("response_time", guards);
+        return true;
+    }
+
+    /**
+     * Whether the config has response distributions, which add the response_time module
+     */
+    private boolean hasResponseDistributions() {
+        return config != null &&
+                !(config.getResponseSelect().isEmpty() && config.getResponseDecide().isEmpty());
     }
 
     /**
      * Generate decision error tracking module using loaded error distributions
      * Models decision correctness based on condition level
+     * Returns false, writing nothing, when there are no error distributions
      */
-    private String generateDecisionErrorModule() {
+    private boolean generateDecisionErrorModule(PrismEmitter out) {
         if (config == null || config.getDecisionErrorDistributions().isEmpty()) {
-            return ""; // No error distributions available
+            return false; // No error distributions available
         }
 
         // Get dynamic variable names
         String actionVar = getActionVarName();
         String conditionVar = getConditionVarName();
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("\n// ---- Decision Error Modeling ----\n");
-        sb.append("module decision_errors\n");
-        sb.append("  decision_correct : [0..1] init 1;  // 1 = correct, 0 = error\n");
-        sb.append("  error_count      : [0..10] init 0; // Track cumulative errors\n\n");
+        out.text("\n// ---- Decision Error Modeling ----\n");
+        out.text("module decision_errors\n");
+        out.text("  decision_correct : [0..1] init 1;  // 1 = correct, 0 = error\n");
+        out.text("  error_count      : [0..10] init 0; // Track cumulative errors\n\n");
 
         // Get error distributions for different condition levels
         PrismConfig.ErrorDistribution healthyDist = config.getDecisionErrorDistributions().get("condition0");
@@ -1259,34 +1352,45 @@ public class TimeBasedTranslator {
             sickDist = config.getDecisionErrorDistributions().get("sickness1");
         }
 
-        sb.append("  // ---- Decision Correctness Sampling ----\n");
-        sb.append(String.format("  // Sample when deciding (%s=%d) and response completes\n\n",
-                actionVar, decideActionTrigger));
-
-        if (healthyDist != null) {
-            sb.append("  // Baseline agent decision correctness\n");
-            sb.append(String.format("  [sync] %s=%d & response_state=1 & %s=0 ->\n",
-                    actionVar, decideActionTrigger, conditionVar));
-            sb.append(String.format("    %.10f : (decision_correct'=1) +\n", healthyDist.correctProbability));
-            sb.append(String.format("    %.10f : (decision_correct'=0) & (error_count'=min(error_count+1,10));\n\n",
-                    healthyDist.errorProbability));
-        }
-
-        if (sickDist != null) {
-            sb.append("  // Condition-present agent decision correctness\n");
-            sb.append(String.format("  [sync] %s=%d & response_state=1 & %s=1 ->\n",
-                    actionVar, decideActionTrigger, conditionVar));
-            sb.append(String.format("    %.10f : (decision_correct'=1) +\n", sickDist.correctProbability));
-            sb.append(String.format("    %.10f : (decision_correct'=0) & (error_count'=min(error_count+1,10));\n\n",
-                    sickDist.errorProbability));
-        }
-
-        sb.append("  // ---- Default State Maintenance ----\n");
-        sb.append(String.format("  [sync] !(%s=%d & response_state=1) ->\n", actionVar, decideActionTrigger));
-        sb.append("    (decision_correct' = decision_correct) & (error_count' = error_count);\n");
-
-        sb.append("endmodule\n");
-        return sb.toString();
+        out.text("  // ---- Decision Correctness Sampling ----\n");
+        out.text("  // Sample when deciding (").text(actionVar).text("=").number(decideActionTrigger)
+                .text(") and response completes\n\n");
+
+        PrismGuard.Variable action = actionVariable();
+        PrismGuard.Variable responseState = new PrismGuard.Variable("response_state", 0, maxResponseState);
+        PrismGuard.Variable condition = monitorVariable(conditionVar);
+        PrismGuard completing = action.eq(decideActionTrigger).and(responseState.eq(1));
+        List<PrismGuard> guards = new ArrayList<>();
+
+        PrismGuard healthyGuard = completing.and(condition.eq(0));
+        if (healthyDist != null && !healthyGuard.isFalse()) {
+            guards.add(healthyGuard);
+            out.text("  // Baseline agent decision correctness\n");
+            out.text("  [sync] ").text(healthyGuard.toString()).text(" ->\n");
+            out.text("    ").fixed(healthyDist.correctProbability, 10).text(" : (decision_correct'=1) +\n");
+            out.text("    ").fixed(healthyDist.errorProbability, 10)
+                    .text(" : (decision_correct'=0) & (error_count'=min(error_count+1,10));\n\n");
+        }
+
+        PrismGuard sickGuard = completing.and(condition.eq(1));
+        if (sickDist != null && !sickGuard.isFalse()) {
+            guards.add(sickGuard);
+            out.text("  // Condition-present agent decision correctness\n");
+            out.text("  [sync] ").text(sickGuard.toString()).text(" ->\n");
+            out.text("    ").fixed(sickDist.correctProbability, 10).text(" : (decision_correct'=1) +\n");
+            out.text("    ").fixed(sickDist.errorProbability, 10)
+                    .text(" : (decision_correct'=0) & (error_count'=min(error_count+1,10));\n\n");
+        }
+
+        PrismGuard unchanged = completing.not();
+        guards.add(unchanged);
+        out.text("  // ---- Default State Maintenance ----\n");
+        out.text("  [sync] ").text(unchanged.toString()).text(" ->\n");
+        out.text("    (decision_correct' = decision_correct) & (error_count' = error_count);\n");
+
+        out.text("endmodule\n");
+        checkCommands("decision_errors", guards);
+        return true;
     }
 
     /**
@@ -1296,210 +1400,53 @@ public class TimeBasedTranslator {
      * Generate action modules based on Soar transition rules
      * Extracts SS-transition, D-transition, DD-transition modules
      */
-    private String generateActionModules(List<TransitionInfo> transitions) {
-        StringBuilder sb = new StringBuilder();
-
+    private void generateActionModules(PrismEmitter out, List<TransitionInfo> transitions) {
         if (transitions.isEmpty()) {
-            sb.append("// No action transition modules found in Soar rules\n");
-            return sb.toString();
+            out.text("// No action transition modules found in Soar rules\n");
+            return;
         }
 
         // Generate a module for each unique transition type
         for (TransitionInfo transition : transitions) {
-            sb.append(generateTransitionModule(transition));
-            sb.append("\n");
+            generateTransitionModule(out, transition);
+            TRANSITION_MODULES.increment();
+            out.text("\n");
         }
-
-        return sb.toString();
-    }
-
-    /**
-     * Extract transition information from Soar rules
-     */
-    private List<TransitionInfo> extractTransitionRules() {
-        List<TransitionInfo> transitions = new ArrayList<>();
-
-        for (Rule rule : rules.rules) {
-            // Look for apply* transition rules
-            if (rule.ruleName.startsWith("apply*apply-") && rule.ruleName.contains("-transition")) {
-                TransitionInfo info = new TransitionInfo();
-                info.ruleName = rule.ruleName;
-
-                // Extract transition name (e.g., "SS", "D", "DD")
-                String transName = rule.ruleName.replace("apply*apply-", "").replace("-transition", "");
-                info.transitionName = transName;
-
-                // Extract TO action value from valueMap
-                // Check for action in valueMap entries
-                for (Map.Entry<String, String> entry : rule.valueMap.entrySet()) {
-                    if (entry.getKey().contains("action")) {
-                        try {
-                            info.toAction = Integer.parseInt(entry.getValue());
-                            break;
-                        } catch (NumberFormatException e) {
-                            // Not a number, continue
-                        }
-                    }
-                }
-
-                // Fallback: try direct "action" key
-                if (info.toAction < 0 && rule.valueMap.containsKey("action")) {
-                    try {
-                        info.toAction = Integer.parseInt(rule.valueMap.get("action"));
-                    } catch (NumberFormatException e) {
-                        System.err.println("Could not parse action value: " + rule.valueMap.get("action"));
-                    }
-                }
-
-                // Fallback: infer from transition name based on common patterns
-                // NEW CYCLE: 0 → 1 → 2 → 3 → 1 → 2 → 3 → 1...
-                if (info.toAction < 0) {
-                    if (transName.equals("SS")) {
-                        info.toAction = 1; // SS -> (action 1)
-                    } else if (transName.equals("D")) {
-                        info.toAction = 2; // D -> (action 2)
-                    } else if (transName.equals("DD")) {
-                        info.toAction = 3; // DD -> (action 3)
-                    }
-                }
-
-                // Find corresponding propose rule to get FROM action
-                String proposeRuleName = "propose*" + transName + "-transition";
-                for (Rule proposeRule : rules.rules) {
-                    if (proposeRule.ruleName.equals(proposeRuleName)) {
-                        System.err.println("DEBUG: Processing propose rule: " + proposeRuleName);
-                        System.err.println("DEBUG: Guards found: " + proposeRule.guards);
-                        // Extract FROM action from guards
-                        // The guard might be in various formats:
-                        // - Simple: "action = 0"
-                        // - Set notation: "action { << 3 2 >> }" (may be stored as "action = { << 3 2 >> }" or similar)
-                        for (String guard : proposeRule.guards) {
-                            // Normalize guard to handle variations (state_action, action, etc.)
-                            String normalizedGuard = guard.toLowerCase().replace("state_", "");
-                            if (normalizedGuard.contains("action")) {
-                                System.err.println("DEBUG: Found action guard in " + proposeRuleName + ": " + guard);
-
-                                // Check if this guard contains set notation << >>
-                                if (guard.contains("<<") && guard.contains(">>")) {
-                                    // Multiple values like "action { << 3 2 >> }" or "action = { << 3 2 >> }"
-                                    int start = guard.indexOf("<<");
-                                    int end = guard.indexOf(">>");
-                                    if (start >= 0 && end > start) {
-                                        String actionPart = guard.substring(start + 2, end).trim();
-                                        String[] actions = actionPart.split("\\s+");
-                                        info.fromActions = new ArrayList<>();
-                                        for (String a : actions) {
-                                            a = a.trim();
-                                            if (!a.isEmpty()) {
-                                                try {
-                                                    info.fromActions.add(Integer.parseInt(a));
-                                                } catch (NumberFormatException e) {
-                                                    System.err.println("DEBUG: Could not parse action value from guard: " + a);
-                                                }
-                                            }
-                                        }
-                                        if (!info.fromActions.isEmpty()) {
-                                            System.err.println("DEBUG: Extracted fromActions from guards: " + info.fromActions);
-                                            break; // Found the action guard, stop looking
-                                        }
-                                    }
-                                } else if (guard.contains("=")) {
-                                    // Single value like "action = 0" (but not "action = state_action")
-                                    String[] parts = guard.split("=");
-                                    if (parts.length > 1) {
-                                        String actionValue = parts[1].trim();
-                                        // Skip if it's a variable reference or contains < > (template variables)
-                                        if (!actionValue.contains("state_") && !actionValue.contains("<") && !actionValue.isEmpty()) {
-                                            try {
-                                                info.fromAction = Integer.parseInt(actionValue);
-                                                System.err.println("DEBUG: Extracted fromAction from guards: " + info.fromAction);
-                                                break; // Found the action guard, stop looking
-                                            } catch (NumberFormatException e) {
-                                                System.err.println("DEBUG: Could not parse action value from guard: " + actionValue);
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
-
-                        // CRITICAL FIX: If we didn't extract action info, use fallback based on transition name
-                        // NEW CYCLE: 0 → 1 → 2 → 3 → 1 → 2 → 3 → 1...
-                        if ((info.fromActions == null || info.fromActions.isEmpty()) && info.fromAction < 0) {
-                            System.err.println("WARNING: Could not extract fromAction for " + transName + ", using fallback");
-                            // For SS-transition: should trigger from state 0 (and possibly state 3 after DD)
-                            if (transName.toLowerCase().contains("ss") || transName.toLowerCase().contains("scan")) {
-                                info.fromActions = new ArrayList<>();
-                                info.fromActions.add(0);  // Initial state
-                                info.fromActions.add(3);  // DD-transition leads to state 3 (back to scan-and-select)
-                                System.err.println("INFO: Using fallback fromActions for SS-transition: " + info.fromActions);
-                            }
-                        }
-
-                        // Extract PDF value from input-link references
-                        // Look for patterns like "(<sd> ^pdf2 <pdf2>)" in conditions
-                        for (String var : proposeRule.variables) {
-                            if (var.startsWith("pdf")) {
-                                info.pdfName = var;
-                                break;
-                            }
-                        }
-                    }
-                }
-
-                // Extract event name from valueMap
-                for (Map.Entry<String, String> entry : rule.valueMap.entrySet()) {
-                    if (entry.getKey().contains("event")) {
-                        info.eventName = entry.getValue();
-                        break;
-                    }
-                }
-
-                transitions.add(info);
-            }
-        }
-
-        return transitions;
     }
 
     /**
      * Generate a PRISM module for a transition
      */
-    private String generateTransitionModule(TransitionInfo info) {
-        StringBuilder sb = new StringBuilder();
-
+    private void generateTransitionModule(PrismEmitter out, TransitionInfo info) {
         // Module name based on transition
         String moduleName = info.transitionName.toLowerCase() + "_transition";
 
-        sb.append(String.format("module %s\n", moduleName));
-        sb.append(String.format("  %s_done : [0..1] init 0;\n", moduleName));
-        sb.append(String.format("  %s_ing  : [0..1] init 0;\n", moduleName));
-        sb.append("\n");
+        out.text("module ").text(moduleName).text("\n");
+        out.text("  ").text(moduleName).text("_done : [0..1] init 0;\n");
+        out.text("  ").text(moduleName).text("_ing  : [0..1] init 0;\n");
+        out.text("\n");
 
         // Generate transition rules
         // Guard: action matches from state, not done, not in progress
-        String actionVar = getActionVarName();
-        String actionGuard = "";
-        if (info.fromActions != null && !info.fromActions.isEmpty()) {
-            // Multiple source actions (e.g., action=3 or action=2 for SS)
-            List<String> actionParts = new ArrayList<>();
-            for (int action : info.fromActions) {
-                actionParts.add(actionVar + "=" + action);
-            }
-            actionGuard = "(" + String.join(" | ", actionParts) + ")";
-        } else if (info.fromAction >= 0) {
-            actionGuard = actionVar + "=" + info.fromAction;
-        }
+        String actionGuard = actionGuard(info);
+
+        PrismGuard.Variable time = timeVariable();
+        PrismGuard.Variable action = actionVariable();
+        PrismGuard.Variable done = new PrismGuard.Variable(moduleName + "_done", 0, 1);
+        PrismGuard.Variable ing = new PrismGuard.Variable(moduleName + "_ing", 0, 1);
+        List<PrismGuard> guards = new ArrayList<>();
 
         // Start transition - always generate if we have action info
+        PrismGuard start = PrismGuard.FALSE;
         if (!actionGuard.isEmpty()) {
-            sb.append(String.format("  [sync] time_counter < TOTAL_TIME & %s & %s_done=0 & %s_ing=0 ->\n",
-                    actionGuard, moduleName, moduleName));
-            sb.append(String.format("    (%s_ing' = 1);\n", moduleName));
-            sb.append("\n");
+            start = time.in(0, totalTime - 1).and(actionGuard(info, action)).and(done.eq(0)).and(ing.eq(0));
+            guards.add(start);
+            out.text("  [sync] ").text(start.toString()).text(" ->\n");
+            out.text("    (").text(moduleName).text("_ing' = 1);\n");
+            out.text("\n");
         } else {
             // Fallback: generate with true guard (should not normally happen)
-            System.err.println("Warning: No action guard found for " + moduleName);
+            logger.warn("No action guard found for {}", moduleName);
         }
 
         // Complete transition (probabilistic if PDF available)
@@ -1514,98 +1461,141 @@ public class TimeBasedTranslator {
             }
 
             if (pdfValue > 0) {
-                sb.append(String.format("  [sync] %s_ing=1 ->\n", moduleName));
-                sb.append(String.format("    %.6f : (%s_done' = 1) & (%s_ing' = 0)\n",
-                        pdfValue, moduleName, moduleName));
-                sb.append(String.format("  + %.6f : (%s_ing' = 0);\n", 1.0 - pdfValue, moduleName));
-                sb.append("\n");
+                guards.add(ing.eq(1));
+                out.text("  [sync] ").text(moduleName).text("_ing=1 ->\n");
+                out.text("    ").fixed(pdfValue, 6).text(" : (").text(moduleName).text("_done' = 1) & (")
+                        .text(moduleName).text("_ing' = 0)\n");
+                out.text("  + ").fixed(1.0 - pdfValue, 6).text(" : (").text(moduleName).text("_ing' = 0);\n");
+                out.text("\n");
             }
         } else {
             // Deterministic transition
-            sb.append(String.format("  [sync] %s_ing=1 ->\n", moduleName));
-            sb.append(String.format("    (%s_done' = 1) & (%s_ing' = 0);\n",
-                    moduleName, moduleName));
-            sb.append("\n");
+            guards.add(ing.eq(1));
+            out.text("  [sync] ").text(moduleName).text("_ing=1 ->\n");
+            out.text("    (").text(moduleName).text("_done' = 1) & (").text(moduleName).text("_ing' = 0);\n");
+            out.text("\n");
         }
 
         // Reset done flag
-        sb.append(String.format("  [sync] %s_done=1 & !(%s_ing=1) -> (%s_done' = 0);\n", moduleName, moduleName, moduleName));
-        sb.append("\n");
+        PrismGuard reset = done.eq(1).and(ing.eq(1).not());
+        guards.add(reset);
+        out.text("  [sync] ").text(reset.toString()).text(" -> (").text(moduleName).text("_done' = 0);\n");
+        out.text("\n");
 
         // Else clause - no change when none of the above conditions hold
-        StringBuilder elseGuard = new StringBuilder();
-        elseGuard.append(String.format("!(%s_done=1 & !(%s_ing=1))", moduleName, moduleName));
-        elseGuard.append(String.format(" & !(%s_ing=1)", moduleName));
-        if (!actionGuard.isEmpty()) {
-            elseGuard.append(String.format(" & !(time_counter < TOTAL_TIME & %s & %s_done=0 & %s_ing=0)",
-                    actionGuard, moduleName, moduleName));
+        PrismGuard unchanged = reset.not().and(ing.eq(1).not()).and(start.not());
+        guards.add(unchanged);
+        out.text("  [sync] ").text(unchanged.toString()).text(" ->\n");
+        out.text("    (").text(moduleName).text("_done' = ").text(moduleName).text("_done) & (")
+                .text(moduleName).text("_ing' = ").text(moduleName).text("_ing);\n");
+
+        out.text("endmodule\n");
+        checkCommands(moduleName, guards);
+    }
+
+    /**
+     * The actions a transition starts from as a guard, Example: (action=0 | action=3), or "" if unknown
+     */
+    private String actionGuard(TransitionInfo info) {
+        String actionVar = getActionVarName();
+        if (info.fromActions != null && !info.fromActions.isEmpty()) {
+            // Multiple source actions (e.g., action=3 or action=2 for SS)
+            List<String> actionParts = new ArrayList<>();
+            for (int action : info.fromActions) {
+                actionParts.add(actionVar + "=" + action);
+            }
+            return "(" + String.join(" | ", actionParts) + ")";
+        } else if (info.fromAction >= 0) {
+            return actionVar + "=" + info.fromAction;
+        }
+        return "";
+    }
+
+    /**
+     * The actions a transition starts from as a guard over the action variable, false if unknown
+     */
+    private PrismGuard actionGuard(TransitionInfo info, PrismGuard.Variable action) {
+        if (info.fromActions != null && !info.fromActions.isEmpty()) {
+            return action.in(info.fromActions);
+        } else if (info.fromAction >= 0) {
+            return action.eq(info.fromAction);
         }
+        return PrismGuard.FALSE;
+    }
 
-        sb.append(String.format("  [sync] %s ->\n", elseGuard.toString()));
-        sb.append(String.format("    (%s_done' = %s_done) & (%s_ing' = %s_ing);\n",
-                moduleName, moduleName, moduleName, moduleName));
+    private PrismGuard.Variable timeVariable() {
+        return new PrismGuard.Variable("time_counter", 0, totalTime, "TOTAL_TIME");
+    }
 
-        sb.append("endmodule\n");
+    private PrismGuard.Variable actionVariable() {
+        return new PrismGuard.Variable(getActionVarName(), actionLow, actionHigh);
+    }
 
-        return sb.toString();
+    /**
+     * A condition_monitoring variable with the range it is declared with
+     */
+    private PrismGuard.Variable monitorVariable(String varRef) {
+        VariableInfo var = stateVariables.get(varRef);
+        return (var != null)
+                ? new PrismGuard.Variable(var.name, var.minValue, var.maxValue)
+                : new PrismGuard.Variable(varRef, 0, 1);
     }
 
     /**
-     * Helper class to store transition information
+     * Check the guards of a module's commands and count the modules that have problems
      */
-    private static class TransitionInfo {
-        String ruleName;
-        String transitionName;
-        int fromAction = -1;
-        List<Integer> fromActions = null;
-        int toAction = -1;
-        String eventName;
-        String pdfName;
+    private void checkCommands(String module, List<PrismGuard> guards) {
+        int problems = PrismGuard.checkCommands(module, guards, logger);
+        if ((problems & 1) != 0) {
+            OVERLAPPING_MODULES.increment();
+        }
+        if ((problems & 2) != 0) {
+            UNCOVERED_MODULES.increment();
+        }
     }
 
     /**
      * Generate reward structures
      * Provides rewards for mission completion, decision quality, and time efficiency
+     * With compressed time a step stands for time_step time units, so the per-step rewards count it that
+     * many times; mission completion is only earned at TOTAL_TIME, where the step is 1 anyway
      */
-    private String generateRewards() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("\n// ---- Reward Structures ----\n");
+    private void generateRewards(PrismEmitter out) {
+        out.text("\n// ---- Reward Structures ----\n");
 
         // Mission completion reward
-        sb.append("rewards \"mission_completion\"\n");
-        sb.append("  time_counter = TOTAL_TIME : 1;\n");
-        sb.append("endrewards\n\n");
+        out.text("rewards \"mission_completion\"\n");
+        out.text("  time_counter = TOTAL_TIME : 1;\n");
+        out.text("endrewards\n\n");
 
         // Decision quality reward (if error tracking is enabled)
         if (config != null && !config.getDecisionErrorDistributions().isEmpty()) {
-            sb.append("rewards \"decision_quality\"\n");
-            sb.append("  decision_correct = 1 : 1;\n");
-            sb.append("  decision_correct = 0 : 0;\n");  // Changed from -1 to avoid PRISM negative reward error
-            sb.append("endrewards\n\n");
+            out.text("rewards \"decision_quality\"\n");
+            out.text("  decision_correct = 1 : ").text(timeStep).text(";\n");
+            out.text("  decision_correct = 0 : 0;\n");  // Changed from -1 to avoid PRISM negative reward error
+            out.text("endrewards\n\n");
 
-            sb.append("rewards \"error_penalty\"\n");
-            sb.append("  decision_correct = 0 : 10;\n");
-            sb.append("endrewards\n\n");
+            out.text("rewards \"error_penalty\"\n");
+            out.text("  decision_correct = 0 : ").text(timeStep.equals("1") ? "10" : "10 * " + timeStep).text(";\n");
+            out.text("endrewards\n\n");
         }
 
         // Time efficiency reward (penalize time spent)
-        sb.append("rewards \"time_cost\"\n");
-        sb.append("  time_counter < TOTAL_TIME : 1;\n");
-        sb.append("endrewards\n\n");
+        out.text("rewards \"time_cost\"\n");
+        out.text("  time_counter < TOTAL_TIME : ").text(timeStep).text(";\n");
+        out.text("endrewards\n\n");
 
         // Response time reward (if response tracking is enabled)
         if (config != null && !config.getResponseSelect().isEmpty()) {
-            sb.append("rewards \"response_efficiency\"\n");
-            sb.append("  response_state > 0 : 1;\n");
-            sb.append("endrewards\n\n");
+            out.text("rewards \"response_efficiency\"\n");
+            out.text("  response_state > 0 : ").text(timeStep).text(";\n");
+            out.text("endrewards\n\n");
         }
 
         // Sickness penalty
-        sb.append("rewards \"sickness_penalty\"\n");
-        sb.append("  sick = 1 : 1;\n");
-        sb.append("endrewards\n");
-
-        return sb.toString();
+        out.text("rewards \"sickness_penalty\"\n");
+        out.text("  sick = 1 : ").text(timeStep).text(";\n");
+        out.text("endrewards\n");
     }
 
     /**
@@ -1621,20 +1611,12 @@ public class TimeBasedTranslator {
             try {
                 return Double.parseDouble(value.toString());
             } catch (NumberFormatException e) {
-                System.err.println("Could not parse " + probName + ": " + value);
+                logger.warn("Could not parse {}: {}", probName, value);
             }
         }
 
-        // Check all rules
-        for (Rule rule : rules.rules) {
-            if (rule.valueMap.containsKey(probName)) {
-                try {
-                    return Double.parseDouble(rule.valueMap.get(probName));
-                } catch (NumberFormatException e) {
-                    System.err.println("Could not parse " + probName);
-                }
-            }
-        }
-        return defaultValue;
+        // The first value a rule sets
+        Double value = facts.numericValue(probName);
+        return (value != null) ? value : defaultValue;
     }
 }
@@ -1,11 +1,23 @@
 package edu.fit.assist.translator.soar;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.*;
 import java.util.stream.Collectors;
 
 import static edu.fit.assist.translator.soar.TranslatorUtils.*;
 
 public class Translate {
+    private static final Logger logger = LoggerFactory.getLogger(Translate.class);
+    private static final String STAGE = "general translation";
+    private static final StageCounters.Counter PROPOSE_RULES = StageCounters.counter(STAGE, "propose rules");
+    private static final StageCounters.Counter EMPTY_GUARDS = StageCounters.counter(STAGE, "empty guards");
+    private static final StageCounters.Counter SUPERSTATE_GUARDS = StageCounters.counter(STAGE, "superstate guards");
+    private static final StageCounters.Counter APPLY_RULES = StageCounters.counter(STAGE, "apply rules");
+    private static final StageCounters.Counter UNMATCHED_APPLY_RULES = StageCounters.counter(STAGE, "unmatched apply rules");
+    private static final StageCounters.Counter TRANSITIONS = StageCounters.counter(STAGE, "transitions");
+
     SoarRules rules;
     public Translate(SoarRules rules){
         this.rules = rules;
@@ -19,17 +31,22 @@ public class Translate {
      */
     String translateSoarToPrismGeneral() {
         StringBuilder output = new StringBuilder();
+        translateSoarToPrismGeneral(PrismEmitter.of(output));
+        return output.toString();
+    }
 
+    /**
+     * Writes the model of {@link #translateSoarToPrismGeneral()} into out as it is generated
+     */
+    void translateSoarToPrismGeneral(PrismEmitter out) {
         LinkedHashMap<String, String> globalConstants = extractGlobalConstants(rules);
 
-        output.append("dtmc\n\n");
-        output.append("global phase : [0..1] init 0;      // 0 = propose, 1 = apply\n");
+        out.text("dtmc\n\n");
+        out.text("global phase : [0..1] init 0;      // 0 = propose, 1 = apply\n");
 
         Map<String, Integer> operatorIdsApply = new LinkedHashMap<>();
-        for (Rule rule : rules.rules) {
-            if (rule.ruleName.startsWith("apply*")) {
-                collectAssignmentsFromApplyRule(rule);
-            }
+        for (Rule rule : rules.getApplyRules()) {
+            collectAssignmentsFromApplyRule(rule);
         }
 
         LinkedHashMap<String, Integer> sequentialOperatorIds = new LinkedHashMap<>();
@@ -49,15 +66,15 @@ public class Translate {
             String prismVar = toPrismVariable(key);
 
             if (val.equals("yes") || val.equals("no")) {
-                output.append("global ").append(prismVar)
-                        .append(" : bool init ")
-                        .append(val.equals("yes") ? "true" : "false").append(";\n");
+                out.text("global ").text(prismVar)
+                        .text(" : bool init ")
+                        .text(val.equals("yes") ? "true" : "false").text(";\n");
                 continue;
             }
 
             if (val.equals("none") || !val.matches("^-?\\d+(\\.\\d+)?$")) {
-                output.append("global ").append(prismVar)
-                        .append(" : [0..2] init 0;\n");
+                out.text("global ").text(prismVar)
+                        .text(" : [0..2] init 0;\n");
                 continue;
             }
 
@@ -68,8 +85,8 @@ public class Translate {
             } catch (Exception e) {
                 maxVal = 5;
             }
-            output.append("global ").append(prismVar)
-                    .append(" : [0..").append(maxVal).append("] init 0;\n");
+            out.text("global ").text(prismVar)
+                    .text(" : [0..").number(maxVal).text("] init 0;\n");
         }
 
         for (String key : variableValueMap.keySet()) {
@@ -81,17 +98,22 @@ public class Translate {
             int init = variableInitMap.getOrDefault(key, 0);
 
             String prismVar = toPrismVariable(key);
-            output.append("global ").append(prismVar)
-                    .append(" : [").append(min).append("..").append(max).append("] init ").append(init).append(";\n");
+            out.text("global ").text(prismVar)
+                    .text(" : [").number(min).text("..").number(max).text("] init ").number(init).text(";\n");
         }
 
-        output.append("global state_operator_name : [0.." + (rules.rules.size() - 1) + "] init 0;\n\n");
+        out.text("global state_operator_name : [0..").number(rules.rules.size() - 1).text("] init 0;\n\n");
 
-        output.append("module user\n");
-        for (Rule proposeRule : rules.rules) {
-            if (!proposeRule.ruleName.startsWith("propose*")) continue;
+        out.text("module user\n");
+        // Work out operator names and guards on the fork-join pool, then number the operators in rule order
+        for (ProposeTransition proposal : mapInOrder(rules.getProposeRules(), this::proposeTransition)) {
+            Rule proposeRule = proposal.rule;
+            PROPOSE_RULES.increment();
+            if (proposal.log != null) {
+                logger.debug("Operator name of {}:{}", proposeRule.ruleName, proposal.log);
+            }
 
-            String baseNameForId = extractOperatorNameFromPropose(proposeRule);
+            String baseNameForId = proposal.operatorName;
 
             if (!sequentialOperatorIds.containsKey(baseNameForId)) {
                 sequentialOperatorIds.put(baseNameForId, operatorIdCounter++);
@@ -100,66 +122,59 @@ public class Translate {
 
             if (proposeRule.ruleName.equals("propose*initialize")) continue;
 
-            String guard = generateGuard(proposeRule);
-            guard = Arrays.stream(guard.split(" & "))
-                    .filter(g -> !g.matches(".* = state_.*") && !g.matches("state_name = .*"))
-                    .collect(Collectors.joining(" & "));
+            String guard = proposal.guard;
             if (guard == null || guard.isEmpty()) {
-                System.out.println("Empty guard for rule: " + proposeRule.ruleName);
+                EMPTY_GUARDS.increment();
+                logger.debug("Empty guard for rule: {}", proposeRule.ruleName);
                 continue;
             }
             if (guard.contains("state_superstate")) {
-                System.out.println("Skipping superstate guard in: " + proposeRule.ruleName);
+                SUPERSTATE_GUARDS.increment();
+                logger.debug("Skipping superstate guard in: {}", proposeRule.ruleName);
                 continue;
             }
 
             int opId = sequentialOperatorIds.get(baseNameForId);
-            output.append("    [] phase=0 & state_name=0 & ").append(guard)
-                    .append(" -> 1.0 : (state_operator_name' = ").append(opId)
-                    .append(") & (phase' = 1);\n");
+            TRANSITIONS.increment();
+            out.text("    [] phase=0 & state_name=0 & ").text(guard)
+                    .text(" -> 1.0 : (state_operator_name' = ").number(opId)
+                    .text(") & (phase' = 1);\n");
         }
 
-        output.append("\n// Apply transitions\n");
-        for (Rule applyRule : rules.rules) {
-            if (!applyRule.ruleName.startsWith("apply*")) continue;
+        out.text("\n// Apply transitions\n");
+        // Join each apply rule to its operator through the id index. The known operators are listed once,
+        // since listing them with every miss made the log quadratic in the number of rules
+        logger.debug("Known operators: {}", sequentialOperatorIds.keySet());
+        List<Rule> applyRules = rules.getApplyRules();
+        List<String> applyAssignments = mapInOrder(applyRules, this::applyAssignments);
+        for (int i = 0; i < applyRules.size(); i++) {
+            Rule applyRule = applyRules.get(i);
             if (applyRule.ruleName.equals("apply*initialize")) continue;
 
             String baseName = applyRule.ruleName.substring("apply*".length()).trim();
 
-            System.out.println("DEBUG: Processing apply rule: " + applyRule.ruleName);
-            System.out.println("  mapped to baseName = " + baseName);
-
+            APPLY_RULES.increment();
             Integer opId = sequentialOperatorIds.get(baseName);
             if (opId == null) {
-                System.out.println("  NO MATCH FOR: " + baseName + " in " + sequentialOperatorIds.keySet());
+                UNMATCHED_APPLY_RULES.increment();
+                logger.debug("Apply rule {}: no operator named {}", applyRule.ruleName, baseName);
                 continue;
             }
-            System.out.println("  matched ID = " + opId);
-
-            List<String> assigns = new ArrayList<>();
-            for (Map.Entry<String, String> entry : applyRule.valueMap.entrySet()) {
-                String k = entry.getKey();
-                String v = entry.getValue();
-
-                if (v.equals("yes")) {
-                    assigns.add(toPrismVariable(k) + "' = true");
-                } else if (v.equals("no")) {
-                    assigns.add(toPrismVariable(k) + "' = false");
-                } else if (v.matches("\\(\\+ 1 <.*>\\)")) {
-                    String var = v.replace("(", "").replace(")", "").replace("+ 1 <", "").replace(">", "").trim();
-                    assigns.add(toPrismVariable(var) + "' = " + toPrismVariable(var) + " + 1");
-                }
-            }
-            assigns.add("phase' = 0");
+            logger.debug("Apply rule {}: operator {} has ID {}", applyRule.ruleName, baseName, opId);
+            TRANSITIONS.increment();
 
-            output.append("    [] phase=1 & state_operator_name=").append(opId)
-                    .append(" -> 1.0 : ")
-                    .append(String.join(" & ", assigns)).append(";\n");
+            out.text("    [] phase=1 & state_operator_name=").number(opId)
+                    .text(" -> 1.0 : ")
+                    .text(applyAssignments.get(i)).text(";\n");
         }
 
-        output.append("endmodule\n\n");
-        output.append("// Operator mappings: \n// ").append(String.join(", ", opMappings)).append("\n");
-        return output.toString();
+        out.text("endmodule\n\n");
+        out.text("// Operator mappings: \n// ");
+        for (int i = 0; i < opMappings.size(); i++) {
+            if (i > 0) out.text(", ");
+            out.text(opMappings.get(i));
+        }
+        out.text("\n");
     }
 
     private String toPrismVariable(String key) {
@@ -169,24 +184,72 @@ public class Translate {
         return "state_" + key;
     }
 
-    private String extractOperatorNameFromPropose(Rule rule) {
-        System.out.println("DEBUG: Extracting operator name from propose rule: " + rule.ruleName);
+    /**
+     * A propose rule with its operator name, filtered guard and, at debug level, the log of the name lookup
+     */
+    private static final class ProposeTransition {
+        final Rule rule;
+        final StringBuilder log = logger.isDebugEnabled() ? new StringBuilder() : null;
+        String operatorName;
+        String guard;
+
+        ProposeTransition(Rule rule) {
+            this.rule = rule;
+        }
+    }
 
+    private ProposeTransition proposeTransition(Rule proposeRule) {
+        ProposeTransition proposal = new ProposeTransition(proposeRule);
+        proposal.operatorName = extractOperatorNameFromPropose(proposeRule, proposal.log);
+        if (!proposeRule.ruleName.equals("propose*initialize")) {
+            proposal.guard = Arrays.stream(generateGuard(proposeRule).split(" & "))
+                    .filter(g -> !g.matches(".* = state_.*") && !g.matches("state_name = .*"))
+                    .collect(Collectors.joining(" & "));
+        }
+        return proposal;
+    }
+
+    /**
+     * The updates of an apply rule, ending with the switch back to the propose phase
+     */
+    private String applyAssignments(Rule applyRule) {
+        List<String> assigns = new ArrayList<>();
+        for (Map.Entry<String, String> entry : applyRule.valueMap.entrySet()) {
+            String k = entry.getKey();
+            String v = entry.getValue();
+
+            if (v.equals("yes")) {
+                assigns.add(toPrismVariable(k) + "' = true");
+            } else if (v.equals("no")) {
+                assigns.add(toPrismVariable(k) + "' = false");
+            } else if (v.matches("\\(\\+ 1 <.*>\\)")) {
+                String var = v.replace("(", "").replace(")", "").replace("+ 1 <", "").replace(">", "").trim();
+                assigns.add(toPrismVariable(var) + "' = " + toPrismVariable(var) + " + 1");
+            }
+        }
+        assigns.add("phase' = 0");
+        return String.join(" & ", assigns);
+    }
+
+    /**
+     * The operator a propose rule proposes, tracing the lookup into log unless log is null
+     */
+    private String extractOperatorNameFromPropose(Rule rule, StringBuilder log) {
         // Check valueMap for operator name entries (state_operator_name or similar)
         for (Map.Entry<String, String> entry : rule.valueMap.entrySet()) {
             String key = entry.getKey();
             String value = entry.getValue();
-            System.out.println("  Checking valueMap entry: " + key + " = " + value);
+            if (log != null) line(log, "  Checking valueMap entry: " + key + " = " + value);
 
             // Look for operator name in valueMap entries
             if (key.contains("operator") && key.contains("name")) {
                 String raw = value.replaceAll("[()<>]", "").trim();
-                System.out.println("    Raw extracted operator name: '" + raw + "'");
+                if (log != null) line(log, "    Raw extracted operator name: '" + raw + "'");
                 String[] tokens = raw.split("\\s+");
                 if (tokens.length > 0) {
-                    System.out.println("    Operator name: '" + tokens[0] + "'");
+                    if (log != null) line(log, "    Operator name: '" + tokens[0] + "'");
                     if (tokens[0].startsWith("apply-")) {
-                        System.out.println("    -> Matched operator name: '" + tokens[0] + "'");
+                        if (log != null) line(log, "    -> Matched operator name: '" + tokens[0] + "'");
                         return tokens[0];
                     }
                 }
@@ -194,26 +257,21 @@ public class Translate {
         }
 
         String fallback = rule.ruleName.substring("propose*".length());
-        System.out.println("  Fallback to rule-derived name: " + fallback);
+        if (log != null) line(log, "  Fallback to rule-derived name: " + fallback);
         return fallback;
     }
 
+    private static void line(StringBuilder log, String text) {
+        log.append(System.lineSeparator()).append(text);
+    }
+
     private String generateGuard(Rule proposeRule) {
         List<String> conditions = new ArrayList<>();
-        for (String cond : proposeRule.guards) {
-            String plain = cond.replace("(", "").replace(")", "").trim();
-            plain = plain.replace("^", "").replace("<s>", "").trim();
-            String[] parts = plain.split(" ", 3);
-            if (parts.length == 3) {
-                String var = toPrismVariable(parts[0]);
-                String op = parts[1];
-                String val = parts[2];
-                if (val.equals("yes")) val = "true";
-                if (val.equals("no")) val = "false";
-                conditions.add(var + " " + op + " " + val);
-            } else {
-                conditions.add(toPrismVariable(plain));
-            }
+        for (Guard cond : proposeRule.guards) {
+            Guard prismCond = cond.withVariable(toPrismVariable(cond.variable.replace("^", "")));
+            if ("yes".equals(cond.value())) prismCond = prismCond.withValue("true");
+            if ("no".equals(cond.value())) prismCond = prismCond.withValue("false");
+            conditions.add(prismCond.toString());
         }
         return String.join(" & ", conditions);
     }
@@ -222,11 +280,11 @@ public class Translate {
     private final Map<String, Integer> variableInitMap = new HashMap<>();
 
     void collectAssignmentsFromApplyRule(Rule applyRule) {
-        for (Map.Entry<String, String> e : applyRule.valueMap.entrySet()) {
+        for (Map.Entry<String, ValueUpdate> e : applyRule.updates.entrySet()) {
             String key = e.getKey();
-            String val = e.getValue();
-            if (!val.matches("^-?\\d+$")) continue;
-            int intVal = Integer.parseInt(val);
+            ValueUpdate update = e.getValue();
+            if (update.intValue == null) continue;
+            int intVal = update.intValue;
             variableValueMap.computeIfAbsent(key, k -> new TreeSet<>()).add(intVal);
             if (applyRule.ruleName.equals("apply*initialize")) {
                 variableInitMap.put(key, intVal);
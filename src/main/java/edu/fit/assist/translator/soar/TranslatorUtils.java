@@ -1,20 +1,24 @@
 package edu.fit.assist.translator.soar;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 /**
  * Utility methods to support the data-driven translation from Soar rules to PRISM code.
  */
 public class TranslatorUtils {
-    private static final Map<String, Pattern[]> NAME_PATTERN_CACHE = new ConcurrentHashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(TranslatorUtils.class);
+    private static final Pattern TIME_WORD_PATTERN = Pattern.compile("\\btime\\b", Pattern.CASE_INSENSITIVE);
+    // Chunks per worker thread, so a few slow chunks don't leave the other threads idle
+    private static final int CHUNKS_PER_THREAD = 4;
 
     /**
      * Finds an apply rule corresponding to the given base name.
@@ -27,12 +31,7 @@ public class TranslatorUtils {
      * @return the matching apply rule, or null if no match is found.
      */
     public static Rule findApplyRuleFor(String baseName, SoarRules soarRules) {
-        for (Rule rule : soarRules.rules) {
-            if (rule.ruleName.equals("apply*" + baseName)) {
-                return rule;
-            }
-        }
-        return null;
+        return soarRules.getRuleByName(SoarRules.APPLY_PREFIX + baseName);
     }
 
     /**
@@ -45,11 +44,10 @@ public class TranslatorUtils {
      * @return a LinkedHashMap of constants, or an empty map if none are found.
      */
     public static LinkedHashMap<String, String> extractGlobalConstants(SoarRules soarRules) {
-        for (Rule rule : soarRules.rules) {
-            if (rule.ruleName.equals("apply*initialize")) {
-                // Return a copy to avoid unintended modifications.
-                return new LinkedHashMap<>(rule.valueMap);
-            }
+        Rule rule = soarRules.getRuleByName(SoarRules.INITIALIZE_RULE);
+        if (rule != null) {
+            // Return a copy to avoid unintended modifications.
+            return new LinkedHashMap<>(rule.valueMap);
         }
         return new LinkedHashMap<>();
     }
@@ -59,35 +57,72 @@ public class TranslatorUtils {
      */
     public static boolean containsNameVariant(String text, String name) {
         if (text == null || name == null || name.isEmpty()) return false;
+        return NameMatcher.forName(name).contains(text);
+    }
 
-        for (Pattern pattern : NAME_PATTERN_CACHE.computeIfAbsent(name, TranslatorUtils::buildNamePatterns)) {
-            if (pattern.matcher(text).find()) {
+    /**
+     * Checks whether the variable or a value of the guard contains the given name or its variants.
+     */
+    public static boolean containsNameVariant(Guard guard, String name) {
+        if (name == null || name.isEmpty()) return false;
+        return NameMatcher.forName(name).contains(guard);
+    }
+
+    /**
+     * Checks whether the rules describe a time-based model: a rule sets or tests the time variable,
+     * sets the total time, or has the time variable or the word "time" in its name. Each key, guard and
+     * rule name is scanned once for both names.
+     */
+    public static boolean isTimeBasedModel(SoarRules rules, String timeVariableName) {
+        // Bit 0 is the time variable, bit 1 the total time
+        final long time = 1L;
+        NameMatcher matcher = new NameMatcher(timeVariableName, PrismConfig.DEFAULT_TOTAL_TIME_KEY);
+        for (Rule rule : rules.rules) {
+            for (String key : rule.valueMap.keySet()) {
+                if (matcher.find(key) != 0) {
+                    return true;
+                }
+            }
+            for (Guard guard : rule.guards) {
+                if ((matcher.find(guard.variable) & time) != 0) {
+                    return true;
+                }
+                for (String value : guard.values) {
+                    if ((matcher.find(value) & time) != 0) {
+                        return true;
+                    }
+                }
+            }
+            if ((matcher.find(rule.ruleName) & time) != 0 || TIME_WORD_PATTERN.matcher(rule.ruleName).find()) {
                 return true;
             }
         }
         return false;
     }
 
-    private static Pattern[] buildNamePatterns(String name) {
-        Set<String> variants = new LinkedHashSet<>();
-        variants.add(name);
-        String dashVariant = name.replace('_', '-');
-        if (!dashVariant.equals(name)) {
-            variants.add(dashVariant);
-        }
-        String underscoreVariant = name.replace('-', '_');
-        if (!underscoreVariant.equals(name)) {
-            variants.add(underscoreVariant);
+    /**
+     * Applies f to each item in chunks on the fork-join pool and returns the results in the order of
+     * the items, so the output doesn't depend on which thread finishes first.
+     */
+    public static <T, R> List<R> mapInOrder(List<T> items, Function<? super T, ? extends R> f) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int chunkCount = Math.min(items.size(), pool.getParallelism() * CHUNKS_PER_THREAD);
+        List<ForkJoinTask<List<R>>> tasks = new ArrayList<>(chunkCount);
+        for (int c = 0; c < chunkCount; c++) {
+            List<T> chunk = items.subList(c * items.size() / chunkCount, (c + 1) * items.size() / chunkCount);
+            tasks.add(pool.submit(() -> {
+                List<R> results = new ArrayList<>(chunk.size());
+                for (T item : chunk) {
+                    results.add(f.apply(item));
+                }
+                return results;
+            }));
         }
-
-        List<Pattern> patterns = new ArrayList<>();
-        for (String variant : variants) {
-            if (variant == null || variant.isEmpty()) continue;
-            String core = Pattern.quote(variant);
-            patterns.add(Pattern.compile("(?<![A-Za-z0-9_])<" + core + ">(?![A-Za-z0-9_])"));
-            patterns.add(Pattern.compile("(?<![A-Za-z0-9_<>])" + core + "(?![A-Za-z0-9_<>])"));
+        List<R> results = new ArrayList<>(items.size());
+        for (ForkJoinTask<List<R>> task : tasks) {
+            results.addAll(task.join());
         }
-        return patterns.toArray(new Pattern[0]);
+        return results;
     }
 
     /**
@@ -135,7 +170,7 @@ public class TranslatorUtils {
 //                System.out.println(guard + ": " + aliasValue);
                 if (guard.contains(aliasValue)) {
                     String[] parts = guard.trim().split("\\s+");
-                    System.out.println(Arrays.toString(parts));
+                    logger.debug("Probability alias guard: {}", (Object) parts);
                     // Normalize the variable name: replace hyphens with underscores, and ensure it starts with "state_"
                     String lhs = parts[0].replace("-", "_").replace("_log","");
                     probabilityExpr = lhs.startsWith("state_") ? lhs : "state_" + lhs;
@@ -0,0 +1,109 @@
+package edu.fit.assist.translator.soar;
+
+import java.io.Serializable;
+
+/**
+ * The value an action gives a variable, kept next to its text in {@link Rule#valueMap} so numbers are
+ * parsed once when the rule is built instead of by every translator that reads them.
+ */
+public final class ValueUpdate implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Marks the value of a (+ 1 <v>) increment, which is stored as v + INCREMENT_SUFFIX
+    static final String INCREMENT_SUFFIX = "_INCREMENT";
+
+    public enum Kind {
+        NIL,        // reject preference, the attribute is removed
+        NUMBER,     // integer or floating point constant
+        SYMBOL,     // symbolic constant
+        VARIABLE,   // the value of another variable
+        INCREMENT,  // (+ 1 <v>)
+        EXPRESSION  // any other computed value
+    }
+
+    final Kind kind;
+    final String text;
+    // The value as a number, null unless kind is NUMBER
+    final Integer intValue;
+    final Double doubleValue;
+
+    private ValueUpdate(Kind kind, String text, Integer intValue, Double doubleValue) {
+        this.kind = kind;
+        this.text = text;
+        this.intValue = intValue;
+        this.doubleValue = doubleValue;
+    }
+
+    /**
+     * Classify a value by its text
+     */
+    public static ValueUpdate of(String text) {
+        if (text.equals(Guard.NIL)) {
+            return new ValueUpdate(Kind.NIL, text, null, null);
+        }
+        Integer intValue = parseInt(text);
+        Double doubleValue = (intValue != null) ? Double.valueOf(intValue) : parseDouble(text);
+        if (doubleValue != null) {
+            return new ValueUpdate(Kind.NUMBER, text, intValue, doubleValue);
+        }
+        if (text.endsWith(INCREMENT_SUFFIX)) {
+            return new ValueUpdate(Kind.INCREMENT, text, null, null);
+        }
+        return new ValueUpdate(text.indexOf(' ') >= 0 ? Kind.EXPRESSION : Kind.SYMBOL, text, null, null);
+    }
+
+    /**
+     * The value of the named variable
+     */
+    public static ValueUpdate variable(String name) {
+        return new ValueUpdate(Kind.VARIABLE, name, null, null);
+    }
+
+    /**
+     * text as Integer.parseInt reads it, or null. Text that can't be a number is rejected
+     * without the cost of an exception.
+     */
+    static Integer parseInt(String text) {
+        if (text.isEmpty() || !startsLikeNumber(text.charAt(0))) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * text as Double.parseDouble reads it, or null
+     */
+    static Double parseDouble(String text) {
+        String trimmed = text.trim();
+        if (trimmed.isEmpty() || !(startsLikeNumber(trimmed.charAt(0)) || trimmed.charAt(0) == '.'
+                || trimmed.startsWith("Infinity") || trimmed.startsWith("NaN"))) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean startsLikeNumber(char c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+';
+    }
+
+    /**
+     * This value with its text from symbols
+     */
+    ValueUpdate share(Symbols symbols) {
+        String shared = symbols.intern(text);
+        return (shared == text) ? this : new ValueUpdate(kind, shared, intValue, doubleValue);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
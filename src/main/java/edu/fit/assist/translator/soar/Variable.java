@@ -1,22 +1,20 @@
 package edu.fit.assist.translator.soar;
 
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
 public class Variable{
     String name;
-    ArrayList<String> values;
+    LinkedHashSet<String> values; // in the order they were first added
     // TYPE constants
     public static final int INVALID=-1,S_CONST = 0, INT = 1, FLOAT = 2;
     public int varType=-1;
     public String initialValue = "";
     public Variable(String name){
         this.name = name;
-        this.values = new ArrayList<String>();
+        this.values = new LinkedHashSet<String>();
     }
 
     public void addValue(String val){
-        if(!values.contains(val)){
-            values.add(val);
-        }
+        values.add(val);
     }
 
     public void generateType(){
@@ -38,18 +36,13 @@ public class Variable{
     }
 
     public int getValueType(String val){
-        try{
-            Integer.parseInt(val);
+        if(ValueUpdate.parseInt(val) != null){
             return Variable.INT;
-        }catch(Exception e){
-            try{
-                Double.parseDouble(val);
-                return Variable.FLOAT;
-            }catch(Exception e1){
-                return Variable.S_CONST;
-            }
-
         }
+        if(ValueUpdate.parseDouble(val) != null){
+            return Variable.FLOAT;
+        }
+        return Variable.S_CONST;
     }
 
 
@@ -3,8 +3,11 @@ import java.util.ArrayList;
 import java.util.List;
 import edu.fit.assist.translator.gen.*;
 import org.antlr.v4.runtime.tree.AbstractParseTreeVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements SoarVisitor<Object> {
+    private static final Logger logger = LoggerFactory.getLogger(Visitor.class);
     Rule currentRule;
     String currentContext = "";
     boolean negateCondition = false;
@@ -13,8 +16,17 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
     String currentActionContextVar = "";
 
     // Constants for special valueMap markers
-    private static final String INCREMENT_SUFFIX = "_INCREMENT";
     private static final String OPERATOR_NAME_SUFFIX = "_operator_name";
+    private static final Guard TOP_STATE_GUARD = Guard.of("state_superstate", Guard.Relation.EQUAL, Guard.NIL);
+    // Attribute path segments dropped from variable names, in the order they are removed
+    private static final String[] IGNORED_PATH_SEGMENTS = {"_output-link", "_input-link", "_systemdata"};
+    // Relation operators removed from a value test to get the value alone, in the order they are removed
+    private static final String[] RELATION_PREFIXES = {"<= ", ">= ", "= ", "< ", "> "};
+    // Text of each relation token followed by a space, indexed by token type
+    private static final String[] RELATION_TEXT = relationText();
+
+    // Reused while building variable names and values, so a test allocates only the final strings
+    private final StringBuilder scratch = new StringBuilder(64);
     /**
      * Visit a parse tree produced by {@link SoarParser#soar}.
      *
@@ -36,19 +48,9 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
     public Object visitSoar_production(SoarParser.Soar_productionContext ctx) {
 
         //Create a new rule
-        String ruleName = ctx.sym_constant().getText();
-        boolean currentIsElaboration;
-//        System.out.println(ctx.sym_constant().Sym_constant().getText());
-        currentIsElaboration = ruleName.contains("elaborate");
-        // System.out.println(ruleName);
-        rules.createNewRule(ruleName);
-
-
-        // Get all the statements that precede the arrow (-->)
-        SoarParser.Condition_sideContext conditions = ctx.condition_side();
+        String ruleName = ctx.sym_constant().getStart().getText();
+        beginProduction(ruleName);
 
-        currentRule = rules.getRuleByName(ruleName);
-        currentRule.isElaboration = currentIsElaboration;
         // sp{ ruleName
         visit(ctx.condition_side());
         // -->
@@ -57,6 +59,19 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
         return null;
     }
 
+    /**
+     * Creates the rule for a new production and makes it the target of the conditions and
+     * actions that follow. Shared with {@link ProductionConverter}.
+     * @param ruleName the production name
+     */
+    void beginProduction(String ruleName){
+        rules.createNewRule(ruleName);
+        currentRule = rules.getRuleByName(ruleName);
+        currentRule.isElaboration = ruleName.contains("elaborate");
+        // Negation of the previous production's last condition must not leak into this one
+        negateCondition = false;
+    }
+
     /**
      * Visit a parse tree produced by {@link SoarParser#flags}.
      *
@@ -96,12 +111,11 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
     public Object visitState_imp_cond(SoarParser.State_imp_condContext ctx) {
 
         String stateKeyword = ctx.STATE().getSymbol().getText();
-        currentContext = stateKeyword;
         // get '<s>'
         String var = (String)visit(ctx.id_test().test().simple_test());
 
 //        System.out.println(var);
-        currentRule.addContext(var, currentContext);
+        beginStateCondition(var, stateKeyword);
 
         for(SoarParser.Attr_value_testsContext attribute : ctx.attr_value_tests()){
             visit(attribute);
@@ -148,7 +162,7 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
 
         // get '<var>'
         String var = (String)visit(ctx.id_test().test().simple_test());
-        currentContext = currentRule.getContext(var);
+        beginCondition(var);
 //        System.out.println(var);
 
 
@@ -158,6 +172,21 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
         return null;
     }
 
+    /**
+     * Starts the (state &lt;s&gt; ...) condition: binds the state variable as the context of its attributes.
+     */
+    void beginStateCondition(String var, String stateKeyword){
+        currentContext = stateKeyword;
+        currentRule.addContext(var, currentContext);
+    }
+
+    /**
+     * Starts a condition on an identifier that was bound by an earlier condition.
+     */
+    void beginCondition(String var){
+        currentContext = currentRule.getContext(var);
+    }
+
     /**
      * Visit a parse tree produced by {@link SoarParser#id_test}.
      *
@@ -178,17 +207,34 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
     @Override
     public Object visitAttr_value_tests(SoarParser.Attr_value_testsContext ctx) {
 
-        String line = ctx.getText();
-//        System.out.println(line);
-        String variable = ctx.attr_test(0).getText();
-        variable = currentContext+"_"+variable;
-        variable = cleanVariableName(variable);
-//        System.out.println(currentContext+"_"+variable);
-
+        // Nearly every attribute is a single token, whose text needs no walk over the subtree
+        SoarParser.Attr_testContext attributeTest = ctx.attr_test(0);
+        String attribute = (attributeTest.getStart() == attributeTest.getStop())
+                ? attributeTest.getStart().getText()
+                : attributeTest.getText();
 
         // get value check
         List<SoarParser.Value_testContext> values = ctx.value_test();
-        boolean existsCheck = values.size()==0;
+        String value = values.isEmpty() ? null : (String)visit(values.get(0));
+        addAttributeTest(attribute, !values.isEmpty(), value, ctx.Negative_pref() != null);
+        return null;
+    }
+
+    /**
+     * Adds the guard for one attribute test (^attribute value) of the current condition.
+     * Shared with {@link ProductionConverter}.
+     * @param attribute the attribute name as written in Soar
+     * @param hasValue false if the attribute has no value test, i.e. the test is an existence check
+     * @param value the value test as text (Example: "&lt;v&gt;", "5", "&lt; 5", "&lt;&lt; a b &gt;&gt;")
+     * @param negatedAttribute true for -^attribute
+     */
+    void addAttributeTest(String attribute, boolean hasValue, String value, boolean negatedAttribute){
+        scratch.setLength(0);
+        scratch.append(currentContext).append('_').append(attribute);
+        String variable = cleanVariableName(scratch);
+//        System.out.println(currentContext+"_"+variable);
+
+        boolean existsCheck = !hasValue;
 
         if (!variable.equals("state_io") && !variable.equals("state_operator")){
             currentRule.addVariable(variable);
@@ -197,38 +243,40 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
 
         // Attribute has no value, so guard is checking for existance
         if(existsCheck){
-            if(ctx.Negative_pref() != null){ // check for not existing
-                currentRule.addGuard(variable+" = nil");
+            if(negatedAttribute){ // check for not existing
+                currentRule.addGuard(Guard.of(variable, Guard.Relation.EQUAL, Guard.NIL));
             }else{ // check for presence
-                currentRule.addGuard(variable+" != nil");
+                currentRule.addGuard(Guard.of(variable, Guard.Relation.NOT_EQUAL, Guard.NIL));
             }
         }else{ // Attribute has a value
-            String value = (String)visit(values.get(0));
-
 //            System.out.println(variable + " " + value);
 
             // Handle null value case
             if (value == null) {
                 // Skip processing if value is null
-                return null;
+                return;
             }
 
             // Check is value is in the format: <x>
-            String[] valueList =  value.split(" ");
-            String attributePartOfValue = valueList[valueList.length-1];
+            boolean starInLastWord = value.indexOf('*', lastWordStart(value)) >= 0;
 //            if(currentRule.ruleName.startsWith("top-state*elaborate*error-info*warn-condition*low")){
 //                //System.err.println(attributePartOfValue +"; "+attributePartOfValue+"E");
 //            }
-            if(!((value.startsWith("<") && value.endsWith(">") && !value.contains(" "))|| attributePartOfValue.contains("*"))){
+            if(!((value.startsWith("<") && value.endsWith(">") && value.indexOf(' ') < 0) || starInLastWord)){
                 //if(value.contains("*")){
                 //System.err.println(value +"; "+attributePartOfValue+"E");
                 //}
                 // Removes the conditional check from value
-                String onlyValue = value.replaceAll("<= ", "").replaceAll(">= ", "").replaceAll("= ", "");
-                onlyValue = onlyValue.replaceAll("< ", "").replaceAll("> ", "");
+                scratch.setLength(0);
+                scratch.append(value);
+                boolean isInequality = false;
+                for (String relation : RELATION_PREFIXES) {
+                    isInequality |= removeAll(scratch, relation);
+                }
+                String onlyValue = isInequality ? scratch.toString() : value;
 
                 // Don't add inequalities to the list of values a variable can have
-                if(onlyValue.equals(value)){
+                if(!isInequality){
                     rules.addVariableValue(variable, onlyValue);
                 }else{
                     // It is an inequality, hence we can use it for setting Types
@@ -257,29 +305,22 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
 
                 for(String key : currentRule.contextMap.keySet()){
                     if(value.contains(key)){
-                        value = value.replaceAll(key, currentRule.contextMap.get(key));
+                        value = value.replace(key, currentRule.contextMap.get(key));
                         break;
                     }
                 }
 
                 if(value.contains("<") || value.contains(">")){
-                    currentRule.addGuard(variable+" "+value);
+                    currentRule.addGuard(Guard.ofTest(variable, value));
                 }else{
-                    if(ctx.Negative_pref() != null ^ negateCondition){
-                        currentRule.addGuard(variable+" != "+value);
+                    if(negatedAttribute ^ negateCondition){
+                        currentRule.addGuard(Guard.of(variable, Guard.Relation.NOT_EQUAL, value));
 
-                        if(rules.variables.containsKey(value)){
-                            String leftSide = variable;
-                            String rightSide = value;
-                            //System.out.println(leftSide);
-                            //System.out.println(rightSide);
-                            rules.addTypeNode(leftSide, rightSide);
-                            rules.addTypeNode(rightSide, leftSide);
-                        }
+                        rules.addTypeEdgeIfVariable(variable, value);
 
 
                     }else{
-                        currentRule.addGuard(variable+" = "+value);
+                        currentRule.addGuard(Guard.of(variable, Guard.Relation.EQUAL, value));
 
                     }
                 }
@@ -288,7 +329,7 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
                 // check for negation
 
                 // Negate if one negation exists, if two exist, then don't
-                /*if(ctx.Negative_pref() != null ^ negateCondition){
+                /*if(negatedAttribute ^ negateCondition){
 
                     value = "!" + value;
                     currentRule.addContext(value, variable);
@@ -310,23 +351,83 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
                     rules.addTypeNode(rightSide, leftSide);
 
 
-                    if(ctx.Negative_pref() != null ^ negateCondition){
-                        currentRule.addGuard(variable+" != "+value);
+                    if(negatedAttribute ^ negateCondition){
+                        currentRule.addGuard(Guard.of(variable, Guard.Relation.NOT_EQUAL, value));
                     }else{
-                        currentRule.addGuard(variable+" = "+value);
+                        currentRule.addGuard(Guard.of(variable, Guard.Relation.EQUAL, value));
                     }
 
                 }
             }
         }
-        return null;
     }
 
     public String cleanVariableName(String s){
-        s=s.replaceAll("\\_output\\-link", "");
-        s=s.replaceAll("\\_input\\-link", "");
-        s=s.replaceAll("\\_systemdata", "");
-        return s;
+        if (s.indexOf('_') < 0) {
+            return s;
+        }
+        scratch.setLength(0);
+        scratch.append(s);
+        return cleanVariableName(scratch);
+    }
+
+    /**
+     * Removes the ignored path segments from the name in the buffer, in place
+     * @return the cleaned name
+     */
+    private static String cleanVariableName(StringBuilder name){
+        for (String segment : IGNORED_PATH_SEGMENTS) {
+            removeAll(name, segment);
+        }
+        return name.toString();
+    }
+
+    /**
+     * Removes every occurrence of part from the buffer, scanning left to right like
+     * {@link String#replace} does, without allocating
+     * @return true if anything was removed
+     */
+    private static boolean removeAll(StringBuilder s, String part){
+        int next = s.indexOf(part);
+        if (next < 0) {
+            return false;
+        }
+        int write = next;
+        int read = next;
+        while (next >= 0) {
+            for (; read < next; read++) {
+                s.setCharAt(write++, s.charAt(read));
+            }
+            read = next + part.length();
+            next = s.indexOf(part, read);
+        }
+        for (int end = s.length(); read < end; read++) {
+            s.setCharAt(write++, s.charAt(read));
+        }
+        s.setLength(write);
+        return true;
+    }
+
+    /**
+     * Start of the last space separated word of a value, the word value.split(" ") ends with
+     */
+    private static int lastWordStart(String value){
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return value.lastIndexOf(' ', end - 1) + 1;
+    }
+
+    private static String[] relationText(){
+        String[] text = new String[SoarLexer.VOCABULARY.getMaxTokenType() + 1];
+        for (int type = 1; type < text.length; type++) {
+            String literal = SoarLexer.VOCABULARY.getLiteralName(type);
+            if (literal != null) {
+                text[type] = literal.substring(1, literal.length() - 1) + " ";
+            }
+        }
+        return text;
     }
 
     /**
@@ -454,18 +555,12 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
     @Override
     public Object visitRelational_test(SoarParser.Relational_testContext ctx) {
 
-        String output = "";
-        if(ctx.relation() != null){
-            output += (String)visit(ctx.relation());
-        }
-
-
-        if(ctx.single_test() != null){
-            output += (String)visit(ctx.single_test());
+        String relation = (ctx.relation() != null) ? (String)visit(ctx.relation()) : null;
+        String test = (ctx.single_test() != null) ? (String)visit(ctx.single_test()) : null;
+        if (relation == null) {
+            return (Object)((test == null) ? "" : test);
         }
-
-
-        return (Object)output;
+        return (Object)((test == null) ? relation : relation + test);
 
     }
 
@@ -478,7 +573,9 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
     @Override
     public Object visitRelation(SoarParser.RelationContext ctx) {
 
-        return (Object)(ctx.getText()+" ");
+        // Relations are single tokens, so their text with the trailing space is shared
+        String text = (ctx.getChildCount() == 1) ? RELATION_TEXT[ctx.getStart().getType()] : null;
+        return (Object)((text != null) ? text : ctx.getText()+" ");
     }
 
     /**
@@ -503,7 +600,7 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
     public Object visitVariable(SoarParser.VariableContext ctx) {
 
         // return variable name
-        return (Object)("<"+ctx.sym_constant().Sym_constant().getSymbol().getText()+">");
+        return (Object)(ctx.Variable().getSymbol().getText());
     }
 
     /**
@@ -516,7 +613,7 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
     public Object visitConstant(SoarParser.ConstantContext ctx) {
 //        System.out.println(ctx.getText());
         if (ctx.sym_constant() != null){
-            return (Object)ctx.sym_constant().Sym_constant().getSymbol().getText();
+            return (Object)ctx.sym_constant().getStart().getText();
         }
         if(ctx.Int_constant() != null){
             return (Object)ctx.Int_constant().getSymbol().getText();
@@ -557,9 +654,8 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
     public Object visitAction(SoarParser.ActionContext ctx) {
         // context
         String contextVar = (String)visit(ctx.variable());
-        currentActionContextVar = contextVar;
 //        System.out.println(contextVar);
-        currentContext = currentRule.getContext(contextVar);
+        beginAction(contextVar);
         List<SoarParser.Attr_value_makeContext> attributes = ctx.attr_value_make();
         for(SoarParser.Attr_value_makeContext attribute : attributes){
             visit(attribute);
@@ -567,6 +663,14 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
         return null;
     }
 
+    /**
+     * Starts an action (&lt;var&gt; ^attribute value ...) on an identifier bound on the condition side.
+     */
+    void beginAction(String contextVar){
+        currentActionContextVar = contextVar;
+        currentContext = currentRule.getContext(contextVar);
+    }
+
     /**
      * Visit a parse tree produced by {@link SoarParser#print}.
      *
@@ -629,23 +733,41 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
     @Override
     public Object visitAttr_value_make(SoarParser.Attr_value_makeContext ctx) {
         String attributeName = (String)visit(ctx.variable_or_sym_constant(0).sym_constant());
+        String variable = beginAttributeValue(attributeName);
+        SoarParser.Value_makeContext value = ctx.value_make();
+        String val = (String)visit(value);
+        addAttributeValue(attributeName, variable, val);
+        return null;
+    }
+
+    /**
+     * Moves the context to the attribute being made, returning its variable name.
+     */
+    String beginAttributeValue(String attributeName){
         String variable = currentContext + "_" + attributeName;
         variable = cleanVariableName(variable);
-        SoarParser.Value_makeContext value = ctx.value_make();
         currentContext = variable;
-        String val = (String)visit(value);
+        return variable;
+    }
 
+    /**
+     * Records the value made for an attribute on the action side. Shared with {@link ProductionConverter}.
+     * @param attributeName the attribute name as written in Soar
+     * @param variable the variable name returned by {@link #beginAttributeValue(String)}
+     * @param val the value as text (Example: "1", "&lt;v&gt;", "1 + &lt;c&gt;"), "nil" for a reject preference
+     */
+    void addAttributeValue(String attributeName, String variable, String val){
         // Store operator name in valueMap for later extraction
         if (attributeName.equals("name") && currentActionContextVar.equals("<o>") && val != null) {
             // Store in valueMap with full context so Translate.java can find it
             String contextWithoutPrefix = currentContext.startsWith("state_") ?
                     currentContext.substring(6) : currentContext;
             String operatorNameKey = contextWithoutPrefix + OPERATOR_NAME_SUFFIX;
-            currentRule.valueMap.put(operatorNameKey, val);
+            currentRule.addAttrValue(operatorNameKey, val);
         }
 
         if (val == null) {
-            return null;
+            return;
         }
 
         // Handle increment expression (+ 1 <var>) by storing in valueMap
@@ -657,26 +779,26 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
 
             if (prismVar != null) {
                 // Store increment info in valueMap as a special marker
-                currentRule.valueMap.put(prismVar, innerVar + INCREMENT_SUFFIX);
+                currentRule.addAttrValue(prismVar, innerVar + ValueUpdate.INCREMENT_SUFFIX);
             } else {
-                System.out.println("WARNING: Missing context for 1 + <" + innerVar + "> in rule " + currentRule.ruleName);
+                logger.warn("Missing context for 1 + <{}> in rule {}", innerVar, currentRule.ruleName);
             }
 
-            return null; // skip rest
+            return; // skip rest
         }
 
         // Handle symbolic variable references
         if (val.startsWith("<") && val.endsWith(">")) {
             if (currentRule.contextMap.containsKey(val) && !currentRule.getContext(val).equals(variable)) {
                 String resolved = currentRule.getContext(val);
-                currentRule.addAttrValue(variable, resolved);
-                rules.addVariableValue(variable, "^VAR" + resolved);
+                currentRule.addAttrValue(variable, ValueUpdate.variable(resolved));
+                rules.addVariableValue(variable, SoarRules.REFERENCE_PREFIX + resolved);
                 rules.addTypeNode(variable, resolved);
                 rules.addTypeNode(resolved, variable);
             } else {
                 currentRule.addContext(val, variable);
             }
-            return null;
+            return;
         }
 
         // Handle substitutions like 'val = 1+<x>' or 'val = X'
@@ -687,7 +809,7 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
             if (replacement != null) {
                 val = val.replace(attribute, replacement);
             } else {
-                System.out.println("WARNING: Missing context for " + attribute + " in rule " + currentRule.ruleName);
+                logger.warn("Missing context for {} in rule {}", attribute, currentRule.ruleName);
             }
         }
 
@@ -697,14 +819,25 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
 
         // Track initial value if elaboration rule
         if (currentRule.isElaboration && currentRule.guards.size() == 1 &&
-                currentRule.guards.get(0).equals("state_superstate = nil")) {
-            rules.variables.get(variable).initialValue = val;
+                currentRule.guards.get(0).equals(TOP_STATE_GUARD)) {
+            rules.setInitialValue(variable, val);
         }
-
-        return null;
     }
 
 
+    /**
+     * The operator name the current rule tests for, the last one if there are several, or "" if none
+     */
+    private String testedOperatorName(){
+        String op_name = "";
+        for(Guard guard : currentRule.guards){
+            if(guard.relation == Guard.Relation.EQUAL && guard.variable.equals("state_operator_name")){
+                op_name = guard.value();
+            }
+        }
+        return op_name;
+    }
+
     /**
      * Visit a parse tree produced by {@link SoarParser#variable_or_sym_constant}.
      *
@@ -727,7 +860,7 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
 //        System.out.println(ctx.getText());
         String value = "";
         String pref_specifier = null;
-        value = (String)visit(ctx.value(0));
+        value = (String)visit(ctx.value());
         // get the value of the attribute Example: <o> in (<s> ^operator <o> +)
         if(ctx.pref_specifier(2) != null){
 
@@ -765,35 +898,17 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
                     currentRule.priority = Double.parseDouble(pref_specifier.substring(1));
                 }catch(Exception e){e.printStackTrace();}
                 // Search for the name of the operator of which we are setting the preference.
-                String op_name = "";
-                for(String guard : currentRule.guards){
-
-                    if(guard.startsWith("state_operator_name = ")){
-                        op_name = guard.substring("state_operator_name = ".length());
-                    }
-                }
-                currentRule.addAttrValue("state_operator_name", op_name);
+                currentRule.addAttrValue("state_operator_name", testedOperatorName());
                 // check if rule has max priority
             }else if(pref_specifier.contains(">")){
                 // set priority value
                 currentRule.priority = 10_000;
                 // Search for the name of the operator of which we are setting the preference.
-                String op_name = "";
-                for(String guard : currentRule.guards){
-
-                    if(guard.startsWith("state_operator_name = ")){
-                        op_name = guard.substring("state_operator_name = ".length());
-                    }
-                }
-                currentRule.addAttrValue("state_operator_name", op_name);
+                currentRule.addAttrValue("state_operator_name", testedOperatorName());
             }
         }
 
 
-        // get the value of the attribute when using a compressed notation Example: new_val in (<s> ^value old_val - new_val +)
-        if(ctx.value(1) != null){
-            value = (String)visit(ctx.value(1));
-        }
         if(pref_specifier !=null && pref_specifier.equals("-")){
             value = "nil";
         }
@@ -864,6 +979,6 @@ public class Visitor<Object> extends AbstractParseTreeVisitor<Object> implements
     @Override
     public Object visitSym_constant(SoarParser.Sym_constantContext ctx) {
 //        System.out.println(ctx.Sym_constant().getText());
-        return (Object)(ctx.Sym_constant().getSymbol().getText());
+        return (Object)(ctx.getStart().getText());
     }
 }
\ No newline at end of file
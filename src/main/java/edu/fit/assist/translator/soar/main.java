@@ -1,70 +1,186 @@
 package edu.fit.assist.translator.soar;
-import edu.fit.assist.translator.gen.*;
-import org.antlr.v4.runtime.ANTLRInputStream;
-import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.CharStream;
+import org.jsoar.kernel.Agent;
+import org.jsoar.kernel.SoarException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.io.*;
-import java.util.regex.Pattern;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 public class main{
+    private static final Logger logger = LoggerFactory.getLogger(main.class);
     public static String debugPath = "D:\\ICS_SOAR\\load.soar";
-    private static final Pattern TIME_WORD_PATTERN = Pattern.compile("\\btime\\b", Pattern.CASE_INSENSITIVE);
+    // Front ends selectable with --frontend=<name>
+    static final String FRONT_END_TEXT = "text";     // print productions and re-parse them with SoarParser
+    static final String FRONT_END_JSOAR = "jsoar";   // convert JSoar's Production objects directly
+    static final String FRONT_END_VERIFY = "verify"; // run both and report rules on which they disagree
+    static final String FRONT_END_RAW = "raw";       // the load path is a production dump, lexed from a memory-mapped file
+    static final String FRONT_END_SOURCE = "source"; // read source/pushd/popd/sp load trees without JSoar and parse the productions as written
 
-    public static void main(String[] args){
-        try{
-            String loadPath = (args.length > 0) ? args[0] : debugPath;
-            String configPath = (args.length > 1) ? args[1] : null;
+    // Parse modes of the text front end, selectable with --parse=<name>
+    static final String PARSE_SEQUENTIAL = "sequential"; // one parser and visitor for all productions
+    static final String PARSE_PARALLEL = "parallel";     // parse and visit chunks of productions on the fork-join pool
+    static final String PARSE_INCREMENTAL = "incremental"; // only parse productions that changed since the last run
+    static final String PARSE_STREAMING = "streaming";     // parse, visit and drop one production at a time
 
-            // Read all Soar files recursively
-            String fullSoarText = Input.getSoarRules(loadPath);
+    // Print the per-decision prediction costs of the parser before parsing (--profile-parser)
+    static boolean profileParser = false;
 
-            // Parse all rules together
-            ANTLRInputStream input = new ANTLRInputStream(fullSoarText);
-            SoarLexer lexer = new SoarLexer(input);
-            CommonTokenStream tokens = new CommonTokenStream(lexer);
-            SoarParser parser = new SoarParser(tokens);
-            SoarParser.SoarContext tree = parser.soar();
+    // Where the model is written; it is also echoed to stdout unless --no-echo is given
+    static final String OUTPUT_FILE = "output1.pm";
 
-            Visitor visitor = new Visitor();
-            visitor.rules = new SoarRules();
-            visitor.visit(tree);
+    public static void main(String[] args){
+        try{
+            List<String> positional = new ArrayList<>();
+            String frontEnd = FRONT_END_TEXT;
+            String parseMode = PARSE_SEQUENTIAL;
+            ProductionCache cache = ProductionCache.fromSystemProperties();
+            boolean echo = true;
+            boolean compressTime = false;
+            for (String arg : args) {
+                if (arg.startsWith("--frontend=")) {
+                    frontEnd = arg.substring("--frontend=".length());
+                } else if (arg.startsWith("--parse=")) {
+                    parseMode = arg.substring("--parse=".length());
+                } else if (arg.startsWith("--cache-dir=")) {
+                    cache = new ProductionCache(Paths.get(arg.substring("--cache-dir=".length())));
+                } else if (arg.equals("--no-cache")) {
+                    cache = null;
+                } else if (arg.equals("--profile-parser")) {
+                    profileParser = true;
+                } else if (arg.equals("--no-echo")) {
+                    echo = false;
+                } else if (arg.equals("--compress-time")) {
+                    compressTime = true;
+                } else if (arg.startsWith("--")) {
+                    logger.warn("Ignoring unknown option {}", arg);
+                } else {
+                    positional.add(arg);
+                }
+            }
+            String loadPath = (positional.size() > 0) ? positional.get(0) : debugPath;
+            String configPath = (positional.size() > 1) ? positional.get(1) : null;
+
+            SoarRules rules = loadRules(loadPath, frontEnd, parseMode, cache);
 
             PrismConfig config = null;
             if (configPath != null) {
                 try {
                     config = PrismConfig.loadFromFile(configPath);
-                    System.err.println("INFO: Using configuration file: " + configPath);
+                    logger.info("Using configuration file: {}", configPath);
                 } catch (IOException e) {
-                    System.err.println("Warning: Could not load config file " + configPath + ": " + e.getMessage());
+                    logger.warn("Could not load config file {}: {}", configPath, e.getMessage());
                 }
             }
 
             // Check if this is a time-based model
-            boolean isTimeBasedModel = hasTimeBasedRules(visitor.rules, config);
-
-            String translatedText;
-            if (isTimeBasedModel) {
-                // Use TimeBasedTranslator for time-window models
-                TimeBasedTranslator timeTranslator = (config != null)
-                        ? new TimeBasedTranslator(visitor.rules, config)
-                        : new TimeBasedTranslator(visitor.rules);
-                translatedText = timeTranslator.translateToTimeBased();
-            } else {
-                // Use general translator
-                Translate translatorFormatter = new Translate(visitor.rules);
-                translatedText = translatorFormatter.translateSoarToPrismGeneral();
-            }
+            boolean isTimeBasedModel = hasTimeBasedRules(rules, config);
 
-            System.out.println(translatedText);
-            PrintWriter pw = new PrintWriter(new File("output1.pm"));
-            pw.println(translatedText);
-            pw.flush();
-            pw.close();
+            // Stream the model into the output file, which only replaces the old one once it is complete
+            Path outputPath = Paths.get(OUTPUT_FILE);
+            try (ChannelEmitter out = ChannelEmitter.create(outputPath)) {
+                if (isTimeBasedModel) {
+                    // Use TimeBasedTranslator for time-window models
+                    TimeBasedTranslator timeTranslator = (config != null)
+                            ? new TimeBasedTranslator(rules, config)
+                            : new TimeBasedTranslator(rules);
+                    timeTranslator.setCompressTime(compressTime);
+                    timeTranslator.translateToTimeBased(out);
+                } else {
+                    // Use general translator
+                    Translate translatorFormatter = new Translate(rules);
+                    translatorFormatter.translateSoarToPrismGeneral(out);
+                }
+                out.text(System.lineSeparator());
+                out.commit();
+
+                // Echo the finished model after the generation logs, as printing the whole model did before
+                if (echo) {
+                    System.out.flush();
+                    out.copyTo(Channels.newChannel(System.out));
+                    System.out.flush();
+                }
+            }
+            StageCounters.logSummary(logger);
 
         }catch(Exception e){
             e.printStackTrace();
         }
     }
 
+    /**
+     * Load all Soar files recursively and build the rules with the selected front end
+     */
+    private static SoarRules loadRules(String loadPath, String frontEnd, String parseMode, ProductionCache cache) throws SoarException, IOException {
+        switch (frontEnd) {
+            case FRONT_END_JSOAR:
+                return ProductionConverter.convert(Input.getProductions(Input.loadAgent(loadPath)));
+            case FRONT_END_VERIFY: {
+                Agent agent = Input.loadAgent(loadPath);
+                SoarRules textRules = parseRules(Input.getSoarRules(agent, loadPath));
+                SoarRules directRules = ProductionConverter.convert(Input.getProductions(agent));
+                int differences = reportFrontEndDifferences(textRules, directRules);
+                logger.info("Front ends differ in {} places over {} rules", differences, textRules.rules.size());
+                return textRules;
+            }
+            case FRONT_END_TEXT:
+                // Read all Soar files recursively, streamed straight into the lexer's input
+                return parseRules(Input.getSoarRules(loadPath, cache, false), parseMode, cache);
+            case FRONT_END_SOURCE:
+                return parseRules(Input.getSoarRules(loadPath, cache, true), parseMode, cache);
+            case FRONT_END_RAW:
+                return parseRules(MappedCharStream.open(Paths.get(loadPath)), parseMode, cache);
+            default:
+                throw new IllegalArgumentException("Unknown front end: " + frontEnd);
+        }
+    }
+
+    /**
+     * Parse all rules together and walk the parse tree
+     */
+    static SoarRules parseRules(CharStream input) {
+        return RuleParser.parseRules(input);
+    }
+
+    static SoarRules parseRules(CharStream input, String parseMode, ProductionCache cache) {
+        if (profileParser) {
+            ParserProfiler.profile(input, System.err);
+            input.seek(0);
+        }
+        switch (parseMode) {
+            case PARSE_SEQUENTIAL:
+                return RuleParser.parseRules(input);
+            case PARSE_PARALLEL:
+                return ParallelRuleParser.parseRules(input);
+            case PARSE_INCREMENTAL:
+                if (cache == null) {
+                    logger.warn("--parse=incremental needs the cache, parsing sequentially");
+                    return RuleParser.parseRules(input);
+                }
+                return IncrementalRuleParser.parseRules(input, cache);
+            case PARSE_STREAMING:
+                return StreamingRuleParser.parseRules(input);
+            default:
+                throw new IllegalArgumentException("Unknown parse mode: " + parseMode);
+        }
+    }
+
+    /**
+     * Compare the rules built by the text and the JSoar front ends, printing every difference
+     * @return the number of differences
+     */
+    private static int reportFrontEndDifferences(SoarRules textRules, SoarRules directRules) {
+        List<String> differences = ProductionConverter.differences(textRules, directRules);
+        for (String difference : differences) {
+            logger.warn(difference);
+        }
+        return differences.size();
+    }
+
     /**
      * Check if this is a time-based model by looking for time-related variables
      */
@@ -72,40 +188,7 @@ public class main{
         final String timeVar = (config != null)
                 ? config.getEffectiveTimeVariable()
                 : PrismConfig.DEFAULT_TIME_VARIABLE;
-
-        for (Rule rule : rules.rules) {
-            // Check for time-related variables
-            boolean hasTimeReference = false;
-            for (String key : rule.valueMap.keySet()) {
-                if (TranslatorUtils.containsNameVariant(key, timeVar)) {
-                    hasTimeReference = true;
-                    break;
-                }
-            }
-            if (!hasTimeReference) {
-                for (String guard : rule.guards) {
-                    if (TranslatorUtils.containsNameVariant(guard, timeVar)) {
-                        hasTimeReference = true;
-                        break;
-                    }
-                }
-            }
-            if (hasTimeReference) {
-                return true;
-            }
-            boolean hasTotalTime = rule.valueMap.keySet().stream()
-                    .anyMatch(key -> TranslatorUtils.containsNameVariant(key, PrismConfig.DEFAULT_TOTAL_TIME_KEY));
-            if (hasTotalTime) {
-                return true;
-            }
-            boolean hasTimeInRuleName = TranslatorUtils.containsNameVariant(rule.ruleName, timeVar) ||
-                    TIME_WORD_PATTERN.matcher(rule.ruleName).find();
-
-            if (hasTimeInRuleName) {
-                return true;
-            }
-        }
-        return false;
+        return TranslatorUtils.isTimeBasedModel(rules, timeVar);
     }
 
 }
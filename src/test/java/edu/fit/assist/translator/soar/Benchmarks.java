@@ -0,0 +1,96 @@
+package edu.fit.assist.translator.soar;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.function.LongSupplier;
+
+/**
+ * Helpers shared by the main-based benchmarks in the test sources. Each benchmark is run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=<benchmark>}.
+ */
+final class Benchmarks {
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    // Results of the measured tasks, kept so the JIT can't drop the work
+    static long sink;
+
+    private Benchmarks() {
+    }
+
+    /**
+     * The sample agent flat.soar repeated copies times, with the copy number appended to every
+     * production name so each copy is a separate rule
+     */
+    static String syntheticAgent(int copies) throws IOException {
+        String flat;
+        try (InputStream in = Benchmarks.class.getResourceAsStream("/agents/flat.soar")) {
+            flat = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        StringBuilder agent = new StringBuilder(flat.length() * copies + 16 * copies);
+        for (int k = 0; k < copies; k++) {
+            int start = 0;
+            for (int sp = flat.indexOf("sp {"); sp >= 0; sp = flat.indexOf("sp {", sp + 1)) {
+                int nameEnd = sp + 4;
+                while (!Character.isWhitespace(flat.charAt(nameEnd))) {
+                    nameEnd++;
+                }
+                agent.append(flat, start, nameEnd).append('-').append(k);
+                start = nameEnd;
+            }
+            agent.append(flat, start, flat.length()).append('\n');
+        }
+        return agent.toString();
+    }
+
+    static int intArg(String[] args, int index, int defaultValue) {
+        return (args.length > index) ? Integer.parseInt(args[index]) : defaultValue;
+    }
+
+    /**
+     * Runs task a few times to warm up, then prints the best time of the measured runs and the bytes
+     * the last run allocated, both per item
+     */
+    static void report(String label, int items, LongSupplier task) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            sink += task.getAsLong();
+        }
+        long best = Long.MAX_VALUE;
+        long allocated = 0;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            sink += task.getAsLong();
+            best = Math.min(best, System.nanoTime() - start);
+            allocated = allocatedBytes() - bytes;
+        }
+        System.out.printf("%-28s best %8.2f ms, %10.1f ns and %8d bytes allocated per item%n",
+                label, best / 1e6, (double) best / items, (allocated < 0) ? -1 : allocated / items);
+    }
+
+    /**
+     * Bytes the current thread has allocated so far, or a negative value if the JVM can't tell
+     */
+    static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return Long.MIN_VALUE;
+    }
+
+    /**
+     * Heap in use after a few garbage collections, so only what is still reachable is counted
+     */
+    static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,31 @@
+package edu.fit.assist.translator.soar;
+
+import org.jsoar.kernel.Agent;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * The text front end and {@link ProductionConverter} must build the same rules from the same agent.
+ */
+class FrontEndEquivalenceTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"readme.soar", "flat.soar", "chain.soar", "features.soar", "load.soar"})
+    void frontEndsBuildTheSameRules(String agentFile) throws Exception {
+        String path = Paths.get(FrontEndEquivalenceTest.class.getResource("/agents/" + agentFile).toURI()).toString();
+        Agent agent = Input.loadAgent(path);
+
+        SoarRules textRules = RuleParser.parseRules(Input.getSoarRules(agent, path));
+        SoarRules directRules = ProductionConverter.convert(Input.getProductions(agent));
+
+        assertFalse(textRules.rules.isEmpty(), "no rules were loaded from " + agentFile);
+        List<String> differences = ProductionConverter.differences(textRules, directRules);
+        assertEquals(List.of(), differences, String.join("\n", differences));
+    }
+}
@@ -0,0 +1,99 @@
+package edu.fit.assist.translator.soar;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * MappedCharStream must replace each maximal subpart of an ill-formed UTF-8 sequence with U+FFFD,
+ * as the Unicode standard recommends.
+ */
+class MappedCharStreamTest {
+
+    private static final String R = "\uFFFD";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void illFormedSequencesBecomeOneReplacementEach() throws IOException {
+        Object[][] cases = {
+                // stray continuation bytes
+                {new int[] {0x80}, R}, {new int[] {0xBF, 0x80}, R + R}, {new int[] {0x41, 0x80, 0x80, 0x41}, "A" + R + R + "A"},
+                // overlong forms
+                {new int[] {0xC0, 0x80}, R + R}, {new int[] {0xC1, 0xBF}, R + R}, {new int[] {0xE0, 0x80, 0x80}, R + R + R},
+                {new int[] {0xE0, 0x9F, 0xBF}, R + R + R}, {new int[] {0xF0, 0x8F, 0xBF, 0xBF}, R + R + R + R},
+                // surrogates, and the code points either side of them
+                {new int[] {0xED, 0xA0, 0x80}, R + R + R}, {new int[] {0xED, 0xBF, 0xBF}, R + R + R},
+                {new int[] {0xED, 0x9F, 0xBF}, "\uD7FF"}, {new int[] {0xEE, 0x80, 0x80}, "\uE000"},
+                // above U+10FFFF
+                {new int[] {0xF4, 0x90, 0x80, 0x80}, R + R + R + R}, {new int[] {0xF5, 0x80}, R + R}, {new int[] {0xFF}, R},
+                {new int[] {0xF4, 0x8F, 0xBF, 0xBF}, new String(Character.toChars(0x10FFFF))},
+                // truncated sequences are one replacement however much of them is there
+                {new int[] {0xE2, 0x88}, R}, {new int[] {0xE2, 0x41}, R + "A"}, {new int[] {0xF0, 0x9F, 0x98}, R},
+                {new int[] {0xF0, 0x9F, 0x41}, R + "A"}, {new int[] {0xF0, 0x9F, 0x98, 0xE2, 0x88, 0x80}, R + "\u2200"},
+                {new int[] {0xC3, 0xA9, 0xE2, 0x88, 0x80, 0xF0, 0x9F, 0x98, 0x80}, "\u00E9\u2200\uD83D\uDE00"},
+        };
+        for (Object[] c : cases) {
+            int[] sequence = (int[]) c[0];
+            byte[] bytes = new byte[sequence.length + 2];
+            bytes[0] = 'a';
+            for (int i = 0; i < sequence.length; i++) {
+                bytes[i + 1] = (byte) sequence[i];
+            }
+            bytes[bytes.length - 1] = 'z';
+            assertDecodesTo("a" + c[1] + "z", bytes);
+            // At the end of the file as well
+            assertDecodesTo("a" + c[1], Arrays.copyOf(bytes, bytes.length - 1));
+        }
+    }
+
+    /**
+     * The JDK decoder follows the same rule except for encoded surrogates, which it replaces with a
+     * single U+FFFD, so the random bytes contain no 0xED lead bytes.
+     */
+    @Test
+    void randomBytesDecodeLikeTheJdk() throws IOException {
+        Random random = new Random(8);
+        for (int run = 0; run < 20; run++) {
+            // Long enough to need several checkpoints
+            byte[] bytes = new byte[5 * MappedCharStream.CHECKPOINT_INTERVAL + random.nextInt(100)];
+            random.nextBytes(bytes);
+            bytes[0] = 'a'; // not a byte order mark
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] == (byte) 0xED) {
+                    bytes[i] = (byte) 0xEE;
+                }
+            }
+            assertDecodesTo(new String(bytes, StandardCharsets.UTF_8), bytes);
+        }
+    }
+
+    private void assertDecodesTo(String expected, byte[] bytes) throws IOException {
+        Path file = Files.write(directory.resolve("agent.soar"), bytes);
+        CharStream stream = MappedCharStream.open(file);
+
+        assertEquals(expected.codePointCount(0, expected.length()), stream.size());
+        assertEquals(expected, stream.getText(Interval.of(0, stream.size() - 1)));
+
+        // Seeking back to a code point must find the same one the forward walk did
+        int[] codePoints = expected.codePoints().toArray();
+        for (int i = codePoints.length - 1; i >= 0; i -= 97) {
+            stream.seek(i);
+            assertEquals(codePoints[i], stream.LA(1));
+        }
+        stream.seek(codePoints.length);
+        assertEquals(IntStream.EOF, stream.LA(1));
+    }
+}
@@ -0,0 +1,109 @@
+package edu.fit.assist.translator.soar;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NameMatcherTest {
+
+    private static final List<String> TEXTS = List.of(
+            "time_counter > 5", "<time-counter>", "state_time-counter", "time-counter2", "x<time-counter>y",
+            "time-counter", "time_counter", "<time_counter>", "(<time-counter>)", "<<time-counter>>",
+            "<time-counter>x", "x<time-counter>", "<time-counter", "time-counter>", "-time-counter-",
+            "time-counter time_counter", "state_time-counter time-counter", "time--counter", "time-counter_",
+            "total-time", "total_time <= 1200", "total-time-counter", "<total-time>", "time", "timetime",
+            "time-time", "counter", "counter-time", "time-counter-total-time", "total-time_counter", "");
+
+    @Test
+    void findsNamesThatStandOnTheirOwn() {
+        NameMatcher matcher = NameMatcher.forName("time-counter");
+        assertTrue(matcher.contains("time_counter > 5"));
+        assertTrue(matcher.contains("<time-counter>"));
+        assertFalse(matcher.contains("state_time-counter"));
+        assertFalse(matcher.contains("time-counter2"));
+        assertFalse(matcher.contains("x<time-counter>y"));
+    }
+
+    /**
+     * Names that overlap or contain each other are each found only where they stand on their own
+     */
+    @Test
+    void findsEachOfSeveralOverlappingNames() {
+        NameMatcher matcher = new NameMatcher("time", "time-counter", "counter", "total-time");
+        assertEquals(0b0010, matcher.find("time_counter > 5"));
+        assertEquals(0b1000, matcher.find("total_time <= 1200"));
+        assertEquals(0b1111, matcher.find("time-counter-total-time"));
+        assertEquals(0b0101, matcher.find("counter-time"));
+        assertEquals(0b0000, matcher.find("x<time-counter>y"));
+        assertEquals(0b0001, matcher.find("<time>"));
+    }
+
+    /**
+     * Every name is found where the lookaround regexes NameMatcher replaced found it
+     */
+    @Test
+    void findsWhatTheRegexesFound() {
+        String[] names = {"time", "time-counter", "counter", "total-time", "time_counter", "total_time"};
+        NameMatcher matcher = new NameMatcher(names);
+        List<String> differences = new ArrayList<>();
+        for (String text : TEXTS) {
+            long expected = 0;
+            for (int i = 0; i < names.length; i++) {
+                if (regexFinds(text, names[i])) {
+                    expected |= 1L << i;
+                }
+                if (NameMatcher.forName(names[i]).contains(text) != regexFinds(text, names[i])) {
+                    differences.add(names[i] + " in \"" + text + "\" on its own");
+                }
+            }
+            if (matcher.find(text) != expected) {
+                differences.add("\"" + text + "\": " + Long.toBinaryString(matcher.find(text))
+                        + " instead of " + Long.toBinaryString(expected));
+            }
+        }
+        assertEquals(List.of(), differences);
+    }
+
+    @Test
+    void modelsWithTheTimeVariableAreTimeBased() throws Exception {
+        assertTrue(TranslatorUtils.isTimeBasedModel(parse("flat.soar"), PrismConfig.DEFAULT_TIME_VARIABLE));
+        assertFalse(TranslatorUtils.isTimeBasedModel(parse("merge.soar"), PrismConfig.DEFAULT_TIME_VARIABLE));
+        assertFalse(isTimeBased(Guard.of("state_time-counter", Guard.Relation.EQUAL, "1")));
+        assertFalse(isTimeBased(Guard.of("state_count", Guard.Relation.LESS, "time-counter2")));
+        assertTrue(isTimeBased(Guard.of("state_count", Guard.Relation.LESS, "<time-counter>")));
+        assertTrue(isTimeBased(Guard.of("time_counter", Guard.Relation.GREATER, "5")));
+    }
+
+    private static boolean isTimeBased(Guard guard) {
+        SoarRules rules = new SoarRules();
+        Rule rule = new Rule("propose*wait", rules.variables, rules.symbols);
+        rule.addGuard(guard);
+        rules.addRule(rule);
+        return TranslatorUtils.isTimeBasedModel(rules, PrismConfig.DEFAULT_TIME_VARIABLE);
+    }
+
+    private static SoarRules parse(String agentFile) throws Exception {
+        Path path = Paths.get(NameMatcherTest.class.getResource("/agents/" + agentFile).toURI());
+        return RuleParser.parseRules(CharStreams.fromPath(path));
+    }
+
+    private static boolean regexFinds(String text, String name) {
+        for (String variant : new String[]{name, name.replace('_', '-'), name.replace('-', '_')}) {
+            String core = Pattern.quote(variant);
+            if (Pattern.compile("(?<![A-Za-z0-9_])<" + core + ">(?![A-Za-z0-9_])").matcher(text).find()
+                    || Pattern.compile("(?<![A-Za-z0-9_<>])" + core + "(?![A-Za-z0-9_<>])").matcher(text).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,67 @@
+package edu.fit.assist.translator.soar;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OutputTest {
+
+    /**
+     * A pair matches when the apply rule mentions the operator the propose rule sets. Once any pair
+     * in the model has matched, every later pair emits: in merge.soar apply*wait doesn't match and
+     * emits nothing, apply*go matches, and apply*stop emits without matching.
+     */
+    @Test
+    void everyPairFromTheFirstMatchOfTheModelEmits() throws Exception {
+        assertEquals(List.of(
+                "[] state_name = merge & state_light = green -> state_prob: (state_light'=yellow)",
+                "[] state_name = merge & state_light = yellow -> state_prob: (state_light'=red)"),
+                transitions(parse("merge.soar")));
+    }
+
+    /**
+     * The same holds between the apply rules of one propose rule: of three apply*go, the first comes
+     * before the match in the second, and the third emits without matching
+     */
+    @Test
+    void applyRulesBeforeTheFirstMatchDoNotEmit() {
+        SoarRules rules = new SoarRules();
+        rules.addVariableValue("state_light", "green");
+        rules.addVariableValue("state_light", "yellow");
+        rules.addVariableValue("state_operator", "go");
+        addRule(rules, "apply*initialize", Guard.of("state_operator", Guard.Relation.EQUAL, "initialize"), "state_prob", "0.5");
+        addRule(rules, "propose*go", Guard.of("state_light", Guard.Relation.EQUAL, "green"), "state_operator_name", "go");
+        addRule(rules, "apply*go", Guard.of("state_light", Guard.Relation.EQUAL, "green"), "state_light", "yellow");
+        addRule(rules, "apply*go", Guard.of("state_operator", Guard.Relation.EQUAL, "go"), "state_light", "red");
+        addRule(rules, "apply*go", Guard.of("state_light", Guard.Relation.EQUAL, "yellow"), "state_light", "green");
+        assertEquals(List.of(
+                "[] state_light = green -> state_prob: (state_light'=red)",
+                "[] state_light = green -> state_prob: (state_light'=green)"),
+                transitions(rules));
+    }
+
+    private static void addRule(SoarRules rules, String name, Guard guard, String variable, String value) {
+        Rule rule = new Rule(name, rules.variables, rules.symbols);
+        rule.addGuard(guard);
+        rule.addAttrValue(variable, value);
+        rules.addRule(rule);
+    }
+
+    private static List<String> transitions(SoarRules rules) {
+        return new Output(rules).generateOutput().lines()
+                .filter(line -> line.startsWith("    []"))
+                .map(String::strip)
+                .collect(Collectors.toList());
+    }
+
+    private static SoarRules parse(String agentFile) throws Exception {
+        Path path = Paths.get(OutputTest.class.getResource("/agents/" + agentFile).toURI());
+        return RuleParser.parseRules(CharStreams.fromPath(path));
+    }
+}
@@ -0,0 +1,84 @@
+package edu.fit.assist.translator.soar;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PrismEmitterTest {
+
+    // Values where the digit by digit rounding has an edge: the point where fixed switches to
+    // BigDecimal, zeros, values below the last decimal and round-ups that carry into the integer part
+    private static final double[] EDGES = {
+            0.0, -0.0, 1.0, -1.0, 0.5, 0.05, 0.15, 0.25, 0.35, 1.5, 2.5, 0.1, 0.2, 0.3, 1.0 / 3, 2.0 / 3,
+            0.9999999999999999, 0.99999999999999999, 9.999999999999999, 99.99999999999999, 0.49999999999999994,
+            1e-15, 1e-16, 5e-17, 4.9e-17, 1e-17, 5e-18, 1e-300, Double.MIN_VALUE, -1e-17, -5e-17,
+            99.5, 999.5, 12.34, 123.456, 1234.5678, 99999.99999999999, 123456.789,
+            99.99, 100.0, 999.9999999999999, 9.99999999999999e1, 1.0000000000000002,
+            1e17, 1e18, 9.223372036854776e18, 1e19, 123456789.123456789, 99999999.99999999, 1e22, 1e300,
+            Double.MAX_VALUE, -Double.MAX_VALUE, 0.1 + 0.2, 0.7, 0.95, 0.995, 0.9995,
+            Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+    @Test
+    void fixedWritesWhatFormatWrites() {
+        List<String> differences = new ArrayList<>();
+        for (double value : EDGES) {
+            for (int decimals = 0; decimals <= 20; decimals++) {
+                compare(value, decimals, differences);
+            }
+        }
+        assertEquals(List.of(), differences);
+    }
+
+    /**
+     * Probabilities, scaled values and raw bit patterns, at the decimals the translators use and around them
+     */
+    @Test
+    void fixedWritesWhatFormatWritesForRandomValues() {
+        Random random = new Random(21);
+        int[] decimals = {0, 1, 2, 4, 6, 15, 16, 17, 18, 19};
+        List<String> differences = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            double probability = random.nextDouble();
+            double scaled = probability * Math.pow(10, random.nextInt(40) - 20);
+            double bits = Double.longBitsToDouble(random.nextLong());
+            // Values a few ulps below a rounding boundary
+            double boundary = Math.nextDown(Math.rint(probability * 1e4) / 1e4 + 0.00005);
+            for (double value : new double[]{probability, scaled, bits, boundary, -probability}) {
+                compare(value, decimals[i % decimals.length], differences);
+            }
+            if (differences.size() > 20) {
+                break;
+            }
+        }
+        assertEquals(List.of(), differences);
+    }
+
+    @Test
+    void integersWriteWhatFormatWrites() {
+        long[] values = {0, 7, -7, 10, 99, 100, -100, 123456789, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1};
+        for (long value : values) {
+            assertEquals(String.format(Locale.ROOT, "%d", value), write(out -> out.number(value)));
+            assertEquals(String.format(Locale.ROOT, "%4d", value), write(out -> out.padLeft(value, 4)));
+        }
+    }
+
+    private static void compare(double value, int decimals, List<String> differences) {
+        String expected = String.format(Locale.ROOT, "%." + decimals + "f", value);
+        String actual = write(out -> out.fixed(value, decimals));
+        if (!expected.equals(actual)) {
+            differences.add(value + " to " + decimals + " decimals: " + actual + " instead of " + expected);
+        }
+    }
+
+    private static String write(Consumer<PrismEmitter> writer) {
+        StringBuilder out = new StringBuilder();
+        writer.accept(PrismEmitter.of(out));
+        return out.toString();
+    }
+}
@@ -0,0 +1,36 @@
+package edu.fit.assist.translator.soar;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.misc.Interval;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProductionCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void entriesReadBackAsWritten() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            // Longer than one write chunk, with characters outside ASCII and the BMP
+            text.append("sp {apply*step-").append(i).append(" (state <s> ^name mission-é∀😀) --> (<s> ^count ").append(i).append(")}\n");
+        }
+        ProductionCache cache = new ProductionCache(directory);
+        assertNull(cache.read("key", "agent.soar"));
+
+        cache.write("key", CharStreams.fromString(text.toString()));
+        CharStream read = cache.read("key", "agent.soar");
+
+        assertEquals(text.codePointCount(0, text.length()), read.size());
+        assertEquals(text.toString(), read.getText(Interval.of(0, read.size() - 1)));
+        assertEquals("agent.soar", read.getSourceName());
+    }
+}
@@ -0,0 +1,97 @@
+package edu.fit.assist.translator.soar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares {@link ProductionSanitizer} with the regex cleanup that Input used before it, on synthetic
+ * printed chunks with many placeholder variables. The two must produce the same text.
+ *
+ * Arguments: [productions (2000)] [placeholders per production (200)]
+ */
+public class ProductionSanitizerBenchmark {
+
+    public static void main(String[] args) {
+        int productions = Benchmarks.intArg(args, 0, 2000);
+        int placeholders = Benchmarks.intArg(args, 1, 200);
+        List<String> chunks = chunks(productions, placeholders);
+
+        ProductionSanitizer sanitizer = new ProductionSanitizer();
+        for (String chunk : chunks) {
+            if (!sanitizer.clean(chunk).toString().equals(regexClean(chunk))) {
+                throw new IllegalStateException("The sanitizer and the regex cleanup disagree on\n" + chunk);
+            }
+        }
+
+        System.out.println(productions + " productions with " + placeholders + " placeholders each");
+        Benchmarks.report("regex cleanup", productions, () -> {
+            long length = 0;
+            for (String chunk : chunks) {
+                length += regexClean(chunk).length();
+            }
+            return length;
+        });
+        Benchmarks.report("ProductionSanitizer", productions, () -> {
+            long length = 0;
+            for (String chunk : chunks) {
+                length += sanitizer.clean(chunk).length();
+            }
+            return length;
+        });
+    }
+
+    /**
+     * Chunks as JSoar prints them, where every other placeholder occurs twice and the rest only once
+     */
+    static List<String> chunks(int productions, int placeholders) {
+        List<String> chunks = new ArrayList<>(productions);
+        StringBuilder text = new StringBuilder();
+        for (int p = 0; p < productions; p++) {
+            text.setLength(0);
+            text.append("sp {chunk-").append(p).append("*d12*opnochange*1\n    :chunk\n    (state <s1> ^operator <o1>");
+            for (int i = 0; i < placeholders; i++) {
+                text.append(" ^a").append(i).append(" <v*").append(i).append('>');
+            }
+            text.append(")\n    (<o1> ^name step-").append(p).append(")\n    -->\n    (<s1>");
+            for (int i = 0; i < placeholders; i += 2) {
+                text.append(" ^b").append(i).append(" <v*").append(i).append("> +");
+            }
+            text.append(")\n}\n");
+            chunks.add(text.toString());
+        }
+        return chunks;
+    }
+
+    /**
+     * The cleanup Input.cleanProduction did before ProductionSanitizer replaced it
+     */
+    static String regexClean(String input) {
+        Pattern attributePattern = Pattern.compile("<[a-zA-Z0-9]+[*][a-zA-Z0-9]+>");
+        ArrayList<String> attributes = new ArrayList<String>();
+        ArrayList<String> attributesToRemove = new ArrayList<String>();
+        Matcher attributeMatcher = attributePattern.matcher(input);
+        // Find all placeholder attributes
+        while (attributeMatcher.find()) {
+            attributes.add(attributeMatcher.group());
+        }
+        // Find which attributes to remove based on number of occurrences
+        for (String s : attributes) {
+            int occurrences = 0;
+            for (String s1 : attributes) {
+                if (s.equals(s1)) {
+                    occurrences++;
+                }
+            }
+            if (occurrences == 1) {
+                attributesToRemove.add(s);
+            }
+        }
+
+        for (String s : attributesToRemove) {
+            input = input.replace(s, "");
+        }
+        return input;
+    }
+}
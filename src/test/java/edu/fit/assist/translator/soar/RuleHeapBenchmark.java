@@ -0,0 +1,26 @@
+package edu.fit.assist.translator.soar;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+
+/**
+ * Measures the heap the rules of a large agent keep after parsing, on a synthetic agent made of
+ * renamed copies of flat.soar. Every production has its own name, but attributes and values repeat
+ * as they do in a large real agent.
+ *
+ * Arguments: [copies of flat.soar (8400, about 100,000 rules)]
+ */
+public class RuleHeapBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int copies = Benchmarks.intArg(args, 0, 8400);
+        CharStream input = CharStreams.fromString(Benchmarks.syntheticAgent(copies), "synthetic.soar");
+
+        long before = Benchmarks.usedHeap();
+        SoarRules rules = RuleParser.parseRules(input);
+        long after = Benchmarks.usedHeap();
+
+        System.out.printf("%d rules and %d variables in %d copies of flat.soar: %d bytes per rule%n",
+                rules.rules.size(), rules.variables.size(), copies, (after - before) / rules.rules.size());
+    }
+}
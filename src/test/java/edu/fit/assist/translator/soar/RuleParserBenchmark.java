@@ -0,0 +1,48 @@
+package edu.fit.assist.translator.soar;
+
+import edu.fit.assist.translator.gen.SoarLexer;
+import edu.fit.assist.translator.gen.SoarParser;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+
+/**
+ * Compares the two-stage SLL then LL parse of {@link RuleParser} with a parse that uses full LL
+ * prediction from the start, on a synthetic agent made of renamed copies of flat.soar. Both must
+ * parse the same number of productions. Each run uses a new parser, so the DFA cache built by the
+ * warmup runs is shared by both, as it is in a real translation.
+ *
+ * Arguments: [copies of flat.soar (400)]
+ */
+public class RuleParserBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int copies = Benchmarks.intArg(args, 0, 400);
+        CharStream input = CharStreams.fromString(Benchmarks.syntheticAgent(copies), "synthetic.soar");
+        int productions = llOnly(input);
+        int sllProductions = twoStage(input);
+        if (productions != sllProductions) {
+            throw new IllegalStateException("LL parsed " + productions + " productions, SLL then LL " + sllProductions);
+        }
+
+        System.out.println(productions + " productions in " + copies + " copies of flat.soar");
+        Benchmarks.report("LL only", productions, () -> llOnly(input));
+        Benchmarks.report("SLL then LL (RuleParser)", productions, () -> twoStage(input));
+    }
+
+    static int twoStage(CharStream input) {
+        input.seek(0);
+        return RuleParser.parse(input, new RuleParser.ParseStats()).soar_production().size();
+    }
+
+    /**
+     * The parse RuleParser did before it tried SLL first
+     */
+    static int llOnly(CharStream input) {
+        input.seek(0);
+        SoarParser parser = new SoarParser(new CommonTokenStream(new SoarLexer(input)));
+        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+        return parser.soar().soar_production().size();
+    }
+}
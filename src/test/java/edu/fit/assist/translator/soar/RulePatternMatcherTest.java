@@ -0,0 +1,97 @@
+package edu.fit.assist.translator.soar;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RulePatternMatcherTest {
+
+    // Patterns of each kind Entry.compile tells apart, with a catch-all module last
+    private static final List<PrismConfig.ModuleConfig> MODULES = List.of(
+            module("escapes", "propose\\*check\\*.*", "apply\\.x", "a\\d+", "x\\.\\*y"),
+            module("quantifiers", "ab*c", "ab+c", "colou?r", "x{2,3}y", ".*?lazy", ".+end", ".*+poss", "z.*?q"),
+            module("alternatives", "go|stop", "(propose|apply)\\*move"),
+            module("invalid", "propose*[", "([a-z]", "unclosed.*"),
+            module("anchors", "^start.*$", "(?i)CASE.*", ""),
+            module("globs", ".*sickness.*", "ab.*ba", "pre.*mid.*post", "elaborate.*time.*", "propose.*", ".*\\*done"),
+            module("rest", ".*"));
+
+    private static final List<String> NAMES = List.of(
+            "propose*check*sick", "propose*check*sickness", "propose*check*\n", "propose*checkX",
+            "apply.x", "applyXx", "a12", "a", "x.*y", "xyzy",
+            "ac", "abc", "abbc", "color", "colour", "colouur", "xxy", "xxxy", "xxxxy",
+            "lazy", "the lazy", "end", "xend", "poss", "possum", "zq", "zabq", "zqq",
+            "go", "stop", "gostop", "propose*move", "apply*move", "elaborate*move",
+            "propose*[", "p", "unclosed", "unclosed\n",
+            "start", "start here", "case", "CASE sensitive", "",
+            "has sickness now", "sick\nness", "my sickness\n", "sickness\r", "a\u2028sickness", "line\r\nbreak",
+            "elaborate*time", "elaborate*x*time*y", "elaborate\ntime", "propose*anything", "all*done", "done",
+            "aba", "abba", "abxba", "premidpost", "prepost", "premipost", "pre-post-mid", "premidmidpost", "premidpostx",
+            "unmatched");
+
+    /**
+     * The matcher assigns every name to the module the String.matches loop it replaced assigned it to
+     */
+    @Test
+    void matchesLikeTheStringMatchesLoop() {
+        RulePatternMatcher matcher = new RulePatternMatcher(MODULES);
+        List<String> differences = new ArrayList<>();
+        for (String name : NAMES) {
+            String expected = nameOf(stringMatchesModule(name));
+            String actual = nameOf(matcher.moduleFor(name));
+            if (!String.valueOf(expected).equals(String.valueOf(actual))) {
+                differences.add(name.replace("\n", "\\n").replace("\r", "\\r") + ": " + actual + " instead of " + expected);
+            }
+        }
+        assertEquals(List.of(), differences);
+    }
+
+    @Test
+    void firstModuleWithAMatchingPatternWins() {
+        RulePatternMatcher matcher = new RulePatternMatcher(MODULES);
+        assertEquals("escapes", matcher.moduleFor("propose*check*sickness").name);
+        assertEquals("alternatives", matcher.moduleFor("propose*move").name);
+        assertEquals("globs", matcher.moduleFor("propose*anything").name);
+        assertEquals("rest", matcher.moduleFor("unmatched").name);
+        // An invalid pattern is ignored, and the valid patterns of its module still match
+        assertEquals("invalid", matcher.moduleFor("unclosed").name);
+        assertEquals("rest", matcher.moduleFor("([a-z]").name);
+        // "." doesn't match a line terminator, so not even ".*" matches a name containing one
+        assertNull(matcher.moduleFor("sick\nness"));
+        assertNull(matcher.moduleFor("propose*check*\n"));
+    }
+
+    /**
+     * The module getModuleForRule used to return, skipping the invalid patterns it used to throw on
+     */
+    private static PrismConfig.ModuleConfig stringMatchesModule(String name) {
+        for (PrismConfig.ModuleConfig module : MODULES) {
+            for (String pattern : module.soarRulePatterns) {
+                try {
+                    if (name.matches(pattern)) {
+                        return module;
+                    }
+                } catch (PatternSyntaxException e) {
+                    // ignored, as the matcher does
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String nameOf(PrismConfig.ModuleConfig module) {
+        return (module == null) ? null : module.name;
+    }
+
+    private static PrismConfig.ModuleConfig module(String name, String... patterns) {
+        PrismConfig.ModuleConfig module = new PrismConfig.ModuleConfig();
+        module.name = name;
+        module.soarRulePatterns = List.of(patterns);
+        return module;
+    }
+}
@@ -0,0 +1,74 @@
+package edu.fit.assist.translator.soar;
+
+/**
+ * Measures adding n rules to a SoarRules, looking each one up by name and finding the apply rules of
+ * every propose rule, from 1,000 to 100,000 rules. With the name and role indexes the cost per rule
+ * stays flat; the list scans they replaced grow with n, so they are only run up to a smaller size.
+ *
+ * Arguments: [largest number of rules (100,000)] [largest number of rules to scan (10,000)]
+ */
+public class SoarRulesScalingBenchmark {
+
+    public static void main(String[] args) {
+        int largest = Benchmarks.intArg(args, 0, 100_000);
+        int largestScanned = Benchmarks.intArg(args, 1, 10_000);
+        for (int n = 1_000; n <= largest; n *= 10) {
+            int size = n;
+            if (size <= largestScanned && indexed(build(size)) != scanned(build(size))) {
+                throw new IllegalStateException("The indexes and the scans found different rules for " + size + " rules");
+            }
+            Benchmarks.report(size + " rules, indexes", size, () -> indexed(build(size)));
+            if (size <= largestScanned) {
+                Benchmarks.report(size + " rules, list scans", size, () -> scanned(build(size)));
+            }
+        }
+    }
+
+    /**
+     * A propose and an apply rule for each of size / 2 operators
+     */
+    private static SoarRules build(int size) {
+        SoarRules rules = new SoarRules();
+        for (int i = 0; i < size / 2; i++) {
+            rules.createNewRule(SoarRules.PROPOSE_PREFIX + "op-" + i);
+            rules.createNewRule(SoarRules.APPLY_PREFIX + "op-" + i);
+        }
+        return rules;
+    }
+
+    private static long indexed(SoarRules rules) {
+        long found = 0;
+        for (Rule rule : rules.rules) {
+            found += (rules.getRuleByName(rule.ruleName) == rule) ? 1 : 0;
+        }
+        for (Rule propose : rules.getProposeRules()) {
+            found += rules.getRulesByName(SoarRules.APPLY_PREFIX + propose.ruleName.substring(SoarRules.PROPOSE_PREFIX.length())).size();
+        }
+        return found;
+    }
+
+    /**
+     * The same lookups as indexed, scanning the list of rules as SoarRules did before it had indexes
+     */
+    private static long scanned(SoarRules rules) {
+        long found = 0;
+        for (Rule rule : rules.rules) {
+            for (Rule other : rules.rules) {
+                if (other.ruleName.equals(rule.ruleName)) {
+                    found += (other == rule) ? 1 : 0;
+                    break;
+                }
+            }
+        }
+        for (Rule propose : rules.rules) {
+            if (!propose.ruleName.startsWith(SoarRules.PROPOSE_PREFIX)) {
+                continue;
+            }
+            String applyName = SoarRules.APPLY_PREFIX + propose.ruleName.substring(SoarRules.PROPOSE_PREFIX.length());
+            for (Rule apply : rules.rules) {
+                found += apply.ruleName.equals(applyName) ? 1 : 0;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,96 @@
+package edu.fit.assist.translator.soar;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SoarRulesTest {
+
+    /**
+     * A redefined production keeps its earlier rule, and removing the name removes the rules in
+     * source order from the list and from every index at once
+     */
+    @Test
+    void removeRuleKeepsTheIndexesInStepWithTheList() {
+        SoarRules rules = new SoarRules();
+        Rule propose = rule(rules, "propose*go");
+        Rule apply = rule(rules, "apply*go");
+        Rule redefined = rule(rules, "propose*go");
+        Rule elaborate = rule(rules, "elaborate*go");
+
+        assertEquals(List.of(propose, redefined), rules.getRulesByName("propose*go"));
+        assertSame(propose, rules.getRuleByName("propose*go"));
+
+        rules.removeRule("propose*go");
+        assertEquals(List.of(apply, redefined, elaborate), rules.rules);
+        assertEquals(List.of(redefined), rules.getRulesByName("propose*go"));
+        assertSame(redefined, rules.getRuleByName("propose*go"));
+        assertEquals(List.of(redefined), rules.getProposeRules());
+        assertEquals(List.of(apply), rules.getApplyRules());
+        assertEquals(List.of(elaborate), rules.getElaborateRules());
+
+        rules.removeRule("propose*go");
+        rules.removeRule("propose*go");
+        assertEquals(List.of(apply, elaborate), rules.rules);
+        assertEquals(List.of(), rules.getRulesByName("propose*go"));
+        assertNull(rules.getRuleByName("propose*go"));
+        assertEquals(List.of(), rules.getProposeRules());
+
+        rules.removeRule("apply*go");
+        rules.removeRule("elaborate*go");
+        assertEquals(List.of(), rules.rules);
+        assertEquals(List.of(), rules.getApplyRules());
+        assertEquals(List.of(), rules.getElaborateRules());
+    }
+
+    /**
+     * In domains.soar, b, c, d and e copy each other backwards and form a cycle that also takes the
+     * values of a; h and k copy a variable, p and q copy each other, and m copies an input that is no
+     * variable. Each variable keeps its own values first, then those it takes through references.
+     */
+    @Test
+    void referencesGiveEveryVariableItsFullDomain() throws Exception {
+        SoarRules rules = parse("domains.soar");
+        rules.resolveValueDomains();
+        rules.resolveTypes();
+
+        assertDomain(rules, "state_a", Variable.INT, "1", "4", "nil");
+        assertDomain(rules, "state_f", Variable.FLOAT, "0.5", "nil");
+        // The cycle shares one domain: its members' values in variable order, then those of a
+        for (String name : List.of("state_b", "state_c", "state_d", "state_e")) {
+            assertDomain(rules, name, Variable.INT, "nil", "7", "1", "4");
+        }
+        assertDomain(rules, "state_h", Variable.INT, "nil", "7", "1", "4");
+        assertDomain(rules, "state_k", Variable.FLOAT, "0.5", "nil");
+        assertDomain(rules, "state_p", Variable.S_CONST, "yes", "nil", "maybe", "no");
+        assertDomain(rules, "state_q", Variable.S_CONST, "no", "nil", "yes", "maybe");
+        // The reference to the input is dropped
+        assertDomain(rules, "state_m", Variable.INT, "3");
+    }
+
+    private static void assertDomain(SoarRules rules, String name, int type, String... values) {
+        Variable var = rules.variables.get(name);
+        assertEquals(List.of(values), new ArrayList<>(var.values), name);
+        assertEquals(type, var.varType, name);
+        assertEquals(type, rules.mapNameToType.get(name), name);
+    }
+
+    private static SoarRules parse(String agentFile) throws Exception {
+        Path path = Paths.get(SoarRulesTest.class.getResource("/agents/" + agentFile).toURI());
+        return RuleParser.parseRules(CharStreams.fromPath(path));
+    }
+
+    private static Rule rule(SoarRules rules, String name) {
+        Rule rule = new Rule(name, rules.variables, rules.symbols);
+        rules.addRule(rule);
+        return rule;
+    }
+}
@@ -0,0 +1,47 @@
+package edu.fit.assist.translator.soar;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SoarSourceLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void scanSkipsProductionsThatMentionSource() throws IOException {
+        Path rules = write("rules.soar", "sp {apply*source-select\n"
+                + "   (state <s> ^operator.name source-select ^source <x>)\n"
+                + "-->\n"
+                + "   (<s> ^selected $x)\n"
+                + "}\n");
+        Path load = write("load.soar", "source rules.soar\n");
+
+        Map<Path, byte[]> files = new SoarSourceLoader().scan(load.toString());
+
+        assertEquals(2, files.size());
+        assertEquals(rules.toAbsolutePath().normalize(), files.keySet().toArray()[1]);
+    }
+
+    @Test
+    void scanRejectsCommandsThatMaySourceFiles() throws IOException {
+        write("rules.soar", "sp {apply*a (state <s> ^b 1) --> (<s> ^c 2)}\n");
+        Path proc = write("proc.soar", "proc load-rules {} {\n    source rules.soar\n}\nload-rules\n");
+        Path substituted = write("set.soar", "set name rules\necho $name\n");
+
+        assertNull(new SoarSourceLoader().scan(proc.toString()));
+        assertNull(new SoarSourceLoader().scan(substituted.toString()));
+    }
+
+    private Path write(String name, String text) throws IOException {
+        return Files.writeString(directory.resolve(name), text);
+    }
+}
@@ -0,0 +1,86 @@
+package edu.fit.assist.translator.soar;
+
+import edu.fit.assist.translator.gen.SoarParser;
+import org.antlr.v4.runtime.CharStreams;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the time and allocation of visiting a parse tree, on a synthetic agent made of renamed
+ * copies of flat.soar that is parsed once up front. It also compares
+ * {@link Visitor#cleanVariableName} with the three replaceAll calls it replaced, which must give the
+ * same names.
+ *
+ * Arguments: [copies of flat.soar (400)]
+ */
+public class VisitorBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int copies = Benchmarks.intArg(args, 0, 400);
+        SoarParser.SoarContext tree = RuleParser.parse(CharStreams.fromString(Benchmarks.syntheticAgent(copies), "synthetic.soar"),
+                new RuleParser.ParseStats());
+        int productions = tree.soar_production().size();
+
+        List<String> names = variableNames(visit(tree));
+        Visitor<?> cleaner = new Visitor<>();
+        for (String name : names) {
+            if (!cleaner.cleanVariableName(name).equals(regexClean(name))) {
+                throw new IllegalStateException("cleanVariableName and replaceAll disagree on " + name);
+            }
+        }
+
+        System.out.println(productions + " productions in " + copies + " copies of flat.soar, "
+                + names.size() + " variable names");
+        Benchmarks.report("Visitor", productions, () -> visit(tree).rules.size());
+        Benchmarks.report("cleanVariableName replaceAll", names.size(), () -> {
+            long length = 0;
+            for (String name : names) {
+                length += regexClean(name).length();
+            }
+            return length;
+        });
+        Benchmarks.report("Visitor.cleanVariableName", names.size(), () -> {
+            long length = 0;
+            for (String name : names) {
+                length += cleaner.cleanVariableName(name).length();
+            }
+            return length;
+        });
+    }
+
+    static SoarRules visit(SoarParser.SoarContext tree) {
+        Visitor<?> visitor = new Visitor<>();
+        visitor.rules = new SoarRules();
+        visitor.visit(tree);
+        return visitor.rules;
+    }
+
+    /**
+     * The variable names of all rules, each also with an io link path segment in it, as a name read
+     * from the input or output link would have
+     */
+    static List<String> variableNames(SoarRules rules) {
+        List<String> names = new ArrayList<>();
+        String[] segments = {"", "_input-link", "_output-link", "_io_output-link_systemdata"};
+        for (Rule rule : rules.rules) {
+            for (String variable : rule.variables) {
+                int context = variable.indexOf('_');
+                for (String segment : segments) {
+                    names.add((context < 0) ? variable + segment : variable.substring(0, context) + segment + variable.substring(context));
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * The cleanup Visitor.cleanVariableName did before it removed the segments in place
+     */
+    static String regexClean(String s) {
+        s = s.replaceAll("\\_output\\-link", "");
+        s = s.replaceAll("\\_input\\-link", "");
+        s = s.replaceAll("\\_systemdata", "");
+        return s;
+    }
+}
@@ -0,0 +1,64 @@
+package edu.fit.assist.translator.soar;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class VisitorTest {
+
+    /**
+     * A variable bound in a rule's context is replaced by the name it is bound to wherever a guard
+     * compares with it. Chunk variables contain '*', so the replacement must be literal.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"readme.soar", "flat.soar", "chain.soar", "features.soar", "chunk.soar"})
+    void guardsUseTheNamesOfBoundVariables(String agentFile) throws Exception {
+        List<String> unreplaced = new ArrayList<>();
+        for (Rule rule : parse(agentFile).rules) {
+            for (Guard guard : rule.guards) {
+                for (String variable : rule.contextMap.keySet()) {
+                    if (guard.toString().contains(variable)) {
+                        unreplaced.add(rule.ruleName + ": " + guard + " still contains " + variable);
+                    }
+                }
+            }
+        }
+        assertEquals(List.of(), unreplaced);
+    }
+
+    @Test
+    void comparisonsWithVariablesBecomeComparisonsWithTheirNames() throws Exception {
+        assertEquals(List.of("state_operator = cmp", "state_y < state_x", "state_z >= 3"),
+                guards(parse("features.soar"), "apply*cmp"));
+        // A chunk compares with a variable named without '*' like a rule does
+        assertEquals(List.of("state_name = mission-monitor", "state_total-time > state_time_counter"),
+                guards(parse("chunk.soar"), "chunk-2*d12*opnochange*1"));
+        // ...and with one named with '*' only through the context, so there is no guard for it
+        assertEquals(List.of("state_name = mission-monitor", "state_operator_name = advance-time"),
+                guards(parse("chunk.soar"), "chunk-1*d12*opnochange*1"));
+    }
+
+    private static SoarRules parse(String agentFile) throws Exception {
+        Path path = Paths.get(VisitorTest.class.getResource("/agents/" + agentFile).toURI());
+        return RuleParser.parseRules(CharStreams.fromPath(path));
+    }
+
+    private static List<String> guards(SoarRules rules, String ruleName) {
+        for (Rule rule : rules.rules) {
+            if (rule.ruleName.equals(ruleName)) {
+                return rule.guards.stream().map(Guard::toString).collect(Collectors.toList());
+            }
+        }
+        return fail("no rule " + ruleName);
+    }
+}